@@ -3,15 +3,22 @@ package com.ecommerce.backend;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * The main application class for the Spring Boot E-commerce Backend.
  *
  * @SpringBootApplication: Meta-annotation that includes @Configuration, @EnableAutoConfiguration, and @ComponentScan.
  * @EnableJpaRepositories: Explicitly enables JPA repositories, although often auto-configured.
+ * @EnableScheduling: Runs background jobs such as the order archiver, on spring.task.scheduling.pool.size threads.
+ * @EnableAsync: Runs @Async methods on Spring Boot's applicationTaskExecutor (virtual threads when
+ * spring.threads.virtual.enabled, see ExecutionModeConfig).
  */
 @SpringBootApplication
 @EnableJpaRepositories(basePackages = "com.ecommerce.backend")
+@EnableScheduling
+@EnableAsync
 public class EcommerceAppApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,115 @@
+package com.ecommerce.backend.catalog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Immutable, pre-serialized view of the product catalog: each product's JSON and the whole list's JSON
+ * (ordered by ID), with their ETags. Requests read it without locks or serialization; changes produce a new
+ * snapshot (see {@link #with} and {@link #without}) that CatalogSnapshotService swaps in.
+ */
+public final class CatalogSnapshot {
+
+    /**
+     * One response body and its strong ETag.
+     */
+    public record Body(byte[] json, String etag) {
+
+        static Body of(byte[] json) {
+            CRC32 crc = new CRC32();
+            crc.update(json);
+            return new Body(json, "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(json.length) + "\"");
+        }
+    }
+
+    private static final byte[] OPEN = "[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SEPARATOR = ",".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CLOSE = "]".getBytes(StandardCharsets.US_ASCII);
+
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(Collections.emptySortedMap());
+
+    private final SortedMap<Long, Body> products;
+    private final Body list;
+
+    private CatalogSnapshot(SortedMap<Long, Body> products) {
+        this.products = Collections.unmodifiableSortedMap(products);
+        this.list = Body.of(concatenate(products));
+    }
+
+    /**
+     * @param productJson Each product's JSON, keyed by product ID.
+     * @return A snapshot of exactly these products.
+     */
+    public static CatalogSnapshot of(Map<Long, byte[]> productJson) {
+        SortedMap<Long, Body> products = new TreeMap<>();
+        productJson.forEach((id, json) -> products.put(id, Body.of(json)));
+        return new CatalogSnapshot(products);
+    }
+
+    /**
+     * @return A copy with the product added or replaced; this snapshot is unchanged.
+     */
+    public CatalogSnapshot with(Long productId, byte[] json) {
+        SortedMap<Long, Body> products = new TreeMap<>(this.products);
+        products.put(productId, Body.of(json));
+        return new CatalogSnapshot(products);
+    }
+
+    /**
+     * @return A copy without the product (or this snapshot, if it does not contain it).
+     */
+    public CatalogSnapshot without(Long productId) {
+        if (!products.containsKey(productId)) {
+            return this;
+        }
+        SortedMap<Long, Body> products = new TreeMap<>(this.products);
+        products.remove(productId);
+        return new CatalogSnapshot(products);
+    }
+
+    /**
+     * @return The JSON array of all products.
+     */
+    public Body list() {
+        return list;
+    }
+
+    /**
+     * @return The product's JSON, or null if there is no such product.
+     */
+    public Body product(long productId) {
+        return products.get(productId);
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    private static byte[] concatenate(SortedMap<Long, Body> products) {
+        int length = OPEN.length + CLOSE.length + Math.max(0, products.size() - 1) * SEPARATOR.length;
+        for (Body body : products.values()) {
+            length += body.json().length;
+        }
+        byte[] json = new byte[length];
+        int offset = append(json, 0, OPEN);
+        boolean first = true;
+        for (Body body : products.values()) {
+            if (!first) {
+                offset = append(json, offset, SEPARATOR);
+            }
+            offset = append(json, offset, body.json());
+            first = false;
+        }
+        append(json, offset, CLOSE);
+        return json;
+    }
+
+    private static int append(byte[] target, int offset, byte[] bytes) {
+        System.arraycopy(bytes, 0, target, offset, bytes.length);
+        return offset + bytes.length;
+    }
+}
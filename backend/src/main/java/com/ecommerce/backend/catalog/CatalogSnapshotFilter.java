@@ -0,0 +1,167 @@
+package com.ecommerce.backend.catalog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Serves the read-only catalog from the current CatalogSnapshot:
+ * GET /api/catalog/products (all listed products) and GET /api/catalog/products/{id}.
+ *
+ * Registered after Spring Security, which authorizes these requests like any other /api/** request, and ahead of
+ * the DispatcherServlet; it answers them itself: no handler mapping, database access or JSON serialization, only
+ * a lookup and a copy of pre-serialized bytes. A matching If-None-Match gets 304 without a body. Bodies larger than the response buffer
+ * are written asynchronously as the client accepts them, so a slow client does not hold the request thread.
+ * Any other request under /api/catalog/ passes through to the chain unchanged.
+ */
+public class CatalogSnapshotFilter extends OncePerRequestFilter {
+
+    static final String PRODUCTS_PATH = "/api/catalog/products";
+
+    private static final int WRITE_CHUNK = 8192;
+
+    private final Supplier<CatalogSnapshot> snapshot;
+    private final long writeTimeoutMs;
+    private final Counter served;
+    private final Counter notModified;
+    private final Counter notFound;
+
+    public CatalogSnapshotFilter(Supplier<CatalogSnapshot> snapshot, long writeTimeoutMs, MeterRegistry meterRegistry) {
+        this.snapshot = snapshot;
+        this.writeTimeoutMs = writeTimeoutMs;
+        this.served = meterRegistry.counter("catalog.snapshot.requests", "result", "ok");
+        this.notModified = meterRegistry.counter("catalog.snapshot.requests", "result", "not_modified");
+        this.notFound = meterRegistry.counter("catalog.snapshot.requests", "result", "not_found");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String method = request.getMethod();
+        boolean head = method.equals("HEAD");
+        if (!head && !method.equals("GET")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        CatalogSnapshot current = snapshot.get();
+        CatalogSnapshot.Body body;
+        if (path.equals(PRODUCTS_PATH) || path.equals(PRODUCTS_PATH + "/")) {
+            body = current.list();
+        } else if (path.startsWith(PRODUCTS_PATH + "/")) {
+            long id = parseId(path, PRODUCTS_PATH.length() + 1);
+            if (id < 0) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            body = current.product(id);
+            if (body == null) {
+                notFound.increment();
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+        } else {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // 1. Headers (CORS matches ProductController's @CrossOrigin)
+        response.setHeader("ETag", body.etag());
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("Access-Control-Allow-Origin", "*");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+
+        // 2. Revalidation
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null && ifNoneMatch.contains(body.etag())) {
+            notModified.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        // 3. Body
+        served.increment();
+        byte[] json = body.json();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("application/json");
+        response.setContentLength(json.length);
+        if (head) {
+            return;
+        }
+        if (json.length <= response.getBufferSize() || !request.isAsyncSupported()) {
+            response.getOutputStream().write(json);
+            return;
+        }
+        AsyncContext async = request.startAsync();
+        async.setTimeout(writeTimeoutMs);
+        ServletOutputStream out = response.getOutputStream();
+        out.setWriteListener(new BodyWriter(json, out, async));
+    }
+
+    // Digits only, no allocation; -1 if the rest of the path is not a product ID
+    static long parseId(String path, int start) {
+        int end = path.length();
+        if (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        if (start >= end || end - start > 18) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = start; i < end; i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+
+    /**
+     * Writes the body in chunks whenever the connection can take more, then completes the request.
+     */
+    static final class BodyWriter implements WriteListener {
+
+        private final byte[] json;
+        private final ServletOutputStream out;
+        private final AsyncContext async;
+        private int offset;
+
+        BodyWriter(byte[] json, ServletOutputStream out, AsyncContext async) {
+            this.json = json;
+            this.out = out;
+            this.async = async;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            while (out.isReady()) {
+                if (offset == json.length) {
+                    async.complete();
+                    return;
+                }
+                int length = Math.min(WRITE_CHUNK, json.length - offset);
+                out.write(json, offset, length);
+                offset += length;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            async.complete();
+        }
+    }
+}
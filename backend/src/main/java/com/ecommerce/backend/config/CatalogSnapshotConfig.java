@@ -0,0 +1,35 @@
+package com.ecommerce.backend.config;
+
+import com.ecommerce.backend.catalog.CatalogSnapshotFilter;
+import com.ecommerce.backend.service.CatalogSnapshotService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the snapshot-backed catalog endpoint (see CatalogSnapshotFilter).
+ */
+@Configuration
+@ConditionalOnProperty(name = "ecommerce.catalog.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class CatalogSnapshotConfig {
+
+    /**
+     * Registers the filter right after Spring Security (order -100), for /api/catalog/ only, so the catalog gets
+     * the same access decision as the rest of /api/** (WebSecurityConfig.filterChain).
+     */
+    @Bean
+    public FilterRegistrationBean<CatalogSnapshotFilter> catalogSnapshotFilter(
+            CatalogSnapshotService catalogSnapshotService,
+            @Value("${ecommerce.catalog.snapshot.writeTimeoutMs:30000}") long writeTimeoutMs,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<CatalogSnapshotFilter> registration = new FilterRegistrationBean<>(
+                new CatalogSnapshotFilter(catalogSnapshotService::current, writeTimeoutMs, meterRegistry));
+        registration.addUrlPatterns("/api/catalog/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.backend.config;
+
+import com.ecommerce.backend.config.datasource.ConnectionLimiter;
+import com.ecommerce.backend.config.datasource.DataSourceRole;
+import com.ecommerce.backend.config.datasource.ReadWriteRoutingDataSource;
+import com.ecommerce.backend.config.datasource.RecentWriteTracker;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Read/write split: @Transactional(readOnly = true) work (catalog browsing, order history) runs on a replica
+ * pool, writes on the primary (spring.datasource.*). Enabled with ecommerce.datasource.replica.enabled;
+ * otherwise Spring Boot's single DataSource is used unchanged.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ecommerce.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public RecentWriteTracker recentWriteTracker(@Value("${ecommerce.datasource.replica.readYourWritesMs:5000}") long pinMs,
+                                                 @Value("${ecommerce.datasource.replica.maxPinnedUsers:100000}") int maxPinnedUsers) {
+        return new RecentWriteTracker(pinMs, maxPinnedUsers);
+    }
+
+    /**
+     * The routing DataSource used by JPA and everything else.
+     * @param properties The primary's settings (spring.datasource.*).
+     * @param connectionLimiter Present when ecommerce.db.connectionLimiter.enabled; limits each pool separately.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties,
+                                 @Value("${ecommerce.datasource.replica.url}") String replicaUrl,
+                                 @Value("${ecommerce.datasource.replica.username:${spring.datasource.username}}") String replicaUsername,
+                                 @Value("${ecommerce.datasource.replica.password:${spring.datasource.password}}") String replicaPassword,
+                                 RecentWriteTracker recentWriteTracker,
+                                 ObjectProvider<ConnectionLimiter> connectionLimiter) {
+        DataSource primary = properties.initializeDataSourceBuilder().build();
+        DataSource replica = DataSourceBuilder.create()
+                .driverClassName(properties.determineDriverClassName())
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        ConnectionLimiter limiter = connectionLimiter.getIfAvailable();
+        if (limiter != null) {
+            primary = limiter.limit("primary", primary);
+            replica = limiter.limit("replica", replica);
+        }
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(recentWriteTracker);
+        routing.setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.backend.config;
+
+import com.ecommerce.backend.config.datasource.ConnectionLimiter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Request execution mode. With spring.threads.virtual.enabled, Spring Boot runs Tomcat's request handling,
+ * the applicationTaskExecutor behind @Async and the scheduler on virtual threads; otherwise on the fixed
+ * platform-thread pools (server.tomcat.threads.max, spring.task.execution.pool.*).
+ *
+ * The code is built for Java 17, where Boot silently keeps platform threads; this configuration fails startup
+ * instead, so the selected mode is the one that runs. Virtual threads also remove the cap that Tomcat's pool put
+ * on concurrent database work, so the connection pools get a ConnectionLimiter in front of them
+ * (ecommerce.db.connectionLimiter.enabled, on by default in virtual mode).
+ */
+@Configuration
+public class ExecutionModeConfig {
+
+    @Configuration
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    static class VirtualThreads {
+
+        VirtualThreads() {
+            int feature = Runtime.version().feature();
+            if (feature < 21) {
+                throw new IllegalStateException("spring.threads.virtual.enabled=true needs a Java 21+ runtime, but this is Java "
+                        + feature + "; unset it to run on platform threads.");
+            }
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "ecommerce.db.connectionLimiter.enabled", havingValue = "true")
+    static class ConnectionLimits {
+
+        @Bean
+        public ConnectionLimiter connectionLimiter(@Value("${ecommerce.db.connectionLimiter.permits:0}") int permits,
+                                                   @Value("${ecommerce.db.connectionLimiter.maxWaitMs:5000}") long maxWaitMs,
+                                                   MeterRegistry meterRegistry) {
+            return new ConnectionLimiter(permits, maxWaitMs, meterRegistry);
+        }
+
+        /**
+         * Limits the pool Spring Boot creates. Ordered first, so the statement timing proxy wraps the limited pool
+         * rather than the other way round. (With the read replica enabled, DataSourceRoutingConfig limits its
+         * two pools itself.)
+         */
+        @Bean
+        public static BeanPostProcessor connectionLimitingPostProcessor(ObjectProvider<ConnectionLimiter> limiter) {
+            return new ConnectionLimitingPostProcessor(limiter);
+        }
+    }
+
+    private static class ConnectionLimitingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ConnectionLimiter> limiter;
+
+        ConnectionLimitingPostProcessor(ObjectProvider<ConnectionLimiter> limiter) {
+            this.limiter = limiter;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource pool) {
+                return limiter.getObject().limit(beanName, pool);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
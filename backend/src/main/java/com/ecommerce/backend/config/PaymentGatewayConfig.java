@@ -0,0 +1,79 @@
+package com.ecommerce.backend.config;
+
+import com.ecommerce.backend.payment.CircuitBreaker;
+import com.ecommerce.backend.payment.HmacSha256Verifier;
+import com.ecommerce.backend.payment.HttpPaymentGateway;
+import com.ecommerce.backend.payment.PaymentGateway;
+import com.ecommerce.backend.payment.PendingPaymentRegistry;
+import com.ecommerce.backend.payment.StubPaymentGatewayServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Wires the PaymentGateway client, the signature verifiers and, for local development, the stub gateway.
+ */
+@Configuration
+public class PaymentGatewayConfig {
+
+    @Bean
+    public PaymentGateway paymentGateway(@Value("${payment.gateway.baseUrl}") String baseUrl,
+                                         @Value("${payment.razorpay.keyId}") String keyId,
+                                         @Value("${payment.razorpay.keySecret}") String keySecret,
+                                         @Value("${payment.gateway.connectTimeoutMs:1000}") long connectTimeoutMs,
+                                         @Value("${payment.gateway.deadlineMs:3000}") long deadlineMs,
+                                         @Value("${payment.gateway.maxConcurrentCalls:50}") int maxConcurrentCalls,
+                                         @Value("${payment.gateway.circuit.failureThreshold:5}") int failureThreshold,
+                                         @Value("${payment.gateway.circuit.openDurationMs:10000}") long openDurationMs,
+                                         ObjectMapper objectMapper,
+                                         MeterRegistry meterRegistry) {
+        return new HttpPaymentGateway(baseUrl, keyId, keySecret,
+                Duration.ofMillis(connectTimeoutMs), Duration.ofMillis(deadlineMs), maxConcurrentCalls,
+                new CircuitBreaker(failureThreshold, Duration.ofMillis(openDurationMs)),
+                objectMapper, meterRegistry);
+    }
+
+    /**
+     * Gateway order ID to internal order ID for payments in progress.
+     */
+    @Bean
+    public PendingPaymentRegistry pendingPaymentRegistry(@Value("${payment.pending.ttlMinutes:30}") long ttlMinutes,
+                                                         @Value("${payment.pending.maxEntries:100000}") int maxEntries) {
+        return new PendingPaymentRegistry(Duration.ofMinutes(ttlMinutes), maxEntries);
+    }
+
+    /**
+     * Verifies the signature the checkout returns to the client (keyed with the API secret).
+     */
+    @Bean
+    public HmacSha256Verifier checkoutSignatureVerifier(@Value("${payment.razorpay.keySecret}") String keySecret) {
+        return new HmacSha256Verifier(keySecret);
+    }
+
+    /**
+     * Verifies webhook deliveries (keyed with the separate webhook secret configured on the gateway dashboard).
+     */
+    @Bean
+    public HmacSha256Verifier webhookSignatureVerifier(@Value("${payment.razorpay.webhookSecret}") String webhookSecret) {
+        return new HmacSha256Verifier(webhookSecret);
+    }
+
+    /**
+     * In-process stub gateway; point payment.gateway.baseUrl at it and tune the fault injection
+     * through the payment.gateway.stub.* properties or its /__admin/config endpoint.
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(name = "payment.gateway.stub.enabled", havingValue = "true")
+    public StubPaymentGatewayServer stubPaymentGatewayServer(@Value("${payment.gateway.stub.port:8089}") int port,
+                                                             @Value("${payment.gateway.stub.latencyMs:50}") long latencyMs,
+                                                             @Value("${payment.gateway.stub.jitterMs:0}") long jitterMs,
+                                                             @Value("${payment.gateway.stub.errorRate:0}") double errorRate,
+                                                             @Value("${payment.gateway.stub.hangRate:0}") double hangRate) {
+        return new StubPaymentGatewayServer(port, latencyMs, jitterMs, errorRate, hangRate);
+    }
+}
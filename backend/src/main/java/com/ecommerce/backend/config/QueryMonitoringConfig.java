@@ -0,0 +1,78 @@
+package com.ecommerce.backend.config;
+
+import com.ecommerce.backend.config.datasource.QueryStatistics;
+import com.ecommerce.backend.config.datasource.QueryTimingListener;
+import com.ecommerce.backend.config.datasource.RepositoryMethodTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+
+/**
+ * Statement timing: wraps the application's DataSource in a datasource-proxy that feeds QueryTimingListener,
+ * and tags Spring Data repository calls so slow statements name the repository method behind them.
+ * Replaces spring.jpa.show-sql, which printed every statement synchronously.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ecommerce.db.queryMonitoring.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMonitoringConfig {
+
+    @Bean
+    public QueryStatistics queryStatistics(MeterRegistry meterRegistry,
+                                           @Value("${ecommerce.db.queryMonitoring.maxShapes:500}") int maxShapes) {
+        return new QueryStatistics(meterRegistry, maxShapes);
+    }
+
+    @Bean
+    public QueryTimingListener queryTimingListener(QueryStatistics queryStatistics, MeterRegistry meterRegistry,
+                                                   @Value("${ecommerce.db.queryMonitoring.slowThresholdMs:200}") long slowThresholdMs,
+                                                   @Value("${ecommerce.db.queryMonitoring.slowLogMaxPerSecond:20}") int slowLogMaxPerSecond,
+                                                   @Value("${ecommerce.db.queryMonitoring.logBindValues:false}") boolean logBindValues) {
+        return new QueryTimingListener(queryStatistics, slowThresholdMs, slowLogMaxPerSecond, logBindValues, meterRegistry);
+    }
+
+    /**
+     * Wraps every DataSource bean (with the read replica enabled, the routing one) in the timing proxy.
+     * Static, and resolving the listener lazily, so post-processing does not initialize beans early.
+     */
+    @Bean
+    public static BeanPostProcessor queryTimingDataSourcePostProcessor(ObjectProvider<QueryTimingListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(listener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Adds RepositoryMethodTracker to each repository before its factory bean builds the repository proxy.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryMethodTrackingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                                    RepositoryMethodTracker.interceptor(repositoryInformation.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecommerce.backend.config;
+
+import com.ecommerce.backend.repository.RateLimitCounterRepository;
+import com.ecommerce.backend.security.jwt.JwtUtils;
+import com.ecommerce.backend.security.ratelimit.LocalRateLimiter;
+import com.ecommerce.backend.security.ratelimit.RateLimitFilter;
+import com.ecommerce.backend.security.ratelimit.RateLimitRule;
+import com.ecommerce.backend.security.ratelimit.RouteClass;
+import com.ecommerce.backend.security.ratelimit.SharedRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+/**
+ * Wires rate limiting for login/signup, the signup availability check and checkout (see RateLimitFilter).
+ */
+@Configuration
+@ConditionalOnProperty(name = "ecommerce.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    /**
+     * The cluster-wide database level; only created when ecommerce.ratelimit.shared.enabled is true.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "ecommerce.ratelimit.shared.enabled", havingValue = "true")
+    public SharedRateLimiter sharedRateLimiter(RateLimitCounterRepository counterRepository,
+                                               TransactionTemplate transactionTemplate,
+                                               @Value("${ecommerce.ratelimit.shared.windowSeconds:60}") long windowSeconds) {
+        return new SharedRateLimiter(counterRepository, transactionTemplate, windowSeconds);
+    }
+
+    /**
+     * Registers the filter ahead of Spring Security (whose chain runs at order -100), for the limited routes only.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            @Value("${ecommerce.ratelimit.maxKeys:100000}") int maxKeys,
+            @Value("${ecommerce.ratelimit.auth.perIp.capacity:10}") int authIpCapacity,
+            @Value("${ecommerce.ratelimit.auth.perIp.refillPerMinute:20}") int authIpRefill,
+            @Value("${ecommerce.ratelimit.availability.perIp.capacity:20}") int availabilityIpCapacity,
+            @Value("${ecommerce.ratelimit.availability.perIp.refillPerMinute:30}") int availabilityIpRefill,
+            @Value("${ecommerce.ratelimit.checkout.perIp.capacity:20}") int checkoutIpCapacity,
+            @Value("${ecommerce.ratelimit.checkout.perIp.refillPerMinute:60}") int checkoutIpRefill,
+            @Value("${ecommerce.ratelimit.checkout.perUser.capacity:5}") int checkoutUserCapacity,
+            @Value("${ecommerce.ratelimit.checkout.perUser.refillPerMinute:10}") int checkoutUserRefill,
+            ObjectProvider<SharedRateLimiter> sharedRateLimiter,
+            JwtUtils jwtUtils,
+            MeterRegistry meterRegistry) {
+        Map<RouteClass, RateLimitRule> perIp = Map.of(
+                RouteClass.AUTH, new RateLimitRule(authIpCapacity, authIpRefill),
+                RouteClass.AVAILABILITY, new RateLimitRule(availabilityIpCapacity, availabilityIpRefill),
+                RouteClass.CHECKOUT, new RateLimitRule(checkoutIpCapacity, checkoutIpRefill));
+        // Login and signup have no signed-in user yet
+        Map<RouteClass, RateLimitRule> perUser = Map.of(
+                RouteClass.CHECKOUT, new RateLimitRule(checkoutUserCapacity, checkoutUserRefill));
+
+        LocalRateLimiter localLimiter = new LocalRateLimiter(maxKeys);
+        meterRegistry.gauge("ratelimit.keys", localLimiter, LocalRateLimiter::size);
+
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(new RateLimitFilter(
+                perIp, perUser, localLimiter, sharedRateLimiter.getIfAvailable(), jwtUtils, meterRegistry));
+        registration.addUrlPatterns("/api/auth/*", "/api/orders/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
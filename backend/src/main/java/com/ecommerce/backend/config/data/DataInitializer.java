@@ -1,8 +1,8 @@
 package com.ecommerce.backend.config.data;
 
-import com.ecommerce.backend.user.model.Role;
-import com.ecommerce.backend.user.model.ERole;
-import com.ecommerce.backend.user.repository.RoleRepository;
+import com.ecommerce.backend.model.ERole;
+import com.ecommerce.backend.model.Role;
+import com.ecommerce.backend.repository.RoleRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 import lombok.RequiredArgsConstructor;
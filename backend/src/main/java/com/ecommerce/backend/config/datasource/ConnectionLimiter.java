@@ -0,0 +1,48 @@
+package com.ecommerce.backend.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts a ConnectionLimitingDataSource in front of connection pools, sized to each pool's maximum unless
+ * {@code permits} overrides it.
+ */
+public class ConnectionLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionLimiter.class);
+
+    private final int permits;
+    private final long maxWaitMs;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param permits Connections admitted per pool; 0 to use the pool's maximum size.
+     * @param maxWaitMs How long a caller waits for a permit before failing.
+     */
+    public ConnectionLimiter(int permits, long maxWaitMs, MeterRegistry meterRegistry) {
+        this.permits = permits;
+        this.maxWaitMs = maxWaitMs;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param name Pool name for the metrics tags.
+     * @param pool The connection pool.
+     * @return The limited pool, or the pool unchanged if its size is unknown and no permit count is configured.
+     */
+    public DataSource limit(String name, DataSource pool) {
+        int limit = permits > 0 ? permits
+                : pool instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 0;
+        if (limit <= 0) {
+            logger.warn("Not limiting connections of '{}' ({}): pool size unknown; set ecommerce.db.connectionLimiter.permits.",
+                    name, pool.getClass().getName());
+            return pool;
+        }
+        logger.info("Limiting '{}' to {} concurrent connections (max wait {}ms).", name, limit, maxWaitMs);
+        return new ConnectionLimitingDataSource(name, pool, limit, maxWaitMs, meterRegistry);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ecommerce.backend.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits at most {@code permits} open connections at a time, in arrival order, in front of a connection pool.
+ *
+ * With request handling on virtual threads, concurrency is no longer capped by Tomcat's thread pool, so a burst
+ * can put thousands of threads into the pool's own wait at once. Here they queue on a fair semaphore instead,
+ * and give up after {@code maxWaitMs} with an SQLTransientConnectionException rather than holding the request
+ * for the pool's full connection timeout. The permit is returned when the connection is closed.
+ *
+ * Published as {@code jdbc.connections.limiter.available}/{@code .waiting} gauges and a {@code .timeouts}
+ * counter, tagged with the pool name.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long maxWaitMs;
+    private final Counter timeouts;
+
+    public ConnectionLimitingDataSource(String name, DataSource pool, int permits, long maxWaitMs,
+                                        MeterRegistry meterRegistry) {
+        super(pool);
+        this.permits = new Semaphore(permits, true);
+        this.maxWaitMs = maxWaitMs;
+        this.timeouts = meterRegistry.counter("jdbc.connections.limiter.timeouts", "pool", name);
+        Gauge.builder("jdbc.connections.limiter.available", this.permits, Semaphore::availablePermits)
+                .tag("pool", name)
+                .register(meterRegistry);
+        Gauge.builder("jdbc.connections.limiter.waiting", this.permits, Semaphore::getQueueLength)
+                .tag("pool", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The number of connections that can still be opened without waiting.
+     */
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLTransientConnectionException(
+                        "No database connection available within " + maxWaitMs + "ms (" + permits.getQueueLength() + " waiting)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    // Returns the permit on the first close(); later calls go to the connection only, which ignores them
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
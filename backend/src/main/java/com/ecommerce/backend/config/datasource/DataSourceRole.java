@@ -0,0 +1,9 @@
+package com.ecommerce.backend.config.datasource;
+
+/**
+ * Lookup keys of the routing DataSource.
+ */
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
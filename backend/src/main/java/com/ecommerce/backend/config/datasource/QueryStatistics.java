@@ -0,0 +1,116 @@
+package com.ecommerce.backend.config.datasource;
+
+import com.ecommerce.backend.dto.QueryShapeStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Latency histograms per SQL statement shape, published as the {@code db.statement} timer tagged with a short
+ * shape ID. The shape is the statement with literals replaced by "?" and IN lists collapsed, so the same query
+ * with different values or list lengths is counted once.
+ *
+ * At most maxShapes shapes are tracked (each holds a histogram); statements beyond that are counted under
+ * "(other)".
+ */
+public class QueryStatistics {
+
+    static final String OTHER = "(other)";
+
+    private static final int MAX_SHAPE_LENGTH = 2000;
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private record Shape(String id, String sql, Timer timer) {}
+
+    private final MeterRegistry meterRegistry;
+    private final int maxShapes;
+    private final ConcurrentHashMap<String, Shape> shapes = new ConcurrentHashMap<>();
+
+    public QueryStatistics(MeterRegistry meterRegistry, int maxShapes) {
+        this.meterRegistry = meterRegistry;
+        this.maxShapes = maxShapes;
+    }
+
+    /**
+     * Records one execution.
+     * @param sql The statement as sent to the driver.
+     * @param elapsedNanos Its execution time.
+     */
+    public void record(String sql, long elapsedNanos) {
+        String key = shapeOf(sql);
+        Shape shape = shapes.get(key);
+        if (shape == null) {
+            // The size check races with other threads; the bound may be exceeded by a few shapes
+            shape = shapes.size() < maxShapes ? shapes.computeIfAbsent(key, this::register)
+                    : shapes.computeIfAbsent(OTHER, this::register);
+        }
+        shape.timer().record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param limit Maximum number of shapes returned.
+     * @return The shapes with the highest 99th percentile latency, slowest first.
+     */
+    public List<QueryShapeStats> slowest(int limit) {
+        return shapes.values().stream()
+                .map(QueryStatistics::toStats)
+                .sorted(Comparator.comparingDouble(QueryShapeStats::getP99Ms)
+                        .thenComparingDouble(QueryShapeStats::getMeanMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * @param sql A SQL statement.
+     * @return Its shape: literals replaced by "?", IN lists reduced to "in (?)", whitespace collapsed.
+     */
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?)");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) : shape;
+    }
+
+    private Shape register(String sql) {
+        String id = OTHER.equals(sql) ? "other" : idOf(sql);
+        Timer timer = Timer.builder("db.statement")
+                .tag("shape", id)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        return new Shape(id, sql, timer);
+    }
+
+    // 64-bit FNV-1a of the shape, so IDs of distinct shapes practically never collide
+    private static String idOf(String sql) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < sql.length(); i++) {
+            hash ^= sql.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return Long.toHexString(hash);
+    }
+
+    private static QueryShapeStats toStats(Shape shape) {
+        HistogramSnapshot snapshot = shape.timer().takeSnapshot();
+        double[] percentiles = new double[3];
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            int index = value.percentile() < 0.9 ? 0 : value.percentile() < 0.99 ? 1 : 2;
+            percentiles[index] = value.value(TimeUnit.MILLISECONDS);
+        }
+        return new QueryShapeStats(shape.id(), shape.sql(), snapshot.count(),
+                snapshot.total(TimeUnit.MILLISECONDS), snapshot.mean(TimeUnit.MILLISECONDS),
+                snapshot.max(TimeUnit.MILLISECONDS), percentiles[0], percentiles[1], percentiles[2]);
+    }
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.backend.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.LongSupplier;
+
+/**
+ * Times every statement executed through the proxied DataSource into QueryStatistics, and logs the ones slower
+ * than the threshold with the repository method (or, failing that, the application frame) that issued them and,
+ * optionally, their bind values. String binds (names, emails, addresses, tokens) are masked down to their length;
+ * numbers, dates and flags are logged as they are.
+ *
+ * The slow log is sampled: at most maxLoggedPerSecond entries per second, the rest are counted and reported as
+ * a single line, so a database stall cannot flood the log. {@code db.statement.slow} counts all of them.
+ */
+public class QueryTimingListener implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryTimingListener.class);
+
+    private static final String START_NANOS = QueryTimingListener.class.getName() + ".start";
+    private static final String APPLICATION_PACKAGE = "com.ecommerce.backend.";
+    private static final int MAX_LOGGED_VALUE_LENGTH = 100;
+
+    private final QueryStatistics statistics;
+    private final long slowThresholdNanos;
+    private final int maxLoggedPerSecond;
+    private final boolean logBindValues;
+    private final LongSupplier clock;
+    private final Counter slowStatements;
+
+    // Sampling window of the slow log; guarded by this
+    private long windowStartMillis;
+    private int loggedInWindow;
+    private long suppressedInWindow;
+
+    public QueryTimingListener(QueryStatistics statistics, long slowThresholdMs, int maxLoggedPerSecond,
+                               boolean logBindValues, MeterRegistry meterRegistry) {
+        this(statistics, slowThresholdMs, maxLoggedPerSecond, logBindValues, meterRegistry, System::currentTimeMillis);
+    }
+
+    QueryTimingListener(QueryStatistics statistics, long slowThresholdMs, int maxLoggedPerSecond,
+                        boolean logBindValues, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.statistics = statistics;
+        this.slowThresholdNanos = slowThresholdMs * 1_000_000;
+        this.maxLoggedPerSecond = maxLoggedPerSecond;
+        this.logBindValues = logBindValues;
+        this.clock = clock;
+        this.slowStatements = meterRegistry.counter("db.statement.slow");
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        if (start == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        // A batch is one execution; it is recorded under its first statement
+        QueryInfo query = queryInfoList.get(0);
+        statistics.record(query.getQuery(), elapsedNanos);
+
+        if (elapsedNanos >= slowThresholdNanos) {
+            slowStatements.increment();
+            if (shouldLog()) {
+                logger.warn("Slow statement ({} ms{}) from {}: {}{}", elapsedNanos / 1_000_000,
+                        execInfo.isBatch() ? ", batch of " + execInfo.getBatchSize() : "", caller(),
+                        query.getQuery(), logBindValues ? " bind=" + bindValues(query) : "");
+            }
+        }
+    }
+
+    private synchronized boolean shouldLog() {
+        long now = clock.getAsLong();
+        if (now - windowStartMillis >= 1000) {
+            if (suppressedInWindow > 0) {
+                logger.warn("{} more slow statements were not logged (limit {} per second)", suppressedInWindow,
+                        maxLoggedPerSecond);
+            }
+            windowStartMillis = now;
+            loggedInWindow = 0;
+            suppressedInWindow = 0;
+        }
+        if (loggedInWindow < maxLoggedPerSecond) {
+            loggedInWindow++;
+            return true;
+        }
+        suppressedInWindow++;
+        return false;
+    }
+
+    // Only walked for logged slow statements
+    private static String caller() {
+        String repositoryMethod = RepositoryMethodTracker.current();
+        if (repositoryMethod != null) {
+            return repositoryMethod;
+        }
+        return StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE).walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(APPLICATION_PACKAGE) && f.getDeclaringClass() != QueryTimingListener.class)
+                .findFirst()
+                .map(f -> f.getClassName().substring(APPLICATION_PACKAGE.length()) + "." + f.getMethodName() + ":" + f.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    // Values of the first parameter set; a batch only notes how many more sets it has
+    private static String bindValues(QueryInfo query) {
+        List<List<ParameterSetOperation>> parameterSets = query.getParametersList();
+        if (parameterSets.isEmpty()) {
+            return "[]";
+        }
+        StringJoiner values = new StringJoiner(", ", "[", "]");
+        for (ParameterSetOperation operation : parameterSets.get(0)) {
+            Object[] args = operation.getArgs();
+            Object value = ParameterSetOperation.isSetNullParameterOperation(operation) || args.length < 2 ? null : args[1];
+            String text = value instanceof CharSequence chars ? "<" + chars.length() + " chars>" : String.valueOf(value);
+            values.add(text.length() > MAX_LOGGED_VALUE_LENGTH ? text.substring(0, MAX_LOGGED_VALUE_LENGTH) + "..." : text);
+        }
+        return parameterSets.size() > 1 ? values + " (+" + (parameterSets.size() - 1) + " more)" : values.toString();
+    }
+}
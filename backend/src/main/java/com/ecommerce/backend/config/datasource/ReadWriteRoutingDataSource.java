@@ -0,0 +1,39 @@
+package com.ecommerce.backend.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ *
+ * Must be wrapped in a LazyConnectionDataSourceProxy: the transaction manager opens the connection before it
+ * publishes the read-only flag, so the physical connection has to be fetched lazily, at the first statement.
+ * Reads of a user who wrote recently (RecentWriteTracker) stay on the primary.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final RecentWriteTracker recentWrites;
+
+    public ReadWriteRoutingDataSource(RecentWriteTracker recentWrites) {
+        this.recentWrites = recentWrites;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return recentWrites.isCurrentUserPinned() ? DataSourceRole.PRIMARY : DataSourceRole.REPLICA;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A read-write transaction: once it commits, keep this user's reads on the primary for a while
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWrites.recordWriteByCurrentUser();
+                }
+            });
+        }
+        return DataSourceRole.PRIMARY;
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.backend.config.datasource;
+
+import com.ecommerce.backend.util.BoundedExpiringMap;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Read-your-writes for the replica split: after a user's write commits, that user's reads go to the primary
+ * for {@code pinMs} (longer than the expected replication lag), so they never see their own change missing.
+ *
+ * Users are identified by the authenticated principal's name; anonymous work is never pinned across requests.
+ * The map is bounded as described on {@link BoundedExpiringMap}, so a flood of writers can evict a pin that is
+ * still live. Its user must not lose read-your-writes, so all reads go to the primary until that pin would have
+ * expired.
+ */
+public class RecentWriteTracker {
+
+    private static final long SWEEP_INTERVAL_MS = 1000;
+
+    private final long pinMs;
+    private final LongSupplier clock;
+    // user -> pinned to the primary until (epoch millis)
+    private final BoundedExpiringMap<String, Long> pinnedUntil;
+    // every user is pinned until (epoch millis), after a live pin was evicted
+    private volatile long allPinnedUntil;
+
+    public RecentWriteTracker(long pinMs, int maxEntries) {
+        this(pinMs, maxEntries, System::currentTimeMillis);
+    }
+
+    RecentWriteTracker(long pinMs, int maxEntries, LongSupplier clock) {
+        this.pinMs = pinMs;
+        this.clock = clock;
+        this.pinnedUntil = new BoundedExpiringMap<>(maxEntries, Long::longValue, clock, SWEEP_INTERVAL_MS,
+                (user, until) -> pinAllUntil(until));
+        this.allPinnedUntil = clock.getAsLong();
+    }
+
+    /**
+     * @return true if the current user wrote recently and must read from the primary.
+     */
+    public boolean isCurrentUserPinned() {
+        if (allPinnedUntil - clock.getAsLong() > 0) {
+            return true;
+        }
+        if (pinnedUntil.isEmpty()) {
+            return false;
+        }
+        String user = currentUser();
+        return user != null && pinnedUntil.get(user) != null;
+    }
+
+    /**
+     * Pins the current user to the primary; called when one of their write transactions commits.
+     */
+    public void recordWriteByCurrentUser() {
+        String user = currentUser();
+        if (user == null) {
+            return;
+        }
+        pinnedUntil.put(user, clock.getAsLong() + pinMs);
+    }
+
+    private synchronized void pinAllUntil(long until) {
+        if (until - allPinnedUntil > 0) {
+            allPinnedUntil = until;
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || !authentication.isAuthenticated() ? null : authentication.getName();
+    }
+}
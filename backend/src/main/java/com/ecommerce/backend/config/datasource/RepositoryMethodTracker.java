@@ -0,0 +1,43 @@
+package com.ecommerce.backend.config.datasource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+
+/**
+ * Remembers which repository method the current thread is executing, so a slow statement can be traced back to
+ * the query that issued it. The interceptor is added to every Spring Data repository (QueryMonitoringConfig).
+ */
+public final class RepositoryMethodTracker {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private RepositoryMethodTracker() {
+    }
+
+    /**
+     * @return The repository method running on this thread, e.g. "OrderRepository.findByUser", or null.
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @param repositoryInterface The repository the interceptor is added to.
+     * @return An interceptor marking its methods as current while they run.
+     */
+    public static MethodInterceptor interceptor(Class<?> repositoryInterface) {
+        String prefix = repositoryInterface.getSimpleName() + ".";
+        return invocation -> {
+            String previous = CURRENT.get();
+            CURRENT.set(prefix + invocation.getMethod().getName());
+            try {
+                return invocation.proceed();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+}
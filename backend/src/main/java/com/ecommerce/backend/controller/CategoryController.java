@@ -4,6 +4,7 @@ package com.ecommerce.backend.controller;
 
 import com.ecommerce.backend.model.Category;
 import com.ecommerce.backend.service.CategoryService;
+import com.ecommerce.backend.service.ReferenceDataCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +18,8 @@ import java.util.List;
 public class CategoryController {
     @Autowired
     private CategoryService categoryService;
+    @Autowired
+    private ReferenceDataCacheService referenceDataCache;
 
     // Public endpoint for listing categories
     @GetMapping
@@ -28,27 +31,31 @@ public class CategoryController {
     @PostMapping
     @PreAuthorize("hasAuthority('ADMIN')")
     public ResponseEntity<Category> createCategory(@RequestBody Category category) {
-        Category createdCategory = categoryService.create(category);
+        Category createdCategory = categoryService.save(category);
+        referenceDataCache.evictCategories();
         return new ResponseEntity<>(createdCategory, HttpStatus.CREATED);
     }
 
     // Admin endpoint: Update Category
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<Category> updateCategory(@PathVariable Long id, @RequestBody Category categoryDetails) {
-        try {
-            Category updatedCategory = categoryService.update(id, categoryDetails);
-            return ResponseEntity.ok(updatedCategory);
-        } catch (RuntimeException e) {
+    public ResponseEntity<Category> updateCategory(@PathVariable Integer id, @RequestBody Category categoryDetails) {
+        Category category = categoryService.findById(id);
+        if (category == null) {
             return ResponseEntity.notFound().build();
         }
+        category.setName(categoryDetails.getName());
+        Category updatedCategory = categoryService.save(category);
+        referenceDataCache.evictCategories();
+        return ResponseEntity.ok(updatedCategory);
     }
 
     // Admin endpoint: Delete Category
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('ADMIN')")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteCategory(@PathVariable Long id) {
-        categoryService.delete(id);
+    public void deleteCategory(@PathVariable Integer id) {
+        categoryService.deleteById(id);
+        referenceDataCache.evictCategories();
     }
 }
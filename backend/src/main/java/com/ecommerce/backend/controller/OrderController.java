@@ -2,13 +2,19 @@
 
 package com.ecommerce.backend.controller;
 
+import com.ecommerce.backend.dto.BulkOrderStatusRequest;
+import com.ecommerce.backend.dto.CheckoutRequest;
+import com.ecommerce.backend.dto.OrderStatusTransitionResult;
 import com.ecommerce.backend.model.Order;
 import com.ecommerce.backend.model.OrderStatus;
+import com.ecommerce.backend.security.services.CustomUserDetails;
 import com.ecommerce.backend.service.OrderService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -28,9 +34,10 @@ public class OrderController {
      */
     @PostMapping("/checkout")
     @PreAuthorize("hasAuthority('CUSTOMER')")
-    public ResponseEntity<Order> checkout(@RequestParam String shippingAddress) {
+    public ResponseEntity<Order> checkout(@AuthenticationPrincipal CustomUserDetails principal,
+                                          @RequestParam String shippingAddress) {
         try {
-            Order order = orderService.placeOrderFromCart(shippingAddress);
+            Order order = orderService.createOrder(principal.getId(), new CheckoutRequest(shippingAddress));
             return new ResponseEntity<>(order, HttpStatus.CREATED);
         } catch (RuntimeException e) {
             // Catches exceptions like "Cart is empty" or "Insufficient stock"
@@ -44,22 +51,21 @@ public class OrderController {
      */
     @GetMapping("/history")
     @PreAuthorize("hasAuthority('CUSTOMER')")
-    public List<Order> getOrderHistory() {
-        return orderService.getOrderHistory();
+    public List<Order> getOrderHistory(@AuthenticationPrincipal CustomUserDetails principal) {
+        return orderService.findAllOrdersByUser(principal.getId());
     }
 
     // --- ADMIN ENDPOINTS ---
 
     /**
      * GET /api/orders (Admin): Retrieves all orders.
-     * FIX: Calls the new public service method (getAllOrdersAdmin()).
      * Requires ADMIN role.
      */
     @GetMapping
     @PreAuthorize("hasAuthority('ADMIN')")
     public List<Order> getAllOrders() {
         // CORRECT: Delegates the call to the Service Layer
-        return orderService.getAllOrdersAdmin();
+        return orderService.findAllOrders();
     }
 
     /**
@@ -74,8 +80,26 @@ public class OrderController {
         try {
             Order updatedOrder = orderService.updateOrderStatus(orderId, status);
             return ResponseEntity.ok(updatedOrder);
+        } catch (IllegalStateException e) {
+            // Requested status is not reachable from the order's current status
+            return new ResponseEntity(e.getMessage(), HttpStatus.CONFLICT);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
+
+    /**
+     * PUT /api/orders/status: Moves many orders to the same status in one call
+     * (e.g., PROCESSING -> SHIPPED after a carrier pickup).
+     * Returns one outcome per order instead of failing the whole batch.
+     * Requires ADMIN role.
+     */
+    @PutMapping("/status")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<List<OrderStatusTransitionResult>> bulkUpdateOrderStatus(
+            @Valid @RequestBody BulkOrderStatusRequest request) {
+        List<OrderStatusTransitionResult> results =
+                orderService.bulkUpdateOrderStatus(request.getOrderIds(), request.getStatus());
+        return ResponseEntity.ok(results);
+    }
 }
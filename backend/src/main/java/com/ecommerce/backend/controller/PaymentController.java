@@ -5,6 +5,7 @@ package com.ecommerce.backend.controller;
 import com.ecommerce.backend.model.Order;
 import com.ecommerce.backend.dto.PaymentOrderDto;
 import com.ecommerce.backend.dto.PaymentVerificationDto;
+import com.ecommerce.backend.exception.PaymentGatewayUnavailableException;
 import com.ecommerce.backend.service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -12,6 +13,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @RestController
 @RequestMapping("/api/payments")
 @PreAuthorize("hasAuthority('CUSTOMER')")
@@ -22,15 +26,16 @@ public class PaymentController {
 
     /**
      * 1. Initiates the payment process by creating an order with the payment gateway.
-     * Returns the payment gateway's order ID.
+     * Returns the payment gateway's order ID. The request thread is released while the gateway responds.
      */
     @PostMapping("/create-order")
-    public ResponseEntity<String> createPaymentOrder(@RequestBody PaymentOrderDto dto) {
+    public CompletableFuture<ResponseEntity<String>> createPaymentOrder(@RequestBody PaymentOrderDto dto) {
         try {
-            String pgOrderId = paymentService.createPaymentOrder(dto);
-            return ResponseEntity.ok(pgOrderId);
+            return paymentService.createPaymentOrder(dto)
+                    .thenApply(ResponseEntity::ok)
+                    .exceptionally(this::toErrorResponse);
         } catch (RuntimeException e) {
-            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            return CompletableFuture.completedFuture(toErrorResponse(e));
         }
     }
 
@@ -47,4 +52,13 @@ public class PaymentController {
             return new ResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
     }
+
+    private ResponseEntity<String> toErrorResponse(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        // Gateway trouble is transient and the client may retry; anything else is a bad request
+        HttpStatus status = cause instanceof PaymentGatewayUnavailableException
+                ? HttpStatus.SERVICE_UNAVAILABLE
+                : HttpStatus.BAD_REQUEST;
+        return new ResponseEntity<>(cause.getMessage(), status);
+    }
 }
@@ -0,0 +1,41 @@
+package com.ecommerce.backend.controller;
+
+import com.ecommerce.backend.service.PaymentWebhookService;
+import com.ecommerce.backend.service.PaymentWebhookService.Outcome;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Receives payment gateway webhooks. Not behind JWT authentication: each delivery carries an HMAC signature.
+ */
+@RestController
+@RequestMapping("/api/payments/webhook")
+public class PaymentWebhookController {
+
+    @Autowired
+    private PaymentWebhookService paymentWebhookService;
+
+    /**
+     * Acknowledges a webhook once its event has been applied to the order. The request is handled
+     * asynchronously, so the Tomcat thread is released while the event waits on its lane.
+     * Any non-2xx answer makes the gateway redeliver later.
+     */
+    @PostMapping
+    public CompletableFuture<ResponseEntity<String>> receive(@RequestBody byte[] body,
+                                                             @RequestHeader(value = "X-Razorpay-Signature", required = false) String signature) {
+        return paymentWebhookService.receive(body, signature).thenApply(outcome -> {
+            HttpStatus status = switch (outcome) {
+                case APPLIED, IGNORED -> HttpStatus.OK;
+                case INVALID_SIGNATURE -> HttpStatus.UNAUTHORIZED;
+                case MALFORMED -> HttpStatus.BAD_REQUEST;
+                case OVERLOADED -> HttpStatus.SERVICE_UNAVAILABLE;
+                case FAILED -> HttpStatus.INTERNAL_SERVER_ERROR;
+            };
+            return new ResponseEntity<>(outcome.name(), status);
+        });
+    }
+}
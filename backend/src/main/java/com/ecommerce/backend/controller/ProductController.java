@@ -1,8 +1,11 @@
 package com.ecommerce.backend.controller;
 
 import com.ecommerce.backend.model.Product;
+import com.ecommerce.backend.service.CatalogSnapshotService;
 import com.ecommerce.backend.service.ProductService;
+import com.ecommerce.backend.service.ReferenceDataCacheService;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +17,8 @@ import java.util.List;
 /**
  * REST Controller for managing product catalog operations.
  * Products can be read by anyone, but modified only by ADMINs.
+ * Admin writes evict the product from the second-level cache (ReferenceDataCacheService) and refresh it in the
+ * catalog snapshot served at /api/catalog/products (CatalogSnapshotService).
  */
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -21,19 +26,24 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ReferenceDataCacheService referenceDataCache;
+    private final ObjectProvider<CatalogSnapshotService> catalogSnapshot;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ReferenceDataCacheService referenceDataCache,
+                             ObjectProvider<CatalogSnapshotService> catalogSnapshot) {
         this.productService = productService;
+        this.referenceDataCache = referenceDataCache;
+        this.catalogSnapshot = catalogSnapshot;
     }
 
     /**
-     * GET /api/products : Get all products.
+     * GET /api/products : Get all products, optionally only those of one category.
      * Accessible by anyone.
      */
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.findAllProducts();
+    public ResponseEntity<List<Product>> getAllProducts(@RequestParam(required = false) Long categoryId) {
+        List<Product> products = productService.findAllProducts(categoryId);
         return ResponseEntity.ok(products);
     }
 
@@ -43,7 +53,7 @@ public class ProductController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        Product product = productService.getProductById(id);
+        Product product = productService.findProductById(id);
         return ResponseEntity.ok(product);
     }
 
@@ -55,6 +65,7 @@ public class ProductController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Product> createProduct(@Valid @RequestBody Product product) {
         Product newProduct = productService.createProduct(product);
+        catalogSnapshot.ifAvailable(snapshot -> snapshot.refreshProduct(newProduct.getId()));
         return new ResponseEntity<>(newProduct, HttpStatus.CREATED);
     }
 
@@ -67,6 +78,8 @@ public class ProductController {
     public ResponseEntity<Product> updateProduct(@PathVariable Long id,
                                                  @Valid @RequestBody Product productDetails) {
         Product updatedProduct = productService.updateProduct(id, productDetails);
+        referenceDataCache.evictProduct(id);
+        catalogSnapshot.ifAvailable(snapshot -> snapshot.refreshProduct(id));
         return ResponseEntity.ok(updatedProduct);
     }
 
@@ -79,5 +92,7 @@ public class ProductController {
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteProduct(@PathVariable Long id) {
         productService.deleteProduct(id);
+        referenceDataCache.evictProduct(id);
+        catalogSnapshot.ifAvailable(snapshot -> snapshot.refreshProduct(id));
     }
 }
@@ -0,0 +1,38 @@
+package com.ecommerce.backend.controller;
+
+import com.ecommerce.backend.config.datasource.QueryStatistics;
+import com.ecommerce.backend.dto.QueryShapeStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Admin view of the SQL statement latency statistics (see QueryMonitoringConfig).
+ */
+@RestController
+@RequestMapping("/api/admin/queries")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "ecommerce.db.queryMonitoring.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryStatisticsController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final QueryStatistics queryStatistics;
+
+    /**
+     * GET /api/admin/queries/slowest : The statement shapes with the highest 99th percentile latency.
+     * Restricted to users with the 'ADMIN' role.
+     */
+    @GetMapping("/slowest")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<QueryShapeStats>> getSlowest(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(queryStatistics.slowest(Math.max(1, Math.min(limit, MAX_LIMIT))));
+    }
+}
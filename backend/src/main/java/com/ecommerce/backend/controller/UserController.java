@@ -1,6 +1,9 @@
 package com.ecommerce.backend.controller;
 
+import com.ecommerce.backend.dto.PasswordChangeRequest;
+import com.ecommerce.backend.model.User;
 import com.ecommerce.backend.service.UserService;
+import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -57,6 +60,17 @@ public class UserController {
         return ResponseEntity.ok(updatedUser);
     }
 
+    /**
+     * Changes the signed-in user's password. Tokens issued before the change stop working.
+     * Only the user themselves, since the current password must be supplied.
+     */
+    @PutMapping("/{id}/password")
+    @PreAuthorize("#id == authentication.principal.id")
+    public ResponseEntity<Void> changePassword(@PathVariable Long id, @Valid @RequestBody PasswordChangeRequest request) {
+        userService.changePassword(id, request.getCurrentPassword(), request.getNewPassword());
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
     /**
      * Deletes a user from the system.
      * Requires 'ADMIN' authority.
@@ -0,0 +1,24 @@
+package com.ecommerce.backend.dto;
+
+import com.ecommerce.backend.model.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for moving many orders to the same status in one request
+ * (e.g., PROCESSING -> SHIPPED after a carrier pickup).
+ */
+@Data
+@NoArgsConstructor
+public class BulkOrderStatusRequest {
+
+    @NotEmpty(message = "At least one order ID is required")
+    private List<Long> orderIds;
+
+    @NotNull(message = "Target status is required")
+    private OrderStatus status;
+}
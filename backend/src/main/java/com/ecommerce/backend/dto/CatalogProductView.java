@@ -0,0 +1,31 @@
+package com.ecommerce.backend.dto;
+
+import com.ecommerce.backend.model.Money;
+import com.ecommerce.backend.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A product as served by the catalog snapshot (/api/catalog/products). Carries the category ID only, so a
+ * category rename does not leave every product entry stale.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogProductView {
+
+    private Long id;
+    private String name;
+    private String description;
+    private Money price;
+    private Integer stockQuantity;
+    private String imageUrl;
+    private Integer categoryId;
+
+    public static CatalogProductView from(Product product) {
+        return new CatalogProductView(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getStockQuantity(), product.getImageUrl(),
+                product.getCategory() != null ? product.getCategory().getId() : null);
+    }
+}
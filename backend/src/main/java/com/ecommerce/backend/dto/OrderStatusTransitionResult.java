@@ -0,0 +1,32 @@
+package com.ecommerce.backend.dto;
+
+import com.ecommerce.backend.model.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-order outcome of a bulk status transition.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusTransitionResult {
+
+    public enum Outcome {
+        UPDATED,            // Status was changed to the requested value
+        UNCHANGED,          // Order was already in the requested status
+        ILLEGAL_TRANSITION, // Current status cannot move to the requested status
+        CONFLICT,           // Status changed concurrently between read and update
+        NOT_FOUND
+    }
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long orderId;
+
+    // Status observed before the update (null when the order does not exist)
+    private OrderStatus previousStatus;
+
+    private Outcome outcome;
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a user changing their own password; the current password is verified first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordChangeRequest {
+    @NotBlank
+    private String currentPassword;
+
+    @NotBlank
+    @Size(min = 6, max = 40)
+    private String newPassword;
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Latency of one normalized SQL statement shape (literals and IN lists collapsed), since startup.
+ * Percentiles cover the recent past (a decaying window); the maximum too.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryShapeStats {
+
+    // Value of the "shape" tag on the db.statement timer
+    private String id;
+    private String shape;
+    private long count;
+    private double totalMs;
+    private double meanMs;
+    private double maxMs;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+}
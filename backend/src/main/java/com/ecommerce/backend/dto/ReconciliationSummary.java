@@ -0,0 +1,37 @@
+package com.ecommerce.backend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Outcome of reconciling one settlement file against the transactions table.
+ */
+@Data
+@NoArgsConstructor
+public class ReconciliationSummary {
+
+    public enum MismatchType {
+        MISSING_IN_LEDGER,        // Settled by the gateway, but no successful transaction exists
+        MISSING_IN_SETTLEMENT,    // Successful transaction of the settlement day that the gateway did not settle
+        AMOUNT_MISMATCH,
+        CURRENCY_MISMATCH,
+        DUPLICATE_IN_SETTLEMENT   // The same payment ID appears more than once in the file
+    }
+
+    private LocalDate settlementDate;
+    private long settlementLines;
+    private long ledgerRowsScanned;
+    private long matched;
+    private Map<MismatchType, Long> mismatches = new EnumMap<>(MismatchType.class);
+    private String reportFile;
+    private long durationMs;
+    private long linesPerSecond;
+
+    public long getTotalMismatches() {
+        return mismatches.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
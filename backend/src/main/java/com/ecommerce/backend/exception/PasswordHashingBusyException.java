@@ -0,0 +1,16 @@
+package com.ecommerce.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a login or signup cannot get a password-hashing slot: the hashing queue is full or the wait
+ * exceeded its limit (HTTP 503 Service Unavailable). The client should retry shortly.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the payment gateway refuses a request as invalid, with an HTTP 4xx answer (HTTP 400 Bad Request).
+ * The gateway itself is healthy, so retrying the same request will not help.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class PaymentGatewayRejectedException extends RuntimeException {
+
+    private final int gatewayStatusCode;
+
+    public PaymentGatewayRejectedException(String message, int gatewayStatusCode) {
+        super(message);
+        this.gatewayStatusCode = gatewayStatusCode;
+    }
+
+    public int getGatewayStatusCode() {
+        return gatewayStatusCode;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a payment callback's signature does not verify (HTTP 400 Bad Request).
+ * The order's move to PAYMENT_FAILED is kept, not rolled back, when this is thrown.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class PaymentVerificationException extends RuntimeException {
+
+    public PaymentVerificationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cold-storage copy of a finished (DELIVERED or CANCELLED) order.
+ * Rows are moved here from the 'orders' table by the OrderArchiveService so the hot table stays small.
+ * The layout is deliberately flat: no foreign keys, and the payment transaction is folded into the row.
+ */
+@Entity
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_user_date", columnList = "user_id, order_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrder {
+
+    // Keeps the original order ID so lookups by ID keep working after archiving
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private OrderStatus status;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    private Money totalAmount;
+
+    @Column(nullable = false)
+    private String shippingAddress;
+
+    // Payment details copied from the 'transactions' row, if the order had one
+    private String paymentGatewayOrderId;
+
+    private String paymentGatewayPaymentId;
+
+    private String paymentStatus;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -33,6 +33,11 @@ public class Cart {
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<CartItem> items = new HashSet<>();
 
+    // Running total of all items, recalculated by CartService on every change
+    @Column(precision = 10, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    private Money totalAmount = Money.ZERO;
+
     // Timestamp for last update
     private LocalDateTime lastModified;
 
@@ -1,8 +1,12 @@
 package com.ecommerce.backend.model;
 
+import com.ecommerce.backend.util.SnowflakeId;
+import com.fasterxml.jackson.annotation.JsonFormat;
 import com.ecommerce.backend.model.Product; // Assuming product is here
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
@@ -10,17 +14,22 @@ import lombok.AllArgsConstructor;
  * Represents a single product and quantity combination in a shopping cart.
  */
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", indexes = {
+        @Index(name = "idx_cart_items_cart_product", columnList = "cart_id, product_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class CartItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
     private Long id;
 
     // Many CartItems belong to one Cart
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cart_id", nullable = false)
     private Cart cart;
@@ -2,8 +2,12 @@ package com.ecommerce.backend.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataRegions.CATEGORIES)
 @Table(name = "categories")
 @Data
 @NoArgsConstructor
@@ -0,0 +1,127 @@
+package com.ecommerce.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable monetary amount stored as a whole number of minor units (e.g., paise or cents) in a long.
+ * Addition and multiplication are plain long arithmetic (with overflow checks) instead of BigDecimal
+ * operations, so pricing loops allocate at most one object for the final result.
+ *
+ * All amounts use two fraction digits, matching the DECIMAL(10, 2) price and total columns.
+ * Amounts are serialized to JSON as plain decimal numbers (e.g., 199.99) so the API format is unchanged.
+ */
+public final class Money implements Comparable<Money>, Serializable {
+
+    public static final String DEFAULT_CURRENCY = "INR";
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0L, DEFAULT_CURRENCY);
+
+    private final long minorUnits;
+    private final String currency;
+
+    private Money(long minorUnits, String currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    // --- Factories ---
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    public static Money ofMinor(long minorUnits, String currency) {
+        return DEFAULT_CURRENCY.equals(currency) ? ofMinor(minorUnits) : new Money(minorUnits, currency);
+    }
+
+    /**
+     * Converts a decimal amount, rounding half-even to two fraction digits.
+     * @throws ArithmeticException if the amount does not fit in a long number of minor units.
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        return ofMinor(amount.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact());
+    }
+
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    // --- Arithmetic ---
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(int quantity) {
+        return ofMinor(timesMinorUnits(quantity), currency);
+    }
+
+    /**
+     * Line total in minor units, without creating a Money instance.
+     * Lets callers sum many lines into a long and wrap only the final total.
+     */
+    public long timesMinorUnits(int quantity) {
+        return Math.multiplyExact(minorUnits, (long) quantity);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    // --- Accessors and conversions ---
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money)) return false;
+        Money that = (Money) o;
+        return minorUnits == that.minorUnits && currency.equals(that.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minorUnits) + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+}
@@ -1,11 +1,13 @@
 package com.ecommerce.backend.model;
 
+import com.ecommerce.backend.util.SnowflakeId;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import jakarta.persistence.*;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -15,14 +17,18 @@ import java.util.Set;
  * This entity tracks order details, associated user, status, and total amount.
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_date", columnList = "user_id, orderDate"),
+        @Index(name = "idx_orders_pg_order_id", columnList = "paymentGatewayOrderId")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
     private Long id;
 
     // Many-to-one relationship with the User who placed the order
@@ -40,12 +46,17 @@ public class Order {
 
     // The total amount of the order, including tax and shipping
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal totalAmount;
+    @Convert(converter = MoneyConverter.class)
+    private Money totalAmount;
 
     // Shipping information
     @Column(nullable = false)
     private String shippingAddress;
 
+    // The payment gateway's order, once one has been created for this order
+    @JsonIgnore
+    private String paymentGatewayOrderId;
+
     // One-to-many relationship with the individual items in the order
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<OrderItem> items = new HashSet<>();
@@ -1,28 +1,36 @@
 package com.ecommerce.backend.model;
 
+import com.ecommerce.backend.util.SnowflakeId;
+import com.fasterxml.jackson.annotation.JsonFormat;
 import com.ecommerce.backend.model.Product;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import jakarta.persistence.*; // Corrected to use Jakarta Persistence API
-import java.math.BigDecimal;
 
 /**
  * Represents a single product and its quantity within a specific Order.
  */
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_order", columnList = "order_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
     private Long id;
 
     // Many-to-one relationship back to the parent Order
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
@@ -38,5 +46,6 @@ public class OrderItem {
 
     // The price of the product at the moment the order was placed (for historical accuracy)
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal priceAtOrder;
+    @Convert(converter = MoneyConverter.class)
+    private Money priceAtOrder;
 }
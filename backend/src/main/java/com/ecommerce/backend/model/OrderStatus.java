@@ -1,12 +1,43 @@
 package com.ecommerce.backend.model;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Defines the possible statuses for an order.
  */
 public enum OrderStatus {
     PENDING,
+    PENDING_PAYMENT,
+    PAYMENT_FAILED,
+    PLACED,
     PROCESSING,
     SHIPPED,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+
+    // Legal transitions, computed once so validation is a single lookup per order
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(PENDING_PAYMENT, PROCESSING, CANCELLED));
+        TRANSITIONS.put(PENDING_PAYMENT, EnumSet.of(PLACED, PAYMENT_FAILED, CANCELLED));
+        TRANSITIONS.put(PAYMENT_FAILED, EnumSet.of(PENDING_PAYMENT, PLACED, CANCELLED));
+        TRANSITIONS.put(PLACED, EnumSet.of(PROCESSING, CANCELLED));
+        TRANSITIONS.put(PROCESSING, EnumSet.of(SHIPPED, CANCELLED));
+        TRANSITIONS.put(SHIPPED, EnumSet.of(DELIVERED));
+        TRANSITIONS.put(DELIVERED, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+    }
+
+    /**
+     * Checks whether an order in this status may move to the given status.
+     * @param next The requested status.
+     * @return true if the transition is allowed.
+     */
+    public boolean canTransitionTo(OrderStatus next) {
+        return TRANSITIONS.get(this).contains(next);
+    }
 }
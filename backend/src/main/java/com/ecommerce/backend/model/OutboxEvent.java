@@ -0,0 +1,70 @@
+package com.ecommerce.backend.model;
+
+import com.ecommerce.backend.util.SnowflakeId;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event recorded in the same database transaction as the business change that caused it
+ * (transactional outbox). The OutboxRelay later delivers it to subscribers, at least once.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_pending", columnList = "published_at, id"),
+        @Index(name = "idx_outbox_events_aggregate", columnList = "aggregate_id, aggregate_type, id")
+})
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    // Time-ordered, so draining pending events by ID preserves creation order
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    // The kind of entity the event is about (e.g., "Order") and its ID
+    @Column(nullable = false, length = 50)
+    private String aggregateType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    // E.g., "OrderCreated", "PaymentCompleted"
+    @Column(nullable = false, length = 50)
+    private String eventType;
+
+    // JSON body of the event
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Null until every subscriber has handled the event
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    // Number of failed delivery attempts so far
+    @Column(nullable = false)
+    private int attempts;
+
+    // The relay run delivering the event, and until when no other run may take it over. After a failed
+    // attempt claimedBy is cleared and claimedUntil holds the earliest time of the next attempt
+    @Column(length = 36)
+    private String claimedBy;
+
+    private LocalDateTime claimedUntil;
+
+    // Set once the event has failed too often; it is no longer delivered and no longer holds back its aggregate
+    private LocalDateTime deadLetteredAt;
+
+    public OutboxEvent(String aggregateType, Long aggregateId, String eventType, String payload) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+    }
+}
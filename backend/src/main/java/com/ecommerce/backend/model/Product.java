@@ -1,22 +1,29 @@
 package com.ecommerce.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
  * Represents a single product available for sale in the e-commerce store.
+ * Held in the second-level cache (region "catalog.products", see ehcache.xml).
  */
 @Entity
-@Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataRegions.PRODUCTS)
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_category_price", columnList = "category_id, price")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -33,10 +40,10 @@ public class Product {
     @Size(max = 500, message = "Description cannot exceed 500 characters")
     private String description;
 
-    // Use BigDecimal for accurate currency representation
+    // Exact currency amount held as minor units; stored in the DECIMAL column via MoneyConverter
     @Column(nullable = false, precision = 10, scale = 2)
-    @DecimalMin(value = "0.01", inclusive = true, message = "Price must be greater than zero")
-    private BigDecimal price;
+    @Convert(converter = MoneyConverter.class)
+    private Money price;
 
     @Column(nullable = false)
     @Min(value = 0, message = "Stock quantity cannot be negative")
@@ -45,6 +52,15 @@ public class Product {
     // Optional: URL to the main product image
     private String imageUrl;
 
+    // Unlisted products stay in the database for existing orders but are not offered for sale
+    @Column(nullable = false)
+    private boolean available = true;
+
+    // Catalog listings filter by category and sort by price (idx_products_category_price)
+    @ManyToOne
+    @JoinColumn(name = "category_id")
+    private Category category;
+
     // Timestamp fields
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -63,6 +79,13 @@ public class Product {
         this.updatedAt = LocalDateTime.now();
     }
 
+    // Bean Validation has no built-in constraint for Money, so the price rule is expressed here
+    @JsonIgnore
+    @AssertTrue(message = "Price must be greater than zero")
+    public boolean isPricePositive() {
+        return price == null || price.isPositive();
+    }
+
     /**
      * Reduces the stock quantity by the specified amount.
      * @param quantity The amount to reduce stock by.
@@ -0,0 +1,30 @@
+package com.ecommerce.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A fixed-window request counter shared by all nodes (the optional database level of rate limiting).
+ * The ID is the limited key plus the window start, so each window gets a fresh row.
+ */
+@Entity
+@Table(name = "rate_limit_counters", indexes = {
+        @Index(name = "idx_rate_limit_counters_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+public class RateLimitCounter {
+
+    @Id
+    @Column(length = 200)
+    private String id;
+
+    @Column(name = "request_count", nullable = false)
+    private long requestCount;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.backend.model;
+
+import java.util.List;
+
+/**
+ * Hibernate second-level cache regions for reference data. Each region is configured (size, TTL) in ehcache.xml;
+ * a region missing there fails startup.
+ */
+public final class ReferenceDataRegions {
+
+    public static final String PRODUCTS = "catalog.products";
+    public static final String CATEGORIES = "catalog.categories";
+    public static final String ROLES = "security.roles";
+
+    // Query cache region of the category listing (CategoryRepository.findAll)
+    public static final String CATEGORY_LISTINGS = "catalog.categoryListings";
+
+    public static final List<String> ENTITY_REGIONS = List.of(PRODUCTS, CATEGORIES, ROLES);
+    public static final List<String> QUERY_REGIONS = List.of(CATEGORY_LISTINGS);
+
+    private ReferenceDataRegions() {
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.backend.model;
+
+import com.ecommerce.backend.util.SnowflakeId;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A revoked JWT (by its ID), or, when jti is null, every token issued to a user up to revokedAt.
+ * Rows are only needed until the tokens they cover would have expired anyway.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    // The token's "jti" claim; null for a revocation of all the user's tokens
+    @Column(length = 64)
+    private String jti;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    // When the last token covered by this row expires; the row can be purged after that
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public RevokedToken(String jti, Long userId, LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        this.jti = jti;
+        this.userId = userId;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -5,12 +5,19 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import jakarta.persistence.*; // Using Jakarta Persistence API
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 
 /**
  * JPA Entity for managing user roles and mapping them to the database.
- * This entity links the RoleName enum to a database table.
+ * This entity links the ERole enum to a database table.
+ * Roles are only ever inserted (DataInitializer), so they are cached read-only.
  */
 @Entity
+@Cacheable
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = ReferenceDataRegions.ROLES)
 @Table(name = "roles")
 @Data
 @NoArgsConstructor
@@ -21,16 +28,16 @@ public class Role {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    // Use the RoleName enum for type-safe role representation
+    // Use the ERole enum for type-safe role representation
     @Enumerated(EnumType.STRING)
     @Column(length = 20, unique = true, nullable = false)
-    private RoleName name;
+    private ERole name;
 
     /**
      * Convenience constructor for creating a Role with just the name.
-     * @param name The RoleName enum value.
+     * @param name The ERole enum value.
      */
-    public Role(RoleName name) {
+    public Role(ERole name) {
         this.name = name;
     }
 }
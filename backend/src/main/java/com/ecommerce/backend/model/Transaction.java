@@ -2,21 +2,28 @@
 
 package com.ecommerce.backend.model;
 
+import com.ecommerce.backend.util.SnowflakeId;
+import com.fasterxml.jackson.annotation.JsonFormat;
 import com.ecommerce.backend.model.Order;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Data
 @NoArgsConstructor
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // Webhook and support lookups by gateway order ID
+        @Index(name = "idx_transactions_pg_order_id", columnList = "paymentGatewayOrderId"),
+        // Lookups by payment ID, and ordered keyset scans during settlement reconciliation
+        @Index(name = "idx_transactions_pg_payment_id", columnList = "paymentGatewayPaymentId")
+})
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
     private Long id;
 
     // Link the transaction to the Order it paid for
@@ -29,8 +36,9 @@ public class Transaction {
 
     private String paymentGatewayPaymentId; // ID received upon successful payment
 
-    @Column(nullable = false)
-    private BigDecimal amountPaid;
+    @Column(nullable = false, precision = 10, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    private Money amountPaid;
 
     @Column(nullable = false)
     private String currency = "INR"; // Or USD, etc.
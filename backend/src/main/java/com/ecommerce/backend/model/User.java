@@ -14,24 +14,11 @@ import lombok.NoArgsConstructor;
 import java.util.HashSet;
 import java.util.Set;
 
-package com.ecommerce.backend.user.model;
-
-import com.ecommerce.backend.cart.model.Cart;
-import com.ecommerce.backend.order.model.Order;
-import jakarta.persistence.*;
-        import jakarta.validation.constraints.Email;
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Size;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-import java.util.HashSet;
-import java.util.Set;
-
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_users_username", columnNames = "username"),
+        @UniqueConstraint(name = "uk_users_email", columnNames = "email")
+})
 @Data // Generates getters, setters, toString, equals, and hashCode
 @Builder
 @NoArgsConstructor
@@ -55,6 +42,11 @@ public class User {
     @Size(max = 120)
     private String password;
 
+    // Incremented whenever roles, credentials or identity change; tokens carrying an older value are rejected
+    @Builder.Default
+    @Column(nullable = false)
+    private long securityVersion = 0L;
+
     // Relationships
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "user_roles",
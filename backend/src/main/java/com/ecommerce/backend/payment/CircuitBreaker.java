@@ -0,0 +1,88 @@
+package com.ecommerce.backend.payment;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal lock-free circuit breaker.
+ *
+ * CLOSED:    calls pass; after {@code failureThreshold} consecutive failures the breaker opens.
+ * OPEN:      calls are rejected immediately until {@code openDuration} has elapsed.
+ * HALF_OPEN: a single probe call is let through; success closes the breaker, failure re-opens it.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean open = new AtomicBoolean();
+    private final AtomicLong openedAtNanos = new AtomicLong();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Asks whether a call may proceed. Every permitted call must be followed by
+     * {@link #onSuccess()} or {@link #onFailure()}.
+     * @return true if the call may proceed.
+     */
+    public boolean tryAcquirePermission() {
+        if (!open.get()) {
+            return true;
+        }
+        if (nanoClock.getAsLong() - openedAtNanos.get() < openDurationNanos) {
+            return false;
+        }
+        // Half-open: only one caller wins the probe
+        return probeInFlight.compareAndSet(false, true);
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        open.set(false);
+        probeInFlight.set(false);
+    }
+
+    public void onFailure() {
+        if (open.get()) {
+            // Failed probe: stay open for another full period
+            openedAtNanos.set(nanoClock.getAsLong());
+            probeInFlight.set(false);
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAtNanos.set(nanoClock.getAsLong());
+            open.set(true);
+        }
+    }
+
+    /**
+     * Hands back a permission that was not used for a gateway call (e.g., the call was rejected locally),
+     * so a half-open breaker can let the next caller probe.
+     */
+    public void releasePermission() {
+        probeInFlight.set(false);
+    }
+
+    public State getState() {
+        if (!open.get()) {
+            return State.CLOSED;
+        }
+        return nanoClock.getAsLong() - openedAtNanos.get() < openDurationNanos ? State.OPEN : State.HALF_OPEN;
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.backend.payment;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Verifies hex-encoded HMAC-SHA256 signatures, as sent by the payment gateway.
+ *
+ * Mac instances are not thread-safe, and creating and keying one per request costs a provider lookup plus
+ * the key schedule. Each thread therefore keeps its own Mac, keyed once; doFinal() resets it for reuse.
+ */
+public class HmacSha256Verifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> mac;
+
+    public HmacSha256Verifier(String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 is not available", e);
+            }
+        });
+    }
+
+    /**
+     * @param payload The exact bytes that were signed.
+     * @param signatureHex The signature to check, hex-encoded.
+     * @return true if the signature matches; compared in constant time.
+     */
+    public boolean verify(byte[] payload, String signatureHex) {
+        if (signatureHex == null || signatureHex.length() != 64) {
+            return false;
+        }
+        byte[] expected;
+        try {
+            expected = HexFormat.of().parseHex(signatureHex);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return MessageDigest.isEqual(sign(payload), expected);
+    }
+
+    public boolean verify(String payload, String signatureHex) {
+        return verify(payload.getBytes(StandardCharsets.UTF_8), signatureHex);
+    }
+
+    public byte[] sign(byte[] payload) {
+        return mac.get().doFinal(payload);
+    }
+
+    public String signHex(String payload) {
+        return HexFormat.of().formatHex(sign(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,156 @@
+package com.ecommerce.backend.payment;
+
+import com.ecommerce.backend.exception.PaymentGatewayRejectedException;
+import com.ecommerce.backend.exception.PaymentGatewayUnavailableException;
+import com.ecommerce.backend.model.Money;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * PaymentGateway backed by the gateway's REST API, using the JDK's non-blocking HttpClient.
+ *
+ * Every call is guarded, in order, by:
+ *   1. a circuit breaker, so a failing gateway is not called at all for a cool-down period;
+ *   2. a bulkhead (semaphore) capping in-flight calls, rejecting the excess immediately;
+ *   3. a per-call deadline covering the whole exchange.
+ * Rejections and failures surface as PaymentGatewayUnavailableException (HTTP 503).
+ *
+ * Only timeouts, I/O errors and 5xx answers count as failures for the breaker. A 4xx answer means the
+ * gateway is up and refused this particular request; it surfaces as PaymentGatewayRejectedException (HTTP 400).
+ */
+public class HttpPaymentGateway implements PaymentGateway {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI ordersUri;
+    private final String authorizationHeader;
+    private final Duration deadline;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final Timer callTimer;
+    private final MeterRegistry meterRegistry;
+
+    public HttpPaymentGateway(String baseUrl, String keyId, String keySecret,
+                              Duration connectTimeout, Duration deadline, int maxConcurrentCalls,
+                              CircuitBreaker circuitBreaker, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        this.objectMapper = objectMapper;
+        this.ordersUri = URI.create(baseUrl.replaceAll("/+$", "") + "/v1/orders");
+        this.authorizationHeader = "Basic " + Base64.getEncoder()
+                .encodeToString((keyId + ":" + keySecret).getBytes(StandardCharsets.UTF_8));
+        this.deadline = deadline;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+        this.callTimer = meterRegistry.timer("payment.gateway.calls");
+
+        meterRegistry.gauge("payment.gateway.bulkhead.available", bulkhead, Semaphore::availablePermits);
+        meterRegistry.gauge("payment.gateway.circuit.open", circuitBreaker,
+                breaker -> breaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1);
+    }
+
+    @Override
+    public CompletableFuture<String> createOrder(Long orderId, Money amount) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return rejected("circuit_open", "Payment gateway is temporarily unavailable (circuit open).");
+        }
+        if (!bulkhead.tryAcquire()) {
+            // Not a gateway failure, so the breaker is not charged; the permission is handed back unused
+            circuitBreaker.releasePermission();
+            return rejected("bulkhead_full", "Payment gateway is busy, please retry.");
+        }
+
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(ordersUri)
+                    .timeout(deadline)
+                    .header("Authorization", authorizationHeader)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of(
+                            "receipt", String.valueOf(orderId),
+                            "amount", amount.getMinorUnits(),
+                            "currency", amount.getCurrency(),
+                            // Copied onto payments, so webhooks can be routed back to our order
+                            "notes", Map.of("orderId", String.valueOf(orderId))))))
+                    .build();
+        } catch (Exception e) {
+            bulkhead.release();
+            circuitBreaker.releasePermission();
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Cannot build gateway request", e));
+        }
+
+        long start = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .orTimeout(deadline.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((response, error) -> {
+                    bulkhead.release();
+                    callTimer.record(Duration.ofNanos(System.nanoTime() - start));
+                    // Judged on the raw exchange, before the answer is parsed
+                    if (error == null && response.statusCode() / 100 != 5) {
+                        circuitBreaker.onSuccess();
+                    } else {
+                        circuitBreaker.onFailure();
+                    }
+                })
+                .thenApply(this::parseOrderId)
+                .exceptionally(error -> {
+                    throw translate(error);
+                });
+    }
+
+    private String parseOrderId(HttpResponse<String> response) {
+        if (response.statusCode() / 100 == 4) {
+            throw new PaymentGatewayRejectedException("Payment gateway rejected the request with HTTP " + response.statusCode(),
+                    response.statusCode());
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new PaymentGatewayUnavailableException("Payment gateway returned HTTP " + response.statusCode());
+        }
+        try {
+            JsonNode body = objectMapper.readTree(response.body());
+            return body.path("id").asText();
+        } catch (Exception e) {
+            throw new PaymentGatewayUnavailableException("Unreadable payment gateway response", e);
+        }
+    }
+
+    private RuntimeException translate(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof PaymentGatewayUnavailableException || cause instanceof PaymentGatewayRejectedException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof TimeoutException || cause instanceof HttpTimeoutException) {
+            return new PaymentGatewayUnavailableException("Payment gateway did not respond within " + deadline.toMillis() + " ms", cause);
+        }
+        return new PaymentGatewayUnavailableException("Payment gateway call failed: " + cause.getMessage(), cause);
+    }
+
+    private CompletableFuture<String> rejected(String reason, String message) {
+        meterRegistry.counter("payment.gateway.rejected", "reason", reason).increment();
+        return CompletableFuture.failedFuture(new PaymentGatewayUnavailableException(message));
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+}
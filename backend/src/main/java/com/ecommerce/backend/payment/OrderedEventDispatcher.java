@@ -0,0 +1,99 @@
+package com.ecommerce.backend.payment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Applies events asynchronously on a fixed set of single-threaded lanes, each with a bounded queue.
+ *
+ * Events with the same key always go to the same lane, so they are handled one at a time and in arrival
+ * order, while events of different keys proceed in parallel. {@link #offer} never blocks: when a lane is
+ * full the event is refused and the caller can push back on the producer (e.g., with HTTP 503). An accepted
+ * event comes with a future that completes once the handler has run, so the caller can confirm it to the
+ * producer only then.
+ */
+public class OrderedEventDispatcher<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderedEventDispatcher.class);
+
+    private record Task<T>(T event, CompletableFuture<Void> done) {
+    }
+
+    private final List<BlockingQueue<Task<T>>> queues;
+    private final List<Thread> workers;
+    private final Consumer<T> handler;
+    private volatile boolean running = true;
+
+    public OrderedEventDispatcher(String name, int lanes, int capacityPerLane, Consumer<T> handler, MeterRegistry meterRegistry) {
+        this.handler = handler;
+        this.queues = new ArrayList<>(lanes);
+        this.workers = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) {
+            BlockingQueue<Task<T>> queue = new ArrayBlockingQueue<>(capacityPerLane);
+            queues.add(queue);
+            Thread worker = new Thread(() -> drain(queue), name + "-lane-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+        meterRegistry.gauge(name + ".queue.depth", queues, qs -> qs.stream().mapToInt(BlockingQueue::size).sum());
+        workers.forEach(Thread::start);
+    }
+
+    /**
+     * Queues an event on the lane owning its key.
+     * @return A future completed when the handler has run (exceptionally, with the handler's exception, if it
+     *         failed), or null if that lane is full (or the dispatcher is shut down) and the event was not accepted.
+     */
+    public CompletableFuture<Void> offer(Object key, T event) {
+        Task<T> task = new Task<>(event, new CompletableFuture<>());
+        return running && queues.get(Math.floorMod(key.hashCode(), queues.size())).offer(task) ? task.done() : null;
+    }
+
+    private void drain(BlockingQueue<Task<T>> queue) {
+        while (running || !queue.isEmpty()) {
+            Task<T> task;
+            try {
+                task = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (task == null) {
+                continue;
+            }
+            try {
+                handler.accept(task.event());
+                task.done().complete(null);
+            } catch (RuntimeException e) {
+                // One bad event must not stop the lane; its producer learns of the failure through the future
+                logger.error("Event handler failed on {}: {}", Thread.currentThread().getName(), e.getMessage(), e);
+                task.done().completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Stops accepting events and waits for the queued ones to be handled.
+     */
+    public void shutdown(long timeoutMillis) {
+        running = false;
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.backend.payment;
+
+import com.ecommerce.backend.model.Money;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Client for the external payment gateway (Razorpay/Stripe style).
+ * Calls are asynchronous so a slow gateway never holds a request thread while waiting.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Creates a payment order on the gateway side.
+     * @param orderId Our internal order ID, sent as the gateway receipt.
+     * @param amount The amount to collect.
+     * @return A future completing with the gateway's order ID, or failing with
+     *         PaymentGatewayUnavailableException if the gateway is slow, failing, or overloaded,
+     *         or with PaymentGatewayRejectedException if the gateway refuses the request as invalid.
+     */
+    CompletableFuture<String> createOrder(Long orderId, Money amount);
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.backend.payment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The parts of a gateway webhook notification needed to update an order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentWebhookEvent {
+
+    public enum Type {
+        CAPTURED, // payment.captured / order.paid
+        FAILED    // payment.failed
+    }
+
+    private Type type;
+
+    // Internal order ID, taken from the gateway order's receipt or the payment notes
+    private Long orderId;
+
+    private String paymentGatewayOrderId;
+    private String paymentGatewayPaymentId;
+    private long amountMinorUnits;
+    private String currency;
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.backend.payment;
+
+import com.ecommerce.backend.util.BoundedExpiringMap;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived in-memory map from gateway order IDs to internal order IDs, for payments that have been started
+ * but not yet finalized.
+ *
+ * Entries are added when a gateway order is created and removed when the payment is finalized, so the hot
+ * verification and webhook paths resolve gateway IDs without a query. Entries expire after {@code ttl}
+ * (checkout sessions are short) and the map is bounded as described on {@link BoundedExpiringMap}. A miss is
+ * not an error: callers fall back to the gateway order recorded on the order and the indexed lookups in
+ * TransactionRepository.
+ */
+public class PendingPaymentRegistry {
+
+    private record Entry(long orderId, long expiresAtNanos) {}
+
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final BoundedExpiringMap<String, Entry> entries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    public PendingPaymentRegistry(Duration ttl, int maxEntries) {
+        this(ttl, maxEntries, System::nanoTime);
+    }
+
+    PendingPaymentRegistry(Duration ttl, int maxEntries, LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new BoundedExpiringMap<>(maxEntries, Entry::expiresAtNanos, nanoClock, SWEEP_INTERVAL_NANOS);
+    }
+
+    /**
+     * Remembers which order a gateway order belongs to.
+     */
+    public void register(String gatewayOrderId, Long orderId) {
+        entries.put(gatewayOrderId, new Entry(orderId, nanoClock.getAsLong() + ttlNanos));
+    }
+
+    /**
+     * @return The internal order ID, or null if unknown or expired.
+     */
+    public Long resolve(String gatewayOrderId) {
+        if (gatewayOrderId == null) {
+            return null;
+        }
+        Entry entry = entries.get(gatewayOrderId);
+        return entry == null ? null : entry.orderId();
+    }
+
+    public void remove(String gatewayOrderId) {
+        if (gatewayOrderId != null) {
+            entries.remove(gatewayOrderId);
+        }
+    }
+
+    /**
+     * Drops expired entries (abandoned checkouts) now. register() also sweeps them once the cap is reached.
+     * @return The number of entries removed.
+     */
+    public int purgeExpired() {
+        return entries.removeExpired();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,207 @@
+package com.ecommerce.backend.payment;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Forward-only cursor over a gateway settlement file, read through memory-mapped windows.
+ *
+ * Expected format (ASCII, comma separated, one settled payment per line):
+ *   payment_id,amount,currency[,any further columns...]
+ *   pay_0001,1499.00,INR
+ * A first line starting with "payment_id" is treated as a header; blank lines are skipped.
+ * Amounts are decimal with at most two fraction digits and are parsed straight to minor units.
+ *
+ * The file is mapped in windows of {@code windowBytes} rather than all at once, so files larger
+ * than 2 GB work and only the pages being parsed are resident. Per line, only the payment ID
+ * String is allocated.
+ */
+public class SettlementFileReader implements Closeable {
+
+    public static final int DEFAULT_WINDOW_BYTES = 64 * 1024 * 1024;
+
+    private static final String HEADER_PREFIX = "payment_id";
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowBytes;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long lineNumber;
+
+    private String paymentId;
+    private long amountMinorUnits;
+    private String currency;
+
+    public SettlementFileReader(Path file) throws IOException {
+        this(file, DEFAULT_WINDOW_BYTES);
+    }
+
+    public SettlementFileReader(Path file, int windowBytes) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowBytes = windowBytes;
+        mapFrom(0);
+    }
+
+    /**
+     * Advances to the next record.
+     * @return false once the end of the file is reached.
+     * @throws IllegalArgumentException if a line is malformed.
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            int lineStart = window.position();
+            int lineEnd = findLineEnd(lineStart);
+            if (lineEnd < 0) {
+                long absoluteLineStart = windowStart + lineStart;
+                if (absoluteLineStart >= fileSize) {
+                    return false;
+                }
+                if (windowStart + window.limit() >= fileSize) {
+                    // Last line without a trailing newline
+                    lineEnd = window.limit();
+                } else if (lineStart == 0) {
+                    throw new IllegalArgumentException("Settlement line " + (lineNumber + 1) + " exceeds the map window size.");
+                } else {
+                    // The line crosses the window boundary: remap starting at the line
+                    mapFrom(absoluteLineStart);
+                    continue;
+                }
+            }
+
+            window.position(Math.min(lineEnd + 1, window.limit()));
+            lineNumber++;
+            int contentEnd = lineEnd > lineStart && window.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd == lineStart || (lineNumber == 1 && startsWith(lineStart, contentEnd, HEADER_PREFIX))) {
+                continue;
+            }
+            parseLine(lineStart, contentEnd);
+            return true;
+        }
+    }
+
+    public String getPaymentId() {
+        return paymentId;
+    }
+
+    public long getAmountMinorUnits() {
+        return amountMinorUnits;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * @return The 1-based line number of the current record.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // --- Parsing ---
+
+    private void mapFrom(long position) throws IOException {
+        long length = Math.min(windowBytes, fileSize - position);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        windowStart = position;
+    }
+
+    private int findLineEnd(int from) {
+        int limit = window.limit();
+        for (int i = from; i < limit; i++) {
+            if (window.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void parseLine(int start, int end) {
+        int firstComma = indexOf(',', start, end);
+        int secondComma = firstComma < 0 ? -1 : indexOf(',', firstComma + 1, end);
+        if (firstComma <= start || secondComma < 0) {
+            throw malformed("expected payment_id,amount,currency");
+        }
+        int currencyEnd = indexOf(',', secondComma + 1, end);
+        if (currencyEnd < 0) {
+            currencyEnd = end;
+        }
+
+        paymentId = ascii(start, firstComma);
+        amountMinorUnits = parseMinorUnits(firstComma + 1, secondComma);
+        // Almost every line carries the default currency; avoid a String per line for it
+        currency = matches(secondComma + 1, currencyEnd, currency) ? currency : ascii(secondComma + 1, currencyEnd);
+    }
+
+    private long parseMinorUnits(int start, int end) {
+        boolean negative = start < end && window.get(start) == '-';
+        int i = negative ? start + 1 : start;
+        long units = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            byte b = window.get(i);
+            if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (b >= '0' && b <= '9' && fractionDigits < 2) {
+                units = Math.addExact(Math.multiplyExact(units, 10), b - '0');
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else {
+                throw malformed("invalid amount");
+            }
+        }
+        for (int pad = Math.max(fractionDigits, 0); pad < 2; pad++) {
+            units = Math.multiplyExact(units, 10);
+        }
+        return negative ? -units : units;
+    }
+
+    private int indexOf(char c, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (window.get(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String ascii(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        window.get(start, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private boolean matches(int start, int end, String value) {
+        if (value == null || value.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (window.get(start + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean startsWith(int start, int end, String prefix) {
+        return end - start >= prefix.length() && matches(start, start + prefix.length(), prefix);
+    }
+
+    private IllegalArgumentException malformed(String reason) {
+        return new IllegalArgumentException("Malformed settlement line " + lineNumber + ": " + reason);
+    }
+}
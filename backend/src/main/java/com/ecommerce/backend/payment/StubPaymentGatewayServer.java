@@ -0,0 +1,174 @@
+package com.ecommerce.backend.payment;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the payment gateway, for development and offline load tests of failure modes.
+ *
+ * POST /v1/orders          creates a fake gateway order: {"id":"order_...","status":"created"}
+ * POST /__admin/config     changes fault injection at runtime via query parameters, e.g.
+ *                          /__admin/config?latencyMs=800&jitterMs=200&errorRate=0.2&hangRate=0.05
+ *
+ * Fault injection:
+ *   latencyMs + jitterMs  response delay (uniformly jittered)
+ *   errorRate             fraction of calls answered with HTTP 500
+ *   hangRate              fraction of calls that stall for 60 s, to exercise client deadlines
+ *
+ * Like the real gateway, orders below MIN_AMOUNT_MINOR (100 minor units) are refused with HTTP 400.
+ *
+ * Runs inside the application when payment.gateway.stub.enabled=true, or standalone:
+ *   java -cp target/classes com.ecommerce.backend.payment.StubPaymentGatewayServer port=8089 latencyMs=200 errorRate=0.1
+ */
+public class StubPaymentGatewayServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StubPaymentGatewayServer.class);
+    private static final long HANG_MILLIS = 60_000;
+    private static final long MIN_AMOUNT_MINOR = 100;
+    private static final Pattern AMOUNT = Pattern.compile("\"amount\"\\s*:\\s*(\\d+)");
+
+    private final int port;
+    private volatile long latencyMs;
+    private volatile long jitterMs;
+    private volatile double errorRate;
+    private volatile double hangRate;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public StubPaymentGatewayServer(int port, long latencyMs, long jitterMs, double errorRate, double hangRate) {
+        this.port = port;
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.errorRate = errorRate;
+        this.hangRate = hangRate;
+    }
+
+    public synchronized void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        // Injected latency sleeps on the handling thread, so the pool must not cap concurrency
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/v1/orders", this::handleCreateOrder);
+        server.createContext("/__admin/config", this::handleConfig);
+        server.start();
+        logger.info("Stub payment gateway listening on port {} ({})", getPort(), describeConfig());
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    /**
+     * @return The bound port (useful when started with port 0).
+     */
+    public int getPort() {
+        return server == null ? port : server.getAddress().getPort();
+    }
+
+    public void configure(Map<String, String> settings) {
+        if (settings.containsKey("latencyMs")) latencyMs = Long.parseLong(settings.get("latencyMs"));
+        if (settings.containsKey("jitterMs")) jitterMs = Long.parseLong(settings.get("jitterMs"));
+        if (settings.containsKey("errorRate")) errorRate = Double.parseDouble(settings.get("errorRate"));
+        if (settings.containsKey("hangRate")) hangRate = Double.parseDouble(settings.get("hangRate"));
+    }
+
+    private void handleCreateOrder(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            double roll = random.nextDouble();
+            long delay = roll < hangRate ? HANG_MILLIS
+                    : latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+
+            Matcher amount = AMOUNT.matcher(body);
+            if (!amount.find() || Long.parseLong(amount.group(1)) < MIN_AMOUNT_MINOR) {
+                respond(exchange, 400, "{\"error\":\"amount must be at least " + MIN_AMOUNT_MINOR + "\"}");
+                return;
+            }
+            if (random.nextDouble() < errorRate) {
+                respond(exchange, 500, "{\"error\":\"injected failure\"}");
+                return;
+            }
+            String id = "order_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14);
+            respond(exchange, 200, "{\"id\":\"" + id + "\",\"status\":\"created\"}");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handleConfig(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            configure(parseQuery(exchange.getRequestURI()));
+            respond(exchange, 200, "{\"config\":\"" + describeConfig() + "\"}");
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        String query = uri.getQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    params.put(pair.substring(0, eq), pair.substring(eq + 1));
+                }
+            }
+        }
+        return params;
+    }
+
+    private String describeConfig() {
+        return "latencyMs=" + latencyMs + ", jitterMs=" + jitterMs + ", errorRate=" + errorRate + ", hangRate=" + hangRate;
+    }
+
+    /**
+     * Standalone entry point. Arguments are key=value pairs: port, latencyMs, jitterMs, errorRate, hangRate.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> settings = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                settings.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        StubPaymentGatewayServer stub = new StubPaymentGatewayServer(
+                Integer.parseInt(settings.getOrDefault("port", "8089")), 0, 0, 0, 0);
+        stub.configure(settings);
+        stub.start();
+    }
+}
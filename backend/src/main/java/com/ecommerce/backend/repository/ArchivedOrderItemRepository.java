@@ -0,0 +1,34 @@
+package com.ecommerce.backend.repository;
+
+import com.ecommerce.backend.model.ArchivedOrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for order lines moved to cold storage.
+ */
+@Repository
+public interface ArchivedOrderItemRepository extends JpaRepository<ArchivedOrderItem, Long> {
+
+    List<ArchivedOrderItem> findByOrderId(Long orderId);
+
+    List<ArchivedOrderItem> findByOrderIdIn(Collection<Long> orderIds);
+
+    /**
+     * Copies the lines of the given orders into the archive table with a single INSERT ... SELECT.
+     * @param orderIds The IDs of the parent orders.
+     * @return The number of archived rows written.
+     */
+    @Modifying
+    @Query("insert into ArchivedOrderItem (id, orderId, productId, productName, quantity, priceAtOrder) " +
+            "select i.id, i.order.id, p.id, p.name, i.quantity, i.priceAtOrder " +
+            "from OrderItem i join i.product p " +
+            "where i.order.id in :orderIds")
+    int copyFromOrderItems(@Param("orderIds") Collection<Long> orderIds);
+}
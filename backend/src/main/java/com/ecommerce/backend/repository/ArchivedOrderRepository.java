@@ -0,0 +1,35 @@
+package com.ecommerce.backend.repository;
+
+import com.ecommerce.backend.model.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for orders moved to cold storage.
+ */
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    List<ArchivedOrder> findByUserIdOrderByOrderDateDesc(Long userId);
+
+    /**
+     * Copies the given orders, together with their payment transaction, into the archive table
+     * with a single INSERT ... SELECT.
+     * @param ids The IDs of the orders to copy.
+     * @return The number of archived rows written.
+     */
+    @Modifying
+    @Query("insert into ArchivedOrder (id, userId, orderDate, status, totalAmount, shippingAddress, " +
+            "paymentGatewayOrderId, paymentGatewayPaymentId, paymentStatus, archivedAt) " +
+            "select o.id, o.user.id, o.orderDate, o.status, o.totalAmount, o.shippingAddress, " +
+            "t.paymentGatewayOrderId, t.paymentGatewayPaymentId, t.status, current_timestamp " +
+            "from Order o left join Transaction t on t.order = o " +
+            "where o.id in :ids")
+    int copyFromOrders(@Param("ids") Collection<Long> ids);
+}
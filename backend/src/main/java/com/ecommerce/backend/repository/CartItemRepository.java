@@ -1 +1,12 @@
+package com.ecommerce.backend.repository;
 
+import com.ecommerce.backend.model.CartItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for managing CartItem entities. Items are read through Cart.items (by cart_id).
+ */
+@Repository
+public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+}
@@ -1,9 +1,30 @@
-// src/main/java/com/ecommerce/backend/category/repository/CategoryRepository.java
-
 package com.ecommerce.backend.repository;
 
-import com.ecommerce.backend.category.Category;
+import com.ecommerce.backend.model.Category;
+import com.ecommerce.backend.model.ReferenceDataRegions;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for managing Category entities.
+ */
+@Repository
+public interface CategoryRepository extends JpaRepository<Category, Integer> {
 
-public interface CategoryRepository extends JpaRepository<Category, Long> {
+    /**
+     * Retrieves all categories. The result is held in the query cache, so repeated listings run no SQL
+     * until the categories table changes.
+     * @return All categories.
+     */
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataRegions.CATEGORY_LISTINGS)
+    })
+    List<Category> findAll();
 }
@@ -1,9 +1,17 @@
 package com.ecommerce.backend.repository;
 
 import com.ecommerce.backend.model.Order;
+import com.ecommerce.backend.model.OrderStatus;
+import com.ecommerce.backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,11 +22,19 @@ import java.util.Optional;
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
     /**
-     * Finds all orders placed by a specific user.
+     * Lightweight projection of an order's ID and status, used where loading the full entity is unnecessary.
+     */
+    interface StatusView {
+        Long getId();
+        OrderStatus getStatus();
+    }
+
+    /**
+     * Finds all orders placed by a specific user, newest first (an idx_orders_user_date range read).
      * @param user The User entity to find orders for.
      * @return A list of orders associated with the user.
      */
-    List<Order> findByUser(User user);
+    List<Order> findByUserOrderByOrderDateDesc(User user);
 
     /**
      * Finds an order by its ID and ensures it belongs to the specified user.
@@ -27,4 +43,59 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @return An Optional containing the order if found, or empty.
      */
     Optional<Order> findByIdAndUser(Long id, User user);
+
+    /**
+     * Reads the current status of each of the given orders without hydrating the entities.
+     * @param ids The order IDs to look up.
+     * @return One view per existing order; missing IDs are simply absent.
+     */
+    @Query("select o.id as id, o.status as status from Order o where o.id in :ids")
+    List<StatusView> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Moves the given orders to a new status in a single statement, but only those still in the expected status.
+     * @param ids The order IDs to update.
+     * @param from The status the orders must currently be in.
+     * @param to The new status.
+     * @return The number of rows actually updated.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update Order o set o.status = :to where o.id in :ids and o.status = :from")
+    int updateStatusWhereCurrent(@Param("ids") Collection<Long> ids,
+                                 @Param("from") OrderStatus from,
+                                 @Param("to") OrderStatus to);
+
+    /**
+     * Keyset scan for orders that are finished and old enough to be archived.
+     * Walks the primary key so each chunk is an index range read, no matter how far the scan has progressed.
+     * @param statuses The terminal statuses eligible for archiving.
+     * @param cutoff Only orders placed before this instant are returned.
+     * @param afterId The last ID of the previous chunk (0 for the first chunk).
+     * @param pageable Limits the chunk size; the sort is fixed by the query.
+     * @return The IDs of the next chunk, in ascending order.
+     */
+    @Query("select o.id from Order o where o.status in :statuses and o.orderDate < :cutoff " +
+            "and o.id > :afterId order by o.id")
+    List<Long> findArchivableIds(@Param("statuses") Collection<OrderStatus> statuses,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 @Param("afterId") Long afterId,
+                                 Pageable pageable);
+
+    /**
+     * Records the payment gateway order created for an order.
+     * @param id The order ID.
+     * @param pgOrderId The gateway's order ID.
+     * @return The number of rows updated (0 if the order does not exist).
+     */
+    @Modifying
+    @Query("update Order o set o.paymentGatewayOrderId = :pgOrderId where o.id = :id")
+    int setPaymentGatewayOrderId(@Param("id") Long id, @Param("pgOrderId") String pgOrderId);
+
+    /**
+     * Resolves a payment gateway order to the order it was created for.
+     * @param pgOrderId The gateway's order ID.
+     * @return The order ID, or empty if no order has this gateway order.
+     */
+    @Query("select o.id from Order o where o.paymentGatewayOrderId = :pgOrderId")
+    Optional<Long> findIdByPaymentGatewayOrderId(@Param("pgOrderId") String pgOrderId);
 }
@@ -0,0 +1,81 @@
+package com.ecommerce.backend.repository;
+
+import com.ecommerce.backend.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for transactional outbox events.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Retrieves the oldest deliverable events: pending, not claimed (or past their claim), and the oldest pending
+     * event of their aggregate, so the events of one aggregate are delivered one at a time and in order.
+     * @param now The current time, to tell expired claims and due retries.
+     * @param pageable Limits the batch size; the sort is fixed by the query.
+     * @return Deliverable events in creation order.
+     */
+    @Query("select e from OutboxEvent e where e.publishedAt is null and e.deadLetteredAt is null " +
+            "and (e.claimedUntil is null or e.claimedUntil < :now) " +
+            "and not exists (select o.id from OutboxEvent o where o.aggregateId = e.aggregateId " +
+            "and o.aggregateType = e.aggregateType and o.id < e.id " +
+            "and o.publishedAt is null and o.deadLetteredAt is null) " +
+            "order by e.id")
+    List<OutboxEvent> findPending(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claims events for one relay run. Only rows that are still pending and unclaimed are taken, so of several
+     * runs reading the same events each event goes to exactly one.
+     * @return The number of claimed rows.
+     */
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedBy = :claimedBy, e.claimedUntil = :claimedUntil " +
+            "where e.id in :ids and e.publishedAt is null and e.deadLetteredAt is null " +
+            "and (e.claimedUntil is null or e.claimedUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimedBy") String claimedBy,
+              @Param("claimedUntil") LocalDateTime claimedUntil, @Param("now") LocalDateTime now);
+
+    /**
+     * Retrieves the events of a batch that a relay run did claim.
+     * @return The claimed events in creation order.
+     */
+    @Query("select e from OutboxEvent e where e.id in :ids and e.claimedBy = :claimedBy order by e.id")
+    List<OutboxEvent> findClaimed(@Param("ids") Collection<Long> ids, @Param("claimedBy") String claimedBy);
+
+    /**
+     * Marks a batch of events as delivered in a single statement.
+     * @return The number of updated rows.
+     */
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedAt = :publishedAt where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    /**
+     * Records a failed delivery attempt and releases the claim.
+     * @param retryAt The earliest time of the next attempt.
+     * @param deadLetteredAt Now if the event has failed too often and is given up on; otherwise null.
+     */
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1, e.claimedBy = null, e.claimedUntil = :retryAt, " +
+            "e.deadLetteredAt = :deadLetteredAt where e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("retryAt") LocalDateTime retryAt,
+                      @Param("deadLetteredAt") LocalDateTime deadLetteredAt);
+
+    /**
+     * Removes delivered events older than the given time.
+     * @return The number of deleted rows.
+     */
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
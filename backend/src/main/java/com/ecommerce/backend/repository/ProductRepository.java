@@ -2,6 +2,9 @@ package com.ecommerce.backend.repository;
 
 import com.ecommerce.backend.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,5 +15,33 @@ import java.util.List;
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
-    List<Product> findByCategoryName(String categoryName);
+    /**
+     * Retrieves the products of a category, cheapest first.
+     * An inner join, so the category is found by name first and its products read in price order
+     * from idx_products_category_price.
+     * @param categoryName The category's name.
+     * @return The category's products.
+     */
+    @Query("select p from Product p join p.category c where c.name = :categoryName order by p.price")
+    List<Product> findByCategoryName(@Param("categoryName") String categoryName);
+
+    /**
+     * Retrieves the products of a category, cheapest first (idx_products_category_price).
+     * @param categoryId The category's ID.
+     * @return The category's products.
+     */
+    @Query("select p from Product p where p.category.id = :categoryId order by p.price")
+    List<Product> findByCategoryId(@Param("categoryId") Integer categoryId);
+
+    /**
+     * Takes stock for an order in a single statement, but only if enough is left, so concurrent checkouts
+     * cannot oversell. The loaded products are not refreshed; callers must not rely on their stock afterwards.
+     * @param productId The product's ID.
+     * @param quantity The quantity to take.
+     * @return 1 if the stock was taken, 0 if there was not enough.
+     */
+    @Modifying
+    @Query("update Product p set p.stockQuantity = p.stockQuantity - :quantity "
+            + "where p.id = :productId and p.stockQuantity >= :quantity")
+    int decrementStock(@Param("productId") Long productId, @Param("quantity") int quantity);
 }
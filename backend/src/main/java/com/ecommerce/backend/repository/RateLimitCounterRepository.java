@@ -0,0 +1,41 @@
+package com.ecommerce.backend.repository;
+
+import com.ecommerce.backend.model.RateLimitCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for the shared rate-limit counters.
+ */
+@Repository
+public interface RateLimitCounterRepository extends JpaRepository<RateLimitCounter, String> {
+
+    /**
+     * Counts a request if the window is still below its limit, in one statement.
+     * @return 1 if the request was counted, 0 if the window is full or has no row yet.
+     */
+    @Modifying
+    @Query("update RateLimitCounter c set c.requestCount = c.requestCount + 1 where c.id = :id and c.requestCount < :limit")
+    int incrementIfBelow(@Param("id") String id, @Param("limit") long limit);
+
+    /**
+     * Starts a window with its first request. Fails with a duplicate key if another node started it first.
+     */
+    @Modifying
+    @Query(value = "insert into rate_limit_counters (id, request_count, expires_at) values (:id, 1, :expiresAt)",
+            nativeQuery = true)
+    int insertFirst(@Param("id") String id, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Removes the counters of finished windows.
+     * @return The number of deleted rows.
+     */
+    @Modifying
+    @Query("delete from RateLimitCounter c where c.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.backend.repository;
+
+import com.ecommerce.backend.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for persisted token revocations.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    /**
+     * Retrieves the revocations recorded since the given time that still cover unexpired tokens.
+     * @param since Lower bound (inclusive) on revokedAt; used for incremental refreshes.
+     * @param now Revocations that expired before this time are skipped.
+     * @return The matching revocations.
+     */
+    @Query("select r from RevokedToken r where r.revokedAt >= :since and r.expiresAt > :now")
+    List<RevokedToken> findActiveRevokedSince(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+
+    /**
+     * Removes revocations whose tokens have all expired.
+     * @return The number of deleted rows.
+     */
+    @Modifying
+    @Query("delete from RevokedToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
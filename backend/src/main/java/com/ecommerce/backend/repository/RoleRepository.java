@@ -11,7 +11,7 @@ import java.util.Optional;
  * Repository interface for Role entity operations.
  */
 @Repository
-public interface RoleRepository extends JpaRepository<Role, Integer> {
+public interface RoleRepository extends JpaRepository<Role, Long> {
 
     Optional<Role> findByName(ERole name);
 }
@@ -2,8 +2,77 @@
 
 package com.ecommerce.backend.repository;
 
+import com.ecommerce.backend.model.Money;
 import com.ecommerce.backend.model.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    /**
+     * The columns needed to reconcile a transaction against a settlement file.
+     */
+    interface SettlementView {
+        Long getId();
+        String getPaymentGatewayPaymentId();
+        Money getAmountPaid();
+        String getCurrency();
+        LocalDateTime getTransactionDate();
+    }
+
+    /**
+     * Finds the transaction of an order (order_id is unique, so this is an index lookup).
+     * @param orderId The ID of the order.
+     * @return The transaction, or empty if the order has not been paid.
+     */
+    Optional<Transaction> findByOrder_Id(Long orderId);
+
+    /**
+     * Finds the transaction created for a gateway order (uses idx_transactions_pg_order_id).
+     * @param paymentGatewayOrderId The gateway's order ID.
+     * @return The transaction, or empty if the payment has not been recorded.
+     */
+    Optional<Transaction> findByPaymentGatewayOrderId(String paymentGatewayOrderId);
+
+    /**
+     * Finds the transaction recording a gateway payment (uses idx_transactions_pg_payment_id).
+     * @param paymentGatewayPaymentId The gateway's payment ID.
+     * @return The transaction, or empty if the payment has not been recorded.
+     */
+    Optional<Transaction> findByPaymentGatewayPaymentId(String paymentGatewayPaymentId);
+
+    /**
+     * Keyset scan of successful transactions in payment ID order, for merge-joining with a sorted settlement file.
+     * Each chunk is a range read on the payment ID index, however far the scan has progressed.
+     * @param from Only transactions made at or after this instant are returned.
+     * @param to Only transactions made before this instant are returned.
+     * @param afterPaymentId The last payment ID of the previous chunk ("" for the first chunk).
+     * @param pageable Limits the chunk size; the sort is fixed by the query.
+     * @return The next chunk, in ascending payment ID order.
+     */
+    @Query("select t.id as id, t.paymentGatewayPaymentId as paymentGatewayPaymentId, t.amountPaid as amountPaid, " +
+            "t.currency as currency, t.transactionDate as transactionDate from Transaction t " +
+            "where t.status = 'SUCCESS' and t.transactionDate >= :from and t.transactionDate < :to " +
+            "and t.paymentGatewayPaymentId > :afterPaymentId order by t.paymentGatewayPaymentId")
+    List<SettlementView> findSettledAfter(@Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to,
+                                          @Param("afterPaymentId") String afterPaymentId,
+                                          Pageable pageable);
+
+    /**
+     * Deletes the payment transactions of the given orders in a single statement.
+     * @param orderIds The IDs of the orders.
+     * @return The number of deleted rows.
+     */
+    @Modifying
+    @Query("delete from Transaction t where t.order.id in :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -1,8 +1,15 @@
 package com.ecommerce.backend.repository;
 
+import com.ecommerce.backend.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -12,6 +19,15 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /**
+     * The identifying columns of a user, without loading the entity.
+     */
+    interface UserIdentity {
+        Long getId();
+        String getUsername();
+        String getEmail();
+    }
+
     /**
      * Finds a User by their unique username.
      * @param username The username to search for.
@@ -19,6 +35,37 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * Finds a User by username with the roles fetched in the same query, for building security principals.
+     * @param username The username to search for.
+     * @return An Optional containing the User with its roles initialized, or empty otherwise.
+     */
+    @EntityGraph(attributePaths = "roles")
+    @Query("select u from User u where u.username = :username")
+    Optional<User> findWithRolesByUsername(@Param("username") String username);
+
+    /**
+     * Signup uniqueness check in one round trip: the users (at most two) holding either value.
+     * A union rather than "or", so each branch is a unique-index lookup instead of a scan of the table.
+     * @param username The requested username, or null to skip it.
+     * @param email The requested email, or null to skip it.
+     * @return The matching users' identities.
+     */
+    @Query("select u.id as id, u.username as username, u.email as email from User u "
+            + "where u.username = :username "
+            + "union select u.id as id, u.username as username, u.email as email from User u "
+            + "where u.email = :email")
+    List<UserIdentity> findIdentitiesByUsernameOrEmail(@Param("username") String username, @Param("email") String email);
+
+    /**
+     * Keyset-paged scan of every username and email, for loading the signup availability filter.
+     * @param afterId Returns users with a greater ID (0 for the first page).
+     * @param pageable Limits the page size; the sort is fixed by the query.
+     * @return The next page of identities in ID order.
+     */
+    @Query("select u.id as id, u.username as username, u.email as email from User u where u.id > :afterId order by u.id")
+    List<UserIdentity> findIdentitiesAfter(@Param("afterId") long afterId, Pageable pageable);
+
     /**
      * Checks if a User with the given username already exists.
      * @param username The username to check.
@@ -32,4 +79,32 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return true if the email exists, false otherwise.
      */
     Boolean existsByEmail(String email);
+
+    /**
+     * Reads only a user's security version, for validating claims-based tokens.
+     * @param id The ID of the user.
+     * @return The current security version, or empty if the user no longer exists.
+     */
+    @Query("select u.securityVersion from User u where u.id = :id")
+    Optional<Long> findSecurityVersionById(@Param("id") Long id);
+
+    /**
+     * Replaces a user's password hash when it is rehashed at a higher BCrypt cost on login. The password itself is
+     * unchanged, so the security version is not bumped; real password changes go through UserService.changePassword.
+     * @param username The username of the user.
+     * @param password The new hash.
+     * @return The number of rows updated.
+     */
+    @Modifying
+    @Query("update User u set u.password = :password where u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
+    /**
+     * Invalidates all tokens issued to a user by incrementing the security version.
+     * @param id The ID of the user.
+     * @return The number of rows updated.
+     */
+    @Modifying
+    @Query("update User u set u.securityVersion = u.securityVersion + 1 where u.id = :id")
+    int incrementSecurityVersion(@Param("id") Long id);
 }
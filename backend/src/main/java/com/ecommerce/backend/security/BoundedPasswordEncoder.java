@@ -0,0 +1,101 @@
+package com.ecommerce.backend.security;
+
+import com.ecommerce.backend.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs a CPU-heavy PasswordEncoder (BCrypt) on its own small, bounded thread pool instead of the request thread.
+ *
+ * A login burst can then use at most {@code threads} cores, leaving the rest to catalog and cart traffic.
+ * Work beyond {@code queueCapacity} waiting hashes is rejected immediately, and a caller that waits longer than
+ * {@code maxWait} gives up; both surface as PasswordHashingBusyException (503).
+ *
+ * {@link #upgradeEncoding(String)} is delegated, so hashes below the delegate's cost are rehashed on login.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final Timer hashTimer;
+    private final MeterRegistry meterRegistry;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration maxWait,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxWait = maxWait;
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.hashTimer = meterRegistry.timer("security.password.hashing");
+
+        meterRegistry.gauge("security.password.hashing.queue.depth", executor, e -> e.getQueue().size());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run("encode", () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run("matches", () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(String operation, Supplier<T> work) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> hashTimer.record(work));
+        } catch (RejectedExecutionException e) {
+            return rejected("queue_full", "Too many logins in progress, please retry.");
+        }
+
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Drops it from the queue if it has not started; a running hash cannot be interrupted and just finishes
+            future.cancel(false);
+            return rejected("timeout", "Password " + operation + " did not complete within " + maxWait.toMillis() + " ms, please retry.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new PasswordHashingBusyException("Interrupted while waiting for password " + operation);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password " + operation + " failed", e.getCause());
+        }
+    }
+
+    private <T> T rejected(String reason, String message) {
+        meterRegistry.counter("security.password.hashing.rejected", "reason", reason).increment();
+        throw new PasswordHashingBusyException(message);
+    }
+
+    /**
+     * Stops the hashing threads; called by Spring on shutdown.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -2,8 +2,10 @@ package com.ecommerce.backend.security;
 
 import com.ecommerce.backend.security.jwt.AuthEntryPointJwt;
 import com.ecommerce.backend.security.jwt.AuthTokenFilter;
-import com.ecommerce.backend.security.services.UserDetailsServiceImpl;
+import com.ecommerce.backend.security.services.CustomUserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -18,6 +20,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 /**
  * Main configuration class for Spring Security.
  * Sets up JWT-based authentication, stateless session management,
@@ -28,7 +32,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class WebSecurityConfig {
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private CustomUserDetailsServiceImpl userDetailsService;
 
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
@@ -46,14 +50,17 @@ public class WebSecurityConfig {
     /**
      * Configures the authentication provider, setting the user details service
      * and the password encoder to be used for authentication logic.
+     * Passwords hashed below the configured BCrypt cost are rehashed on successful login.
+     * @param passwordEncoder The bounded BCrypt encoder.
      * @return The configured DaoAuthenticationProvider.
      */
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
 
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userDetailsService);
 
         return authProvider;
     }
@@ -71,23 +78,30 @@ public class WebSecurityConfig {
     }
 
     /**
-     * Defines the password encoder using BCrypt algorithm.
-     * @return A BCryptPasswordEncoder instance.
+     * Defines the password encoder using BCrypt algorithm, run on a dedicated bounded pool
+     * so login bursts cannot take every core from the rest of the API.
+     * @return A BoundedPasswordEncoder wrapping a BCryptPasswordEncoder at the configured cost.
      */
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    public PasswordEncoder passwordEncoder(@Value("${ecommerce.app.passwordHashing.cost:10}") int cost,
+                                           @Value("${ecommerce.app.passwordHashing.threads:2}") int threads,
+                                           @Value("${ecommerce.app.passwordHashing.queueCapacity:50}") int queueCapacity,
+                                           @Value("${ecommerce.app.passwordHashing.maxWaitMs:2000}") long maxWaitMs,
+                                           MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(cost), threads, queueCapacity,
+                Duration.ofMillis(maxWaitMs), meterRegistry);
     }
 
     /**
      * Defines the security filter chain to configure HTTP security settings.
      *
      * @param http The HttpSecurity object to configure.
+     * @param authenticationProvider The provider that checks username and password.
      * @return The built SecurityFilterChain.
      * @throws Exception if configuration fails.
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, DaoAuthenticationProvider authenticationProvider) throws Exception {
         http.csrf(AbstractHttpConfigurer::disable) // Disable CSRF as we are stateless
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler)) // Set unauthorized handler
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // Set session policy to stateless (JWT requirement)
@@ -96,6 +110,8 @@ public class WebSecurityConfig {
                         .requestMatchers("/api/auth/**").permitAll()
                         // Public endpoints for test/open access (e.g., viewing public products)
                         .requestMatchers("/api/test/**").permitAll()
+                        // Payment gateway webhooks authenticate with an HMAC signature instead of a JWT
+                        .requestMatchers("/api/payments/webhook").permitAll()
                         // Secure all other API requests - requires authentication
                         .requestMatchers("/api/**").authenticated()
                         // Secure all other requests
@@ -103,7 +119,7 @@ public class WebSecurityConfig {
                 );
 
         // Add the authentication provider for the authentication logic
-        http.authenticationProvider(authenticationProvider());
+        http.authenticationProvider(authenticationProvider);
 
         // Add the custom JWT filter before Spring's standard authentication filter
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
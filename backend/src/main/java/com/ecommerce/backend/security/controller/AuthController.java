@@ -1,17 +1,25 @@
 package com.ecommerce.backend.security.controller;
 
+import com.ecommerce.backend.security.jwt.JwtUtils;
 import com.ecommerce.backend.security.payload.request.LoginRequest;
 import com.ecommerce.backend.security.payload.request.SignupRequest;
 import com.ecommerce.backend.security.services.AuthService;
+import com.ecommerce.backend.security.services.CustomUserDetails;
+import com.ecommerce.backend.security.services.TokenRevocationService;
+import com.ecommerce.backend.security.services.UserIdentityIndex;
+import com.ecommerce.backend.security.payload.response.AvailabilityResponse;
 import com.ecommerce.backend.security.payload.response.JwtResponse;
 import com.ecommerce.backend.payload.response.MessageResponse;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 /**
- * REST controller for handling user authentication (login and registration).
+ * REST controller for handling user authentication (login, registration and logout).
  * Base path: /api/auth
  */
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -21,6 +29,8 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserIdentityIndex userIdentityIndex;
 
     /**
      * Handles user login request.
@@ -43,4 +53,46 @@ public class AuthController {
         String message = authService.registerUser(signupRequest);
         return ResponseEntity.ok(new MessageResponse(message));
     }
+
+    /**
+     * Live username check for the signup form; usually answered from memory without a query.
+     * Emails are not checked here, so the endpoint cannot be used to find out who has an account;
+     * a taken email is only reported by signup itself. Rate limited per IP (RouteClass.AVAILABILITY).
+     * @param username The username to check.
+     * @return ResponseEntity containing whether the username is still available.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(@RequestParam String username) {
+        return ResponseEntity.ok(userIdentityIndex.checkAvailability(username, null));
+    }
+
+    /**
+     * Revokes the token presented with this request (logout on this device).
+     * @param principal The authenticated user; null if the token is missing, invalid or already revoked.
+     * @param claims The verified claims of the presented token, exposed by AuthTokenFilter.
+     * @return ResponseEntity containing a success message, or 401 without a valid token.
+     */
+    @PostMapping("/signout")
+    public ResponseEntity<MessageResponse> signOut(@AuthenticationPrincipal CustomUserDetails principal,
+                                                   @RequestAttribute(name = JwtUtils.CLAIMS_ATTRIBUTE, required = false) Claims claims) {
+        if (principal == null || claims == null || claims.getId() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new MessageResponse("Not signed in."));
+        }
+        tokenRevocationService.revokeToken(claims.getId(), principal.getId(), claims.getExpiration());
+        return ResponseEntity.ok(new MessageResponse("Signed out."));
+    }
+
+    /**
+     * Revokes every token issued to the current user so far (logout on all devices).
+     * @param principal The authenticated user; null if the token is missing, invalid or already revoked.
+     * @return ResponseEntity containing a success message, or 401 without a valid token.
+     */
+    @PostMapping("/signout-all")
+    public ResponseEntity<MessageResponse> signOutEverywhere(@AuthenticationPrincipal CustomUserDetails principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new MessageResponse("Not signed in."));
+        }
+        tokenRevocationService.revokeAllForUser(principal.getId());
+        return ResponseEntity.ok(new MessageResponse("Signed out on all devices."));
+    }
 }
@@ -1,6 +1,10 @@
 package com.ecommerce.backend.security.jwt;
 
-import com.ecommerce.backend.security.services.UserDetailsServiceImpl;
+import com.ecommerce.backend.security.services.CustomUserDetails;
+import com.ecommerce.backend.security.services.CustomUserDetailsServiceImpl;
+import com.ecommerce.backend.security.services.TokenRevocationService;
+import com.ecommerce.backend.security.services.UserSecurityVersionCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,7 +32,13 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private CustomUserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UserSecurityVersionCache securityVersionCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
 
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
@@ -47,25 +57,36 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             // 1. Get JWT from the request header
             String jwt = parseJwt(request);
 
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                // 2. Extract username from token
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            // 2. Verify the token and extract its claims (a single parse; none if RateLimitFilter already did)
+            Claims claims = jwt == null ? null : verifiedClaims(request, jwt);
+
+            if (claims != null) {
+                String username = claims.getSubject();
+                request.setAttribute(JwtUtils.CLAIMS_ATTRIBUTE, claims);
 
-                // 3. Load user details
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // 3. Load user details: from the token itself in claims mode, otherwise from the database
+                UserDetails userDetails = resolveUserDetails(claims, username);
 
-                // 4. Create authentication object
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities());
+                // 4. Reject revoked tokens (an in-memory check)
+                if (userDetails != null && isRevoked(claims, userDetails)) {
+                    logger.debug("Rejected revoked token {} of user {}", claims.getId(), username);
+                    userDetails = null;
+                }
 
-                // 5. Set authentication details (remote address, session id, etc.)
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                if (userDetails != null) {
+                    // 5. Create authentication object
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(
+                                    userDetails,
+                                    null,
+                                    userDetails.getAuthorities());
 
-                // 6. Set the Authentication in SecurityContextHolder
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    // 6. Set authentication details (remote address, session id, etc.)
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                    // 7. Set the Authentication in SecurityContextHolder
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e.getMessage());
@@ -75,6 +96,37 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private Claims verifiedClaims(HttpServletRequest request, String jwt) {
+        Object verified = request.getAttribute(JwtUtils.CLAIMS_ATTRIBUTE);
+        return verified instanceof Claims claims ? claims : jwtUtils.parseClaims(jwt);
+    }
+
+    /**
+     * In claims mode, builds the principal from the token, accepting it only while its security version is
+     * current (a cached check, so no query per request). Tokens without user claims, issued before the mode was
+     * switched on, fall back to loading the user.
+     *
+     * @return The user details, or null if the token has been revoked.
+     */
+    private UserDetails resolveUserDetails(Claims claims, String username) {
+        if (jwtUtils.isClaimsAuthEnabled()) {
+            CustomUserDetails fromClaims = jwtUtils.userDetailsFromClaims(claims);
+            if (fromClaims != null) {
+                if (!securityVersionCache.isCurrent(fromClaims.getId(), fromClaims.getSecurityVersion())) {
+                    logger.debug("Rejected revoked token of user {}", fromClaims.getId());
+                    return null;
+                }
+                return fromClaims;
+            }
+        }
+        return userDetailsService.loadUserByUsername(username);
+    }
+
+    private boolean isRevoked(Claims claims, UserDetails userDetails) {
+        Long userId = userDetails instanceof CustomUserDetails custom ? custom.getId() : null;
+        return tokenRevocationService.isRevoked(claims.getId(), claims.getIssuedAt(), userId);
+    }
+
     /**
      * Extracts the JWT token from the Authorization header (Bearer scheme).
      *
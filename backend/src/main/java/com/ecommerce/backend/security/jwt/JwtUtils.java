@@ -6,56 +6,141 @@ import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Utility class for JWT token generation, validation, and user extraction.
+ *
+ * The signing key and the parser are built once; both are immutable and thread-safe. Incoming tokens are
+ * parsed and verified exactly once via {@link #parseClaims(String)}, and callers work with the returned claims.
+ * Verified tokens are cached until they expire (capped by jwtCache.maxTtlMs), so repeat requests with the
+ * same token skip the signature check.
+ *
+ * With ecommerce.app.jwtClaimsAuth.enabled, tokens also carry the user ID, email, authorities and security
+ * version, so AuthTokenFilter can authenticate from the token alone (see {@link #userDetailsFromClaims(Claims)}).
  */
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-    // Load JWT secret and expiration time from application.properties
-    @Value("${ecommerce.app.jwtSecret}")
-    private String jwtSecret;
+    /**
+     * Request attribute under which AuthTokenFilter exposes the verified claims to downstream components.
+     */
+    public static final String CLAIMS_ATTRIBUTE = "com.ecommerce.backend.security.jwt.JwtUtils.claims";
 
-    @Value("${ecommerce.app.jwtExpirationMs}")
-    private int jwtExpirationMs;
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_AUTHORITIES = "auth";
+    private static final String CLAIM_SECURITY_VERSION = "ver";
+
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final int jwtExpirationMs;
+    private final boolean claimsAuthEnabled;
+    private final VerifiedTokenCache verifiedTokens;
+
+    // Load JWT secret, expiration time, token mode and cache size from application.properties
+    @Autowired
+    public JwtUtils(@Value("${ecommerce.app.jwtSecret}") String jwtSecret,
+                    @Value("${ecommerce.app.jwtExpirationMs}") int jwtExpirationMs,
+                    @Value("${ecommerce.app.jwtClaimsAuth.enabled:false}") boolean claimsAuthEnabled,
+                    @Value("${ecommerce.app.jwtCache.maxEntries:10000}") int cacheMaxEntries,
+                    @Value("${ecommerce.app.jwtCache.maxTtlMs:300000}") long cacheMaxTtlMs) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.claimsAuthEnabled = claimsAuthEnabled;
+        this.verifiedTokens = new VerifiedTokenCache(cacheMaxEntries, cacheMaxTtlMs, System::currentTimeMillis);
+    }
+
+    // Without the verified-token cache
+    public JwtUtils(String jwtSecret, int jwtExpirationMs, boolean claimsAuthEnabled) {
+        this(jwtSecret, jwtExpirationMs, claimsAuthEnabled, 0, 0);
+    }
 
     // --- Token Generation ---
 
     public String generateJwtToken(Authentication authentication) {
         CustomUserDetails userPrincipal = (CustomUserDetails) authentication.getPrincipal();
 
-        // Build the JWT
-        return Jwts.builder()
+        // Build the JWT; the random ID ("jti") lets a single token be revoked
+        Date now = new Date();
+        JwtBuilder builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject((userPrincipal.getUsername()))
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
-                .compact();
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + jwtExpirationMs));
+
+        if (claimsAuthEnabled) {
+            // Everything the filter needs to rebuild the principal without loading the user
+            builder.claim(CLAIM_USER_ID, userPrincipal.getId())
+                    .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+                    .claim(CLAIM_AUTHORITIES, userPrincipal.getAuthorities().stream()
+                            .map(GrantedAuthority::getAuthority)
+                            .collect(Collectors.toList()))
+                    .claim(CLAIM_SECURITY_VERSION, userPrincipal.getSecurityVersion());
+        }
+
+        return builder.signWith(signingKey, SignatureAlgorithm.HS256).compact();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    public boolean isClaimsAuthEnabled() {
+        return claimsAuthEnabled;
     }
 
-    // --- Token Validation and Parsing ---
+    /**
+     * Rebuilds the principal from a claims-based token.
+     * The caller must still check the security version against the user's current one.
+     * @param claims Verified claims, from {@link #parseClaims(String)}.
+     * @return The user details, or null if the token was issued without user claims.
+     */
+    public CustomUserDetails userDetailsFromClaims(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        Number version = claims.get(CLAIM_SECURITY_VERSION, Number.class);
+        Collection<?> authorities = claims.get(CLAIM_AUTHORITIES, Collection.class);
+        if (userId == null || version == null || authorities == null) {
+            return null;
+        }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        List<GrantedAuthority> grantedAuthorities = authorities.stream()
+                .map(authority -> new SimpleGrantedAuthority(String.valueOf(authority)))
+                .collect(Collectors.toList());
+        return new CustomUserDetails(userId.longValue(), claims.getSubject(), claims.get(CLAIM_EMAIL, String.class),
+                null, grantedAuthorities, version.longValue());
     }
 
-    public boolean validateJwtToken(String authToken) {
+    // --- Token Validation and Parsing ---
+
+    /**
+     * Parses the token and verifies its signature and expiry in one pass, or returns the claims cached from an
+     * earlier verification of the same token.
+     * @param token The compact JWT.
+     * @return The verified claims (shared; do not modify), or null if the token is invalid (the reason is logged).
+     */
+    public Claims parseClaims(String token) {
+        if (token == null) {
+            return null;
+        }
+        Claims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            return cached;
+        }
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            verifiedTokens.put(token, claims);
+            return claims;
         } catch (io.jsonwebtoken.security.SecurityException | MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -65,6 +150,20 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * Prefer {@link #parseClaims(String)}, which validates and extracts in a single parse.
+     */
+    public String getUserNameFromJwtToken(String token) {
+        return parser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    /**
+     * Prefer {@link #parseClaims(String)}, which validates and extracts in a single parse.
+     */
+    public boolean validateJwtToken(String authToken) {
+        return parseClaims(authToken) != null;
     }
 }
@@ -0,0 +1,56 @@
+package com.ecommerce.backend.security.jwt;
+
+import com.ecommerce.backend.util.BoundedExpiringMap;
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers the claims of tokens whose signature has already been verified, so a session presenting the same
+ * bearer token on every request pays a map lookup instead of an HMAC check and a JSON parse.
+ *
+ * Entries are keyed by the whole token (the map hashes it; the hit is confirmed by full equality, so a
+ * modified token can never match) and live until the token expires, capped at {@code maxTtlMs}. The map is
+ * bounded as described on {@link BoundedExpiringMap}; {@code maxEntries} of 0 disables the cache. Revocation and
+ * security-version checks happen after parsing and are not affected.
+ */
+class VerifiedTokenCache {
+
+    private record Entry(Claims claims, long expiresAtMillis) {}
+
+    private static final long SWEEP_INTERVAL_MS = 1000;
+
+    private final long maxTtlMs;
+    private final LongSupplier clock;
+    // null when caching is disabled
+    private final BoundedExpiringMap<String, Entry> entries;
+
+    VerifiedTokenCache(int maxEntries, long maxTtlMs, LongSupplier clock) {
+        this.maxTtlMs = maxTtlMs;
+        this.clock = clock;
+        this.entries = maxEntries <= 0 ? null
+                : new BoundedExpiringMap<>(maxEntries, Entry::expiresAtMillis, clock, SWEEP_INTERVAL_MS);
+    }
+
+    /**
+     * @return The cached claims, or null if the token has not been verified recently.
+     */
+    Claims get(String token) {
+        Entry entry = entries == null ? null : entries.get(token);
+        return entry == null ? null : entry.claims();
+    }
+
+    void put(String token, Claims claims) {
+        if (entries == null) {
+            return;
+        }
+        Date expiration = claims.getExpiration();
+        long expiresAt = Math.min(clock.getAsLong() + maxTtlMs, expiration == null ? Long.MAX_VALUE : expiration.getTime());
+        entries.put(token, new Entry(claims, expiresAt));
+    }
+
+    int size() {
+        return entries == null ? 0 : entries.size();
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.backend.security.ratelimit;
+
+import com.ecommerce.backend.util.BoundedExpiringMap;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Node-local token buckets, one per key, held in a bounded map.
+ *
+ * Expiry is sliding and lossless: a bucket that has refilled completely is the same as a new one, so it expires
+ * a second after it refilled (the grace keeps a bucket that was just created, and is still full, from being
+ * replaced before its first token is taken). The map is bounded as described on {@link BoundedExpiringMap}, so
+ * when it is full the bucket closest to refilled is evicted. Every key keeps a bucket of its own, and a flood of
+ * distinct keys cannot grow memory without bound; the cost is that an evicted key starts over full.
+ */
+public class LocalRateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+    private static final long IDLE_GRACE_NANOS = 1_000_000_000L;
+
+    private final LongSupplier nanoClock;
+    private final BoundedExpiringMap<String, TokenBucket> buckets;
+
+    public LocalRateLimiter(int maxKeys) {
+        this(maxKeys, System::nanoTime);
+    }
+
+    LocalRateLimiter(int maxKeys, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.buckets = new BoundedExpiringMap<>(maxKeys, bucket -> bucket.fullAtNanos() + IDLE_GRACE_NANOS,
+                nanoClock, SWEEP_INTERVAL_NANOS);
+    }
+
+    /**
+     * Takes one token from the key's bucket.
+     * @return 0 if allowed, otherwise the nanoseconds until the next token.
+     */
+    public long tryAcquire(String key, RateLimitRule rule) {
+        long now = nanoClock.getAsLong();
+        return buckets.getOrCreate(key, k -> new TokenBucket(rule, now)).tryAcquire(now);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.backend.security.ratelimit;
+
+import com.ecommerce.backend.security.jwt.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Rate limits the expensive endpoints (see RouteClass) per client IP and, where configured, per user.
+ *
+ * Registered ahead of the Spring Security filter chain, so a rejected request is answered with 429 before any
+ * authentication, BCrypt or database work. The user key is the subject of a valid bearer token; its signature
+ * is verified, so one user cannot exhaust another's bucket. The verified claims (usually served from the
+ * verified-token cache) are left in the {@link JwtUtils#CLAIMS_ATTRIBUTE} request attribute, where AuthTokenFilter
+ * picks them up instead of verifying the token again.
+ *
+ * The client IP is {@code getRemoteAddr()}, which behind a trusted proxy is the forwarded client address
+ * (server.forward-headers-strategy).
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final Map<RouteClass, RateLimitRule> perIpRules;
+    private final Map<RouteClass, RateLimitRule> perUserRules;
+    private final LocalRateLimiter localLimiter;
+    // Null unless the shared (database) level is enabled
+    private final SharedRateLimiter sharedLimiter;
+    private final JwtUtils jwtUtils;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(Map<RouteClass, RateLimitRule> perIpRules, Map<RouteClass, RateLimitRule> perUserRules,
+                           LocalRateLimiter localLimiter, SharedRateLimiter sharedLimiter,
+                           JwtUtils jwtUtils, MeterRegistry meterRegistry) {
+        this.perIpRules = perIpRules;
+        this.perUserRules = perUserRules;
+        this.localLimiter = localLimiter;
+        this.sharedLimiter = sharedLimiter;
+        this.jwtUtils = jwtUtils;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteClass route = RouteClass.of(request);
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // 1. Per client IP
+        long waitNanos = acquire(route, "ip:" + request.getRemoteAddr(), perIpRules.get(route));
+
+        // 2. Per user, for routes that require a signed-in user
+        RateLimitRule perUser = perUserRules.get(route);
+        if (waitNanos == 0 && perUser != null) {
+            String username = authenticatedUsername(request);
+            if (username != null) {
+                waitNanos = acquire(route, "user:" + username, perUser);
+            }
+        }
+
+        if (waitNanos > 0) {
+            reject(route, response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private long acquire(RouteClass route, String key, RateLimitRule rule) {
+        if (rule == null) {
+            return 0;
+        }
+        String routeKey = route.name() + ":" + key;
+        long waitNanos = localLimiter.tryAcquire(routeKey, rule);
+        if (waitNanos == 0 && sharedLimiter != null) {
+            waitNanos = sharedLimiter.tryAcquire(routeKey, rule);
+        }
+        return waitNanos;
+    }
+
+    private String authenticatedUsername(HttpServletRequest request) {
+        String headerAuth = request.getHeader("Authorization");
+        if (!StringUtils.hasText(headerAuth) || !headerAuth.startsWith("Bearer ")) {
+            return null;
+        }
+        Claims claims = jwtUtils.parseClaims(headerAuth.substring(7));
+        if (claims == null) {
+            return null;
+        }
+        request.setAttribute(JwtUtils.CLAIMS_ATTRIBUTE, claims);
+        return claims.getSubject();
+    }
+
+    private void reject(RouteClass route, HttpServletResponse response, long waitNanos) throws IOException {
+        meterRegistry.counter("ratelimit.rejected", "route", route.name()).increment();
+
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"Too many requests, please retry in " + retryAfterSeconds + " s.\"}");
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.backend.security.ratelimit;
+
+/**
+ * A token-bucket limit: bursts of up to {@code capacity} requests, refilled at {@code refillPerMinute}.
+ */
+public record RateLimitRule(int capacity, int refillPerMinute) {
+
+    public RateLimitRule {
+        if (capacity <= 0 || refillPerMinute <= 0) {
+            throw new IllegalArgumentException("Rate limit capacity and refill must be positive");
+        }
+    }
+
+    long emissionIntervalNanos() {
+        return 60_000_000_000L / refillPerMinute;
+    }
+
+    /**
+     * The equivalent fixed-window limit, used by the shared (database) level.
+     */
+    long requestsPerWindow(long windowSeconds) {
+        return capacity + refillPerMinute * windowSeconds / 60;
+    }
+}
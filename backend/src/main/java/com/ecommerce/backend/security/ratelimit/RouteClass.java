@@ -0,0 +1,34 @@
+package com.ecommerce.backend.security.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Groups of endpoints that are expensive enough to need a rate limit, each with its own buckets.
+ */
+public enum RouteClass {
+
+    // Login and registration: BCrypt on every call
+    AUTH,
+    // Signup username check: cheap, but anonymous, so unlimited it would enumerate accounts
+    AVAILABILITY,
+    // Order placement: stock locks and several writes per call
+    CHECKOUT;
+
+    /**
+     * @return The route class of the request, or null if it is not rate limited.
+     */
+    public static RouteClass of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if ("GET".equals(request.getMethod())) {
+            return path.equals("/api/auth/availability") ? AVAILABILITY : null;
+        }
+        if (!"POST".equals(request.getMethod())) {
+            return null;
+        }
+        return switch (path) {
+            case "/api/auth/signin", "/api/auth/signup" -> AUTH;
+            case "/api/orders/checkout" -> CHECKOUT;
+            default -> null;
+        };
+    }
+}
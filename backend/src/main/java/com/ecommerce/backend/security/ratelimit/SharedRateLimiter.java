@@ -0,0 +1,93 @@
+package com.ecommerce.backend.security.ratelimit;
+
+import com.ecommerce.backend.repository.RateLimitCounterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.LongSupplier;
+
+/**
+ * The optional cluster-wide level: fixed-window counters in the database, so the limit holds across nodes.
+ *
+ * It is only consulted for requests the node-local buckets already allowed, and costs one UPDATE in the common
+ * case. If the database is unavailable the request is allowed (the local level still applies).
+ */
+public class SharedRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedRateLimiter.class);
+
+    private final RateLimitCounterRepository counterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long windowMillis;
+    private final LongSupplier clock;
+
+    public SharedRateLimiter(RateLimitCounterRepository counterRepository, TransactionTemplate transactionTemplate,
+                             long windowSeconds) {
+        this(counterRepository, transactionTemplate, windowSeconds, System::currentTimeMillis);
+    }
+
+    SharedRateLimiter(RateLimitCounterRepository counterRepository, TransactionTemplate transactionTemplate,
+                      long windowSeconds, LongSupplier clock) {
+        this.counterRepository = counterRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.windowMillis = windowSeconds * 1000;
+        this.clock = clock;
+    }
+
+    /**
+     * Counts one request against the key's current window.
+     * @return 0 if allowed, otherwise the nanoseconds until the window ends.
+     */
+    public long tryAcquire(String key, RateLimitRule rule) {
+        long now = clock.getAsLong();
+        long windowStart = now - now % windowMillis;
+        String id = key + "@" + windowStart;
+        long limit = rule.requestsPerWindow(windowMillis / 1000);
+
+        try {
+            if (increment(id, limit) || startWindow(id, windowStart) || increment(id, limit)) {
+                return 0;
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Shared rate limit unavailable, allowing request: {}", e.getMessage());
+            return 0;
+        }
+        return (windowStart + windowMillis - now) * 1_000_000L;
+    }
+
+    private boolean increment(String id, long limit) {
+        Integer updated = transactionTemplate.execute(status -> counterRepository.incrementIfBelow(id, limit));
+        return updated != null && updated > 0;
+    }
+
+    // False if another node created the window's row first; the caller then retries the increment
+    private boolean startWindow(String id, long windowStart) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    counterRepository.insertFirst(id, toDateTime(windowStart + windowMillis)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Removes the counters of finished windows.
+     */
+    @Scheduled(fixedDelayString = "${ecommerce.ratelimit.shared.purgeIntervalMs:60000}")
+    public void purgeExpired() {
+        transactionTemplate.executeWithoutResult(status ->
+                counterRepository.deleteExpired(toDateTime(clock.getAsLong())));
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.backend.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket, implemented as GCRA: the whole state is one "theoretical arrival time" updated
+ * with compare-and-set, so concurrent requests never block each other and no object is allocated per request.
+ *
+ * The bucket holds up to {@code capacity} tokens and regains one every {@code emissionIntervalNanos}.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    // The time at which the bucket will be full again; at or before "now" means it is full
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(RateLimitRule rule, long nowNanos) {
+        this.emissionIntervalNanos = rule.emissionIntervalNanos();
+        this.burstNanos = emissionIntervalNanos * rule.capacity();
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token if available.
+     * @param nowNanos The current time (System.nanoTime()).
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long excess = next - nowNanos - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return The time at which the bucket will be full again (at or before now if it already is).
+     */
+    public long fullAtNanos() {
+        return theoreticalArrival.get();
+    }
+}
@@ -3,17 +3,19 @@ package com.ecommerce.backend.security.services;
 // Corrected DTO imports
 import com.ecommerce.backend.security.payload.request.LoginRequest;
 import com.ecommerce.backend.security.payload.request.SignupRequest;
+import com.ecommerce.backend.security.payload.response.AvailabilityResponse;
 import com.ecommerce.backend.security.payload.response.JwtResponse;
 
 // Corrected User/Role model imports
-import com.ecommerce.backend.user.model.ERole;
-import com.ecommerce.backend.user.model.Role;
+import com.ecommerce.backend.model.ERole;
+import com.ecommerce.backend.model.Role;
+import com.ecommerce.backend.model.User;
 
 import com.ecommerce.backend.exception.UserAlreadyExistsException;
 import com.ecommerce.backend.security.jwt.JwtUtils;
-import com.ecommerce.backend.user.repository.RoleRepository;
-import com.ecommerce.backend.user.repository.UserRepository;
+import com.ecommerce.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -33,9 +35,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
+    private static final String USERNAME_TAKEN = "Error: Username is already taken!";
+    private static final String EMAIL_TAKEN = "Error: Email is already in use!";
+
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
+    private final UserIdentityIndex userIdentityIndex;
     private final PasswordEncoder encoder;
     private final JwtUtils jwtUtils;
 
@@ -77,14 +83,19 @@ public class AuthServiceImpl implements AuthService {
      */
     @Override
     public String registerUser(SignupRequest signUpRequest) {
-        // Check for existing username
-        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
-            throw new UserAlreadyExistsException("Error: Username is already taken!");
-        }
-
-        // Check for existing email
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-            throw new UserAlreadyExistsException("Error: Email is already in use!");
+        String username = signUpRequest.getUsername();
+        String email = signUpRequest.getEmail();
+
+        // Check for an existing username or email: no query when the filter says both are free,
+        // otherwise one query for both. Concurrent signups are settled by the unique constraints below.
+        if (userIdentityIndex.mightBeTaken(username, email)) {
+            AvailabilityResponse availability = userIdentityIndex.checkAvailability(username, email);
+            if (!availability.getUsernameAvailable()) {
+                throw new UserAlreadyExistsException(USERNAME_TAKEN);
+            }
+            if (!availability.getEmailAvailable()) {
+                throw new UserAlreadyExistsException(EMAIL_TAKEN);
+            }
         }
 
         // Create new user's account
@@ -92,38 +103,24 @@ public class AuthServiceImpl implements AuthService {
                 signUpRequest.getEmail(),
                 encoder.encode(signUpRequest.getPassword()));
 
-        Set<String> strRoles = signUpRequest.getRole();
+        // Every signup gets ROLE_USER, from the preloaded registry (no query); other roles are granted by an admin
         Set<Role> roles = new HashSet<>();
-
-        if (strRoles == null) {
-            // Default role: ROLE_USER
-            Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                    .orElseThrow(() -> new RuntimeException("Error: Role not found (ROLE_USER)."));
-            roles.add(userRole);
-        } else {
-            strRoles.forEach(role -> {
-                switch (role) {
-                    case "admin":
-                        Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-                                .orElseThrow(() -> new RuntimeException("Error: Role not found (ROLE_ADMIN)."));
-                        roles.add(adminRole);
-                        break;
-                    case "mod":
-                        Role modRole = roleRepository.findByName(ERole.ROLE_MODERATOR)
-                                .orElseThrow(() -> new RuntimeException("Error: Role not found (ROLE_MODERATOR)."));
-                        roles.add(modRole);
-                        break;
-                    default:
-                        Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                                .orElseThrow(() -> new RuntimeException("Error: Role not found (ROLE_USER)."));
-                        roles.add(userRole);
-                }
-            });
-        }
+        roles.add(roleRegistry.get(ERole.ROLE_USER));
 
         user.setRoles(roles);
-        userRepository.save(user);
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new UserAlreadyExistsException(isUsernameConflict(e) ? USERNAME_TAKEN : EMAIL_TAKEN);
+        }
+        userIdentityIndex.record(username, email);
 
         return "User registered successfully!";
     }
+
+    // The constraint names are defined on User
+    private static boolean isUsernameConflict(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase();
+        return message.contains("uk_users_username");
+    }
 }
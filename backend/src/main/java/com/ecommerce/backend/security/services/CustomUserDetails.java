@@ -1,8 +1,8 @@
 package com.ecommerce.backend.security.services;
 
+import com.ecommerce.backend.model.User;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
@@ -26,13 +26,22 @@ public class CustomUserDetails implements UserDetails {
 
     private final Collection<? extends GrantedAuthority> authorities;
 
+    // The user's security version when these details were loaded (embedded in claims-based tokens)
+    private final long securityVersion;
+
     public CustomUserDetails(Long id, String username, String email, String password,
                              Collection<? extends GrantedAuthority> authorities) {
+        this(id, username, email, password, authorities, 0L);
+    }
+
+    public CustomUserDetails(Long id, String username, String email, String password,
+                             Collection<? extends GrantedAuthority> authorities, long securityVersion) {
         this.id = id;
         this.username = username;
         this.email = email;
         this.password = password;
         this.authorities = authorities;
+        this.securityVersion = securityVersion;
     }
 
     /**
@@ -43,8 +52,8 @@ public class CustomUserDetails implements UserDetails {
      */
     public static CustomUserDetails build(User user) {
         List<GrantedAuthority> authorities = user.getRoles().stream()
-                // Convert each Role's name (e.g., ROLE_USER) into a SimpleGrantedAuthority
-                .map(role -> new SimpleGrantedAuthority(role.getName().name()))
+                // Convert each Role's name (e.g., ROLE_USER) into its shared GrantedAuthority
+                .map(role -> RoleRegistry.authorityOf(role.getName()))
                 .collect(Collectors.toList());
 
         return new CustomUserDetails(
@@ -52,7 +61,8 @@ public class CustomUserDetails implements UserDetails {
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
-                authorities);
+                authorities,
+                user.getSecurityVersion());
     }
 
     // --- Standard UserDetails Interface Implementations ---
@@ -80,6 +90,10 @@ public class CustomUserDetails implements UserDetails {
         return email;
     }
 
+    public long getSecurityVersion() {
+        return securityVersion;
+    }
+
     // Since this is typically for a backend API, we assume accounts are always valid
     @Override
     public boolean isAccountNonExpired() {
@@ -1,21 +1,26 @@
 package com.ecommerce.backend.security.services;
 
 import com.ecommerce.backend.exception.ResourceNotFoundException;
-import com.ecommerce.backend.user.repository.UserRepository;
+import com.ecommerce.backend.model.User;
+import com.ecommerce.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Implements Spring Security's UserDetailsService interface using our custom User model.
+ * Loaded users are served from UserDetailsCache, so repeated requests skip the user/role query.
+ * Also stores the rehashed password when a login finds the stored hash below the current BCrypt cost.
  */
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsServiceImpl implements UserDetailsService {
+public class CustomUserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
     /**
      * Locates the user based on the username.
@@ -24,11 +29,32 @@ public class CustomUserDetailsServiceImpl implements UserDetailsService {
      * @throws ResourceNotFoundException if the user is not found.
      */
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws ResourceNotFoundException {
-        User user = userRepository.findByUsername(username)
+        return userDetailsCache.get(username, this::loadFromDatabase);
+    }
+
+    // User and roles in one query, so no transaction is needed to build the details
+    private CustomUserDetails loadFromDatabase(String username) {
+        User user = userRepository.findWithRolesByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User Not Found with username: " + username));
 
         return CustomUserDetails.build(user);
     }
+
+    /**
+     * Replaces the stored hash after a successful login (cost upgrade); the password itself is unchanged.
+     * @param user The authenticated user.
+     * @param newPassword The password rehashed at the current cost.
+     * @return The user details carrying the new hash.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        userDetailsCache.invalidateAfterCommit(user.getUsername());
+
+        CustomUserDetails details = (CustomUserDetails) user;
+        return new CustomUserDetails(details.getId(), details.getUsername(), details.getEmail(), newPassword,
+                details.getAuthorities(), details.getSecurityVersion());
+    }
 }
@@ -0,0 +1,78 @@
+package com.ecommerce.backend.security.services;
+
+import com.ecommerce.backend.model.ERole;
+import com.ecommerce.backend.model.Role;
+import com.ecommerce.backend.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The role rows, loaded once after startup seeding (DataInitializer/DataLoader run before ApplicationReadyEvent),
+ * so signup resolves roles without a query. ERole is fixed, so the set never changes while the app runs.
+ *
+ * Also holds one shared GrantedAuthority per role for building security principals.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoleRegistry {
+
+    private static final Map<ERole, GrantedAuthority> AUTHORITIES = authorities();
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<ERole, Role> roles;
+
+    /**
+     * Loads every role in one query. Runs once the startup runners have seeded the table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<ERole, Role> loaded = new EnumMap<>(ERole.class);
+        for (Role role : roleRepository.findAll()) {
+            loaded.put(role.getName(), role);
+        }
+        roles = Collections.unmodifiableMap(loaded);
+    }
+
+    /**
+     * @param name The role to resolve.
+     * @return The persisted role, for assigning to a user.
+     * @throws IllegalStateException if the role was not seeded.
+     */
+    public Role get(ERole name) {
+        Map<ERole, Role> current = roles;
+        if (current == null) {
+            // Only before ApplicationReadyEvent, e.g. from a startup runner
+            load();
+            current = roles;
+        }
+        Role role = current.get(name);
+        if (role == null) {
+            throw new IllegalStateException("Error: Role not found (" + name + ").");
+        }
+        return role;
+    }
+
+    /**
+     * @return The shared authority for the role (e.g., ROLE_USER).
+     */
+    public static GrantedAuthority authorityOf(ERole name) {
+        return AUTHORITIES.get(name);
+    }
+
+    private static Map<ERole, GrantedAuthority> authorities() {
+        Map<ERole, GrantedAuthority> authorities = new EnumMap<>(ERole.class);
+        for (ERole name : ERole.values()) {
+            authorities.put(name, new SimpleGrantedAuthority(name.name()));
+        }
+        return Collections.unmodifiableMap(authorities);
+    }
+}
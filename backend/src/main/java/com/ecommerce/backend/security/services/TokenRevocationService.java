@@ -0,0 +1,199 @@
+package com.ecommerce.backend.security.services;
+
+import com.ecommerce.backend.model.RevokedToken;
+import com.ecommerce.backend.repository.RevokedTokenRepository;
+import com.ecommerce.backend.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Revokes JWTs, one at a time (by "jti") or all of a user's tokens issued up to a point in time.
+ *
+ * Revocations are persisted in revoked_tokens and mirrored in memory, so the per-request check in
+ * AuthTokenFilter never queries the database: a Bloom filter answers "not revoked" for almost every token, and
+ * only its "maybe" answers are settled by the exact set. Other instances' revocations are picked up by an
+ * incremental refresh every refreshIntervalMs. Rows and memory entries are dropped once the tokens they cover
+ * have expired.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // Re-read rows up to this much older than the previous refresh, to catch transactions that committed late
+    private static final long REFRESH_OVERLAP_MS = 60_000;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long jwtExpirationMs;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+    private final LongSupplier clock;
+
+    // jti -> expiry of that token (epoch millis)
+    private final ConcurrentHashMap<String, Long> revokedJtis = new ConcurrentHashMap<>();
+    // user ID -> tokens issued at or before this time are revoked (epoch millis)
+    private final ConcurrentHashMap<Long, Long> userCutoffs = new ConcurrentHashMap<>();
+    private volatile BloomFilter jtiFilter;
+    private volatile long lastRefreshMillis = -1;
+
+    @Autowired
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${ecommerce.app.jwtExpirationMs}") long jwtExpirationMs,
+                                  @Value("${ecommerce.app.tokenRevocation.expectedRevocations:100000}") int expectedRevocations,
+                                  @Value("${ecommerce.app.tokenRevocation.falsePositiveRate:0.01}") double falsePositiveRate) {
+        this(revokedTokenRepository, jwtExpirationMs, expectedRevocations, falsePositiveRate, System::currentTimeMillis);
+    }
+
+    TokenRevocationService(RevokedTokenRepository revokedTokenRepository, long jwtExpirationMs,
+                           int expectedRevocations, double falsePositiveRate, LongSupplier clock) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.clock = clock;
+        this.jtiFilter = new BloomFilter(expectedRevocations, falsePositiveRate);
+    }
+
+    /**
+     * Checks a verified token against the revocations. Never touches the database.
+     *
+     * @param jti The token's "jti" claim (may be null for tokens issued before revocation existed).
+     * @param issuedAt The token's "iat" claim.
+     * @param userId The user the token belongs to.
+     * @return true if the token has been revoked.
+     */
+    public boolean isRevoked(String jti, Date issuedAt, Long userId) {
+        if (jti != null && jtiFilter.mightContain(jti) && revokedJtis.containsKey(jti)) {
+            return true;
+        }
+        if (userId == null || userCutoffs.isEmpty()) {
+            return false;
+        }
+        Long cutoff = userCutoffs.get(userId);
+        // "iat" has second precision, so a token issued in the same second as the cutoff counts as revoked
+        return cutoff != null && (issuedAt == null || issuedAt.getTime() <= cutoff);
+    }
+
+    /**
+     * Revokes a single token (logout).
+     *
+     * @param jti The token's "jti" claim.
+     * @param userId The user the token belongs to.
+     * @param expiresAt The token's expiry; the revocation is kept until then.
+     */
+    @Transactional
+    public void revokeToken(String jti, Long userId, Date expiresAt) {
+        long now = clock.getAsLong();
+        revokedTokenRepository.save(new RevokedToken(jti, userId, toDateTime(now), toDateTime(expiresAt.getTime())));
+        addJti(jti, expiresAt.getTime());
+    }
+
+    /**
+     * Revokes every token issued to the user so far (logout everywhere, compromised account).
+     *
+     * @param userId The user whose tokens are revoked.
+     */
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        long now = saveUserCutoff(userId);
+        userCutoffs.merge(userId, now, Math::max);
+    }
+
+    /**
+     * Revokes every token issued to the user so far, as part of the caller's transaction (password or account change):
+     * the revocation row commits with the change, and this instance applies it once the change commits, so a
+     * rolled-back change revokes nothing. Without an active transaction, revokes immediately.
+     *
+     * @param userId The user whose tokens are revoked.
+     */
+    public void revokeAllForUserAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            revokeAllForUser(userId);
+            return;
+        }
+        long now = saveUserCutoff(userId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userCutoffs.merge(userId, now, Math::max);
+            }
+        });
+    }
+
+    private long saveUserCutoff(Long userId) {
+        long now = clock.getAsLong();
+        revokedTokenRepository.save(new RevokedToken(null, userId, toDateTime(now), toDateTime(now + jwtExpirationMs)));
+        return now;
+    }
+
+    /**
+     * Loads the revocations recorded since the previous refresh, including other instances' ones.
+     * The first call (at startup) loads every revocation that still covers unexpired tokens.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${ecommerce.app.tokenRevocation.refreshIntervalMs:5000}")
+    public void refresh() {
+        long now = clock.getAsLong();
+        LocalDateTime since = lastRefreshMillis < 0 ? LocalDateTime.of(1970, 1, 1, 0, 0)
+                : toDateTime(lastRefreshMillis - REFRESH_OVERLAP_MS);
+
+        List<RevokedToken> revocations = revokedTokenRepository.findActiveRevokedSince(since, toDateTime(now));
+        for (RevokedToken revocation : revocations) {
+            if (revocation.getJti() != null) {
+                addJti(revocation.getJti(), toMillis(revocation.getExpiresAt()));
+            } else {
+                userCutoffs.merge(revocation.getUserId(), toMillis(revocation.getRevokedAt()), Math::max);
+            }
+        }
+        lastRefreshMillis = now;
+    }
+
+    /**
+     * Deletes revocations whose tokens have all expired, and rebuilds the in-memory filter without them.
+     */
+    @Scheduled(cron = "${ecommerce.app.tokenRevocation.purgeCron:0 15 * * * *}")
+    @Transactional
+    public void purgeExpired() {
+        long now = clock.getAsLong();
+        int removed = revokedTokenRepository.deleteExpired(toDateTime(now));
+
+        userCutoffs.values().removeIf(cutoff -> cutoff + jwtExpirationMs <= now);
+        synchronized (this) {
+            revokedJtis.values().removeIf(expiresAt -> expiresAt <= now);
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revokedJtis.size() * 2), falsePositiveRate);
+            revokedJtis.keySet().forEach(rebuilt::put);
+            jtiFilter = rebuilt;
+        }
+        logger.info("Token revocation cleanup removed {} expired rows; {} revoked tokens remain.", removed, revokedJtis.size());
+    }
+
+    // Serialized with the rebuild in purgeExpired, so an added jti cannot miss the filter that replaces the old one
+    private synchronized void addJti(String jti, long expiresAtMillis) {
+        revokedJtis.put(jti, expiresAtMillis);
+        jtiFilter.put(jti);
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
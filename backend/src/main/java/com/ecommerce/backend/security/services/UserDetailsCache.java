@@ -0,0 +1,105 @@
+package com.ecommerce.backend.security.services;
+
+import com.ecommerce.backend.util.BoundedExpiringMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, short-TTL cache of loaded users keyed by username, so token-authenticated requests do not run the
+ * user/role query on every call.
+ *
+ * Changes made through UserServiceImpl invalidate the affected entries on commit; changes made on other
+ * instances are picked up once the entry expires. Unknown usernames are never cached. The cache is bounded as
+ * described on {@link BoundedExpiringMap}. Hit ratio is published as {@code security.userdetails.cache.hit.ratio}.
+ */
+@Component
+public class UserDetailsCache {
+
+    private record Entry(CustomUserDetails details, long expiresAtMillis) {}
+
+    private static final long SWEEP_INTERVAL_MS = 1000;
+
+    private final long ttlMs;
+    private final LongSupplier clock;
+    private final BoundedExpiringMap<String, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public UserDetailsCache(@Value("${ecommerce.app.userDetailsCache.ttlMs:60000}") long ttlMs,
+                            @Value("${ecommerce.app.userDetailsCache.maxEntries:10000}") int maxEntries,
+                            MeterRegistry meterRegistry) {
+        this(ttlMs, maxEntries, meterRegistry, System::currentTimeMillis);
+    }
+
+    UserDetailsCache(long ttlMs, int maxEntries, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+        this.entries = new BoundedExpiringMap<>(maxEntries, Entry::expiresAtMillis, clock, SWEEP_INTERVAL_MS);
+        this.hits = meterRegistry.counter("security.userdetails.cache", "result", "hit");
+        this.misses = meterRegistry.counter("security.userdetails.cache", "result", "miss");
+        meterRegistry.gauge("security.userdetails.cache.size", entries, BoundedExpiringMap::size);
+        meterRegistry.gauge("security.userdetails.cache.hit.ratio", this, UserDetailsCache::hitRatio);
+    }
+
+    /**
+     * Returns the cached user, or loads and caches it.
+     *
+     * @param username The username to look up.
+     * @param loader Loads the user on a miss; may throw if the user does not exist.
+     * @return The user details.
+     */
+    public CustomUserDetails get(String username, Function<String, CustomUserDetails> loader) {
+        long now = clock.getAsLong();
+        Entry entry = entries.get(username);
+        if (entry != null) {
+            hits.increment();
+            return entry.details();
+        }
+
+        misses.increment();
+        CustomUserDetails details = loader.apply(username);
+        entries.put(username, new Entry(details, now + ttlMs));
+        return details;
+    }
+
+    /**
+     * Drops the cached user, so the next request reloads it.
+     */
+    public void invalidate(String username) {
+        entries.remove(username);
+    }
+
+    /**
+     * Invalidates once the current transaction commits, so a concurrent request cannot re-cache the old state
+     * in between. Without an active transaction, invalidates immediately.
+     */
+    public void invalidateAfterCommit(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(username);
+            }
+        });
+    }
+
+    /**
+     * @return The fraction of lookups served from the cache since startup (0 before the first lookup).
+     */
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+}
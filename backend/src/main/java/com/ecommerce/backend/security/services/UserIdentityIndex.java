@@ -0,0 +1,115 @@
+package com.ecommerce.backend.security.services;
+
+import com.ecommerce.backend.repository.UserRepository;
+import com.ecommerce.backend.repository.UserRepository.UserIdentity;
+import com.ecommerce.backend.security.payload.response.AvailabilityResponse;
+import com.ecommerce.backend.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A Bloom filter of every taken username and email, so signup and the live availability check can answer
+ * "definitely available" without a query. Only a "maybe taken" answer costs the (single) lookup query.
+ *
+ * The unique constraints on users remain the source of truth: names taken on another instance, which this
+ * filter has not seen, are still rejected when the insert fails. Names freed by deleting a user stay in the
+ * filter until restart, which only costs a query.
+ */
+@Service
+public class UserIdentityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserIdentityIndex.class);
+
+    private static final int LOAD_PAGE_SIZE = 1_000;
+
+    private final UserRepository userRepository;
+    private final BloomFilter taken;
+    // Until the initial load completes every name counts as "maybe taken"
+    private volatile boolean loaded;
+
+    public UserIdentityIndex(UserRepository userRepository,
+                             @Value("${ecommerce.app.signup.expectedUsers:1000000}") int expectedUsers,
+                             @Value("${ecommerce.app.signup.falsePositiveRate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        // Two entries (username and email) per user
+        this.taken = new BloomFilter(expectedUsers * 2, falsePositiveRate);
+    }
+
+    /**
+     * Adds every existing username and email, reading the users table in keyset-paged chunks.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long afterId = 0;
+        int count = 0;
+        List<UserIdentity> page;
+        do {
+            page = userRepository.findIdentitiesAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (UserIdentity identity : page) {
+                record(identity.getUsername(), identity.getEmail());
+                afterId = identity.getId();
+            }
+            count += page.size();
+        } while (page.size() == LOAD_PAGE_SIZE);
+        loaded = true;
+        logger.info("Loaded {} users into the signup availability filter.", count);
+    }
+
+    /**
+     * Marks a username and email as taken. Call after a user is created or renamed.
+     */
+    public void record(String username, String email) {
+        if (username != null) {
+            taken.put(usernameKey(username));
+        }
+        if (email != null) {
+            taken.put(emailKey(email));
+        }
+    }
+
+    /**
+     * @return false only if neither the username nor the email is taken (no false negatives once loaded).
+     */
+    public boolean mightBeTaken(String username, String email) {
+        return !loaded || taken.mightContain(usernameKey(username)) || taken.mightContain(emailKey(email));
+    }
+
+    /**
+     * Looks up which of the two are taken, with the filter first and at most one query.
+     * Either argument may be null to check only the other.
+     */
+    public AvailabilityResponse checkAvailability(String username, String email) {
+        boolean usernameMaybeTaken = username != null && (!loaded || taken.mightContain(usernameKey(username)));
+        boolean emailMaybeTaken = email != null && (!loaded || taken.mightContain(emailKey(email)));
+        if (!usernameMaybeTaken && !emailMaybeTaken) {
+            return new AvailabilityResponse(username != null ? true : null, email != null ? true : null);
+        }
+
+        boolean usernameTaken = false;
+        boolean emailTaken = false;
+        for (UserIdentity identity : userRepository.findIdentitiesByUsernameOrEmail(
+                usernameMaybeTaken ? username : null, emailMaybeTaken ? email : null)) {
+            // Compared like the filter keys, in case the database collation ignores case
+            usernameTaken |= identity.getUsername().equalsIgnoreCase(username);
+            emailTaken |= identity.getEmail().equalsIgnoreCase(email);
+        }
+        return new AvailabilityResponse(username != null ? !usernameTaken : null, email != null ? !emailTaken : null);
+    }
+
+    // Lower-cased so the filter never misses a name the database might compare case-insensitively
+    private static String usernameKey(String username) {
+        return "u:" + username.toLowerCase(Locale.ROOT);
+    }
+
+    private static String emailKey(String email) {
+        return "e:" + email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.backend.security.services;
+
+import com.ecommerce.backend.repository.UserRepository;
+import com.ecommerce.backend.util.BoundedExpiringMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Short-TTL cache of each user's security version, used to check claims-based tokens without a query per request.
+ *
+ * A token is accepted only while the version it carries is the user's current one. Changes made on this
+ * instance take effect immediately through {@link #invalidate(Long)}; changes made on other instances are
+ * picked up once the cached entry expires, so a revoked token stays usable for at most {@code ttlMs}.
+ * The cache is bounded as described on {@link BoundedExpiringMap}.
+ */
+@Service
+public class UserSecurityVersionCache {
+
+    // Cached for deleted users too, so tokens of a deleted account do not cost a query each
+    private static final long DELETED = -1L;
+
+    private static final long SWEEP_INTERVAL_MS = 1000;
+
+    private record Entry(long version, long expiresAtMillis) {}
+
+    private final UserRepository userRepository;
+    private final long ttlMs;
+    private final LongSupplier clock;
+    private final BoundedExpiringMap<Long, Entry> entries;
+
+    @Autowired
+    public UserSecurityVersionCache(UserRepository userRepository,
+                                    @Value("${ecommerce.app.jwtClaimsAuth.versionCheckTtlMs:30000}") long ttlMs,
+                                    @Value("${ecommerce.app.jwtClaimsAuth.maxCachedUsers:100000}") int maxEntries) {
+        this(userRepository, ttlMs, maxEntries, System::currentTimeMillis);
+    }
+
+    UserSecurityVersionCache(UserRepository userRepository, long ttlMs, int maxEntries, LongSupplier clock) {
+        this.userRepository = userRepository;
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+        this.entries = new BoundedExpiringMap<>(maxEntries, Entry::expiresAtMillis, clock, SWEEP_INTERVAL_MS);
+    }
+
+    /**
+     * @param userId The user the token was issued to.
+     * @param tokenVersion The security version embedded in the token.
+     * @return true if the user still exists and the token's version is current.
+     */
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            long now = clock.getAsLong();
+            long version = userRepository.findSecurityVersionById(userId).orElse(DELETED);
+            entry = new Entry(version, now + ttlMs);
+            entries.put(userId, entry);
+        }
+        return entry.version() != DELETED && entry.version() == tokenVersion;
+    }
+
+    /**
+     * Forgets the cached version, so the next request re-reads it. Call after changing a user's security version.
+     */
+    public void invalidate(Long userId) {
+        entries.remove(userId);
+    }
+
+    /**
+     * Invalidates once the current transaction commits, so a concurrent request cannot re-cache the old version
+     * in between. Without an active transaction, invalidates immediately.
+     */
+    public void invalidateAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(userId);
+            }
+        });
+    }
+}
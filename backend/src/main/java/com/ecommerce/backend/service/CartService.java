@@ -1,8 +1,7 @@
 package com.ecommerce.backend.service;
 
 import com.ecommerce.backend.model.Cart;
-
-import java.math.BigDecimal;
+import com.ecommerce.backend.model.Money;
 
 /**
  * Defines the contract for managing shopping cart operations.
@@ -51,5 +50,5 @@ public interface CartService {
      * @param userId The ID of the user.
      * @return The calculated total amount.
      */
-    BigDecimal calculateTotal(Long userId);
+    Money calculateTotal(Long userId);
 }
@@ -0,0 +1,118 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.catalog.CatalogSnapshot;
+import com.ecommerce.backend.dto.CatalogProductView;
+import com.ecommerce.backend.model.Product;
+import com.ecommerce.backend.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Maintains the in-memory CatalogSnapshot behind /api/catalog/products. Only available products are in it:
+ * unlisted ones are left out, as if they did not exist.
+ *
+ * Admin product writes (ProductController) refresh just the changed product; a full rebuild runs at startup and
+ * every rebuildIntervalMs, to pick up other instances' writes. Updates are serialized by a lock (not
+ * {@code synchronized}, which would pin a virtual thread across the database read), and each one swaps in a new
+ * snapshot, so readers always see a complete catalog without waiting.
+ *
+ * Reads run in read-only transactions, so with the read replica enabled the periodic rebuild uses the replica,
+ * while a refresh after an admin's own write reads the primary (read-your-writes).
+ */
+@Service
+@ConditionalOnProperty(name = "ecommerce.catalog.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class CatalogSnapshotService {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectWriter writer;
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final Timer fullRebuilds;
+    private final Timer productRefreshes;
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+
+    public CatalogSnapshotService(ProductRepository productRepository, PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.writer = objectMapper.writerFor(CatalogProductView.class);
+        this.fullRebuilds = meterRegistry.timer("catalog.snapshot.update", "type", "full");
+        this.productRefreshes = meterRegistry.timer("catalog.snapshot.update", "type", "product");
+        meterRegistry.gauge("catalog.snapshot.products", this, service -> service.current().size());
+    }
+
+    /**
+     * @return The current snapshot; never null.
+     */
+    public CatalogSnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * Replaces the snapshot with one built from every available product in the database.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${ecommerce.catalog.snapshot.rebuildIntervalMs:60000}",
+            initialDelayString = "${ecommerce.catalog.snapshot.rebuildIntervalMs:60000}")
+    public void rebuild() {
+        updateLock.lock();
+        try {
+            fullRebuilds.record(() -> {
+                List<Product> products = readOnlyTx.execute(status -> productRepository.findAll());
+                Map<Long, byte[]> json = new HashMap<>();
+                for (Product product : products) {
+                    if (product.isAvailable()) {
+                        json.put(product.getId(), serialize(product));
+                    }
+                }
+                snapshot = CatalogSnapshot.of(json);
+            });
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Re-reads one product after it was created, updated or deleted, and swaps in the updated snapshot
+     * (without the product, if it was deleted or unlisted).
+     * @param productId The product's ID.
+     */
+    public void refreshProduct(Long productId) {
+        updateLock.lock();
+        try {
+            productRefreshes.record(() -> {
+                Optional<Product> product = readOnlyTx.execute(status -> productRepository.findById(productId))
+                        .filter(Product::isAvailable);
+                snapshot = product.isPresent()
+                        ? snapshot.with(productId, serialize(product.get()))
+                        : snapshot.without(productId);
+            });
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private byte[] serialize(Product product) {
+        try {
+            return writer.writeValueAsBytes(CatalogProductView.from(product));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize product " + product.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.model.OutboxEvent;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default OutboxEventPublisher: delivers each event to every interested OutboxEventSubscriber bean.
+ * A broker-backed publisher can replace it by being declared as a @Primary OutboxEventPublisher bean.
+ */
+@Component
+public class InProcessOutboxEventPublisher implements OutboxEventPublisher {
+
+    private final List<OutboxEventSubscriber> subscribers;
+
+    public InProcessOutboxEventPublisher(ObjectProvider<OutboxEventSubscriber> subscribers) {
+        // Resolved once; an application with no subscribers simply marks events as published
+        this.subscribers = subscribers.orderedStream().toList();
+    }
+
+    @Override
+    public void publish(OutboxEvent event) {
+        for (OutboxEventSubscriber subscriber : subscribers) {
+            if (subscriber.supports(event.getEventType())) {
+                subscriber.handle(event);
+            }
+        }
+    }
+}
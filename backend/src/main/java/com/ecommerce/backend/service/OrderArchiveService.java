@@ -0,0 +1,174 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.model.ArchivedOrder;
+import com.ecommerce.backend.model.ArchivedOrderItem;
+import com.ecommerce.backend.model.Order;
+import com.ecommerce.backend.model.OrderItem;
+import com.ecommerce.backend.model.OrderStatus;
+import com.ecommerce.backend.model.Product;
+import com.ecommerce.backend.model.User;
+import com.ecommerce.backend.repository.ArchivedOrderItemRepository;
+import com.ecommerce.backend.repository.ArchivedOrderRepository;
+import com.ecommerce.backend.repository.OrderItemRepository;
+import com.ecommerce.backend.repository.OrderRepository;
+import com.ecommerce.backend.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Moves finished orders out of the hot 'orders'/'order_items' tables into the archive tables,
+ * and reads them back as Order instances for OrderService when the hot table misses.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    // Only terminal statuses are archived, so an order cannot change while it is being moved
+    private static final Set<OrderStatus> ARCHIVABLE_STATUSES = EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final TransactionRepository transactionRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderItemRepository archivedOrderItemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ecommerce.orders.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ecommerce.orders.archive.retentionDays:90}")
+    private int retentionDays;
+
+    @Value("${ecommerce.orders.archive.chunkSize:500}")
+    private int chunkSize;
+
+    /**
+     * Scheduled entry point: archives every eligible order older than the retention period.
+     */
+    @Scheduled(cron = "${ecommerce.orders.archive.cron:0 30 3 * * *}")
+    public void archiveFinishedOrders() {
+        if (!enabled) {
+            return;
+        }
+        int archived = archiveOrdersBefore(LocalDateTime.now().minusDays(retentionDays));
+        logger.info("Order archiver moved {} orders to cold storage.", archived);
+    }
+
+    /**
+     * Archives all DELIVERED/CANCELLED orders placed before the cutoff, one keyset chunk per transaction.
+     * Short transactions keep row locks brief and let a failed run resume from where it stopped.
+     * @param cutoff Orders placed before this time are archived.
+     * @return The number of orders archived.
+     */
+    public int archiveOrdersBefore(LocalDateTime cutoff) {
+        int total = 0;
+        long afterId = 0L;
+
+        while (true) {
+            List<Long> ids = orderRepository.findArchivableIds(
+                    ARCHIVABLE_STATUSES, cutoff, afterId, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                return total;
+            }
+
+            Integer moved = transactionTemplate.execute(status -> archiveChunk(ids));
+            total += moved == null ? 0 : moved;
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    // Copy first, then delete children before parents so foreign keys are never violated
+    private int archiveChunk(List<Long> ids) {
+        int copied = archivedOrderRepository.copyFromOrders(ids);
+        archivedOrderItemRepository.copyFromOrderItems(ids);
+
+        orderItemRepository.deleteByOrderIds(ids);
+        transactionRepository.deleteByOrderIds(ids);
+        orderRepository.deleteAllByIdInBatch(ids);
+        return copied;
+    }
+
+    // --- Read fall-through ---
+
+    /**
+     * Looks up an archived order by its original ID.
+     * @param orderId The order ID.
+     * @return A detached, read-only Order rebuilt from the archive, or empty if it was never archived.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Order> findArchivedOrder(Long orderId) {
+        return archivedOrderRepository.findById(orderId)
+                .map(archived -> toOrder(archived, archivedOrderItemRepository.findByOrderId(orderId)));
+    }
+
+    /**
+     * Retrieves all archived orders of a user, newest first.
+     * Lines for all orders are fetched with one query rather than one per order.
+     * @param userId The ID of the user.
+     * @return Detached, read-only Orders rebuilt from the archive.
+     */
+    @Transactional(readOnly = true)
+    public List<Order> findArchivedOrdersByUser(Long userId) {
+        List<ArchivedOrder> archivedOrders = archivedOrderRepository.findByUserIdOrderByOrderDateDesc(userId);
+        if (archivedOrders.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, List<ArchivedOrderItem>> itemsByOrder = archivedOrderItemRepository
+                .findByOrderIdIn(archivedOrders.stream().map(ArchivedOrder::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(ArchivedOrderItem::getOrderId));
+
+        return archivedOrders.stream()
+                .map(archived -> toOrder(archived, itemsByOrder.getOrDefault(archived.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private Order toOrder(ArchivedOrder archived, List<ArchivedOrderItem> archivedItems) {
+        User user = new User();
+        user.setId(archived.getUserId());
+
+        Order order = new Order();
+        order.setId(archived.getId());
+        order.setUser(user);
+        order.setOrderDate(archived.getOrderDate());
+        order.setStatus(archived.getStatus());
+        order.setTotalAmount(archived.getTotalAmount());
+        order.setShippingAddress(archived.getShippingAddress());
+
+        // The back-reference to the order is left unset: these lines are a read-only view
+        Set<OrderItem> items = new HashSet<>();
+        for (ArchivedOrderItem archivedItem : archivedItems) {
+            Product product = new Product();
+            product.setId(archivedItem.getProductId());
+            product.setName(archivedItem.getProductName());
+
+            OrderItem item = new OrderItem();
+            item.setId(archivedItem.getId());
+            item.setProduct(product);
+            item.setQuantity(archivedItem.getQuantity());
+            item.setPriceAtOrder(archivedItem.getPriceAtOrder());
+            items.add(item);
+        }
+        order.setItems(items);
+        return order;
+    }
+}
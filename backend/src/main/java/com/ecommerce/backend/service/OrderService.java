@@ -1,8 +1,10 @@
 package com.ecommerce.backend.service;
 
+import com.ecommerce.backend.dto.CheckoutRequest;
+import com.ecommerce.backend.dto.OrderStatusTransitionResult;
+import com.ecommerce.backend.model.Order;
 import com.ecommerce.backend.model.OrderStatus;
-import com.ecommerce.backend.payload.CheckoutRequest;
-import com.ecommerce.backend.payload.OrderDto;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -14,20 +16,32 @@ public interface OrderService {
     /**
      * Places a new order based on the current cart content.
      */
-    OrderDto placeOrder(Long userId, CheckoutRequest checkoutRequest);
+    Order createOrder(Long userId, CheckoutRequest checkoutRequest);
 
     /**
-     * Retrieves an order by its ID.
+     * Retrieves an order by its ID (including archived orders).
      */
-    OrderDto getOrderById(Long orderId);
+    Order findOrderById(Long orderId);
 
     /**
-     * Retrieves all orders for a specific user.
+     * Retrieves all orders for a specific user (including archived orders).
      */
-    List<OrderDto> getUserOrders(Long userId);
+    List<Order> findAllOrdersByUser(Long userId);
+
+    /**
+     * Retrieves all current orders (admin view).
+     */
+    List<Order> findAllOrders();
 
     /**
      * Updates the status of an order.
      */
-    OrderDto updateOrderStatus(Long orderId, OrderStatus newStatus);
+    Order updateOrderStatus(Long orderId, OrderStatus newStatus);
+
+    /**
+     * Moves many orders to the same status, validating each transition and
+     * applying the changes with set-based updates guarded by the current status.
+     * @return One outcome per requested order ID, in request order.
+     */
+    List<OrderStatusTransitionResult> bulkUpdateOrderStatus(Collection<Long> orderIds, OrderStatus newStatus);
 }
@@ -0,0 +1,18 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.model.OutboxEvent;
+
+/**
+ * Destination the OutboxRelay hands events to. The default implementation dispatches to in-process
+ * subscribers; an implementation backed by an external message broker can replace it by declaring
+ * itself as the @Primary OutboxEventPublisher bean.
+ */
+public interface OutboxEventPublisher {
+
+    /**
+     * Delivers one event. Returning normally means the event is considered published.
+     * @param event The event to deliver.
+     * @throws RuntimeException if delivery failed and the event should be retried.
+     */
+    void publish(OutboxEvent event);
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.model.OutboxEvent;
+
+/**
+ * In-process consumer of outbox events. Any Spring bean implementing this interface is picked up
+ * by the InProcessOutboxEventPublisher.
+ * Delivery is at-least-once, so implementations must be idempotent (use the event ID to deduplicate).
+ */
+public interface OutboxEventSubscriber {
+
+    /**
+     * @param eventType The event name (e.g., "OrderCreated").
+     * @return true if this subscriber wants events of the given type.
+     */
+    boolean supports(String eventType);
+
+    /**
+     * Handles one event. Throwing causes the event to be redelivered on a later relay run.
+     * @param event The event, including its JSON payload.
+     */
+    void handle(OutboxEvent event);
+}
@@ -0,0 +1,173 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.model.OutboxEvent;
+import com.ecommerce.backend.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox table in batches and hands each event to the OutboxEventPublisher.
+ *
+ * Delivery is at-least-once: an event is marked published only after the publisher returns,
+ * so a crash between delivery and marking causes a redelivery, never a loss.
+ *
+ * Each run claims the events it reads (a conditional UPDATE with a lease of leaseMs), so instances polling the
+ * same table never publish the same event; a run that dies leaves its claims to expire. Only the oldest pending
+ * event of each aggregate is deliverable, so the events of one order still arrive in sequence. A failed event
+ * is retried after retryDelayMs times its attempt count, holding back only its own aggregate, and is
+ * dead-lettered (left in the table, no longer delivered) after maxAttempts failures.
+ *
+ * Metrics:
+ *   outbox.lag             age of the oldest deliverable event (seconds), as seen by the last run
+ *   outbox.delivery.delay  time from event creation to successful delivery
+ *   outbox.events.published / outbox.events.failed / outbox.events.deadLettered
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxEventPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Timer deliveryDelay;
+    private final Counter published;
+    private final Counter failed;
+    private final Counter deadLettered;
+
+    @Value("${ecommerce.outbox.batchSize:100}")
+    private int batchSize = 100;
+
+    @Value("${ecommerce.outbox.retentionHours:24}")
+    private int retentionHours = 24;
+
+    @Value("${ecommerce.outbox.maxAttempts:10}")
+    private int maxAttempts = 10;
+
+    @Value("${ecommerce.outbox.retryDelayMs:5000}")
+    private long retryDelayMs = 5000;
+
+    @Value("${ecommerce.outbox.leaseMs:60000}")
+    private long leaseMs = 60000;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxEventPublisher publisher,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.publisher = publisher;
+        this.transactionTemplate = transactionTemplate;
+
+        meterRegistry.gauge("outbox.lag", lagSeconds);
+        this.deliveryDelay = meterRegistry.timer("outbox.delivery.delay");
+        this.published = meterRegistry.counter("outbox.events.published");
+        this.failed = meterRegistry.counter("outbox.events.failed");
+        this.deadLettered = meterRegistry.counter("outbox.events.deadLettered");
+    }
+
+    /**
+     * Delivers deliverable events until a batch delivers nothing more.
+     */
+    @Scheduled(fixedDelayString = "${ecommerce.outbox.pollIntervalMs:500}")
+    public void relayPendingEvents() {
+        while (true) {
+            List<OutboxEvent> batch = outboxEventRepository.findPending(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            updateLag(batch);
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            List<OutboxEvent> claimed = claim(batch);
+            if (deliver(claimed) == 0) {
+                return;
+            }
+        }
+    }
+
+    // Claims the batch for this run; events another run claimed first are left to it
+    private List<OutboxEvent> claim(List<OutboxEvent> batch) {
+        String runId = UUID.randomUUID().toString();
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(status -> {
+            int claimed = outboxEventRepository.claim(ids, runId, now.plus(Duration.ofMillis(leaseMs)), now);
+            return claimed == ids.size() ? batch : outboxEventRepository.findClaimed(ids, runId);
+        });
+    }
+
+    // Delivers every claimed event, recording failures individually; returns the number delivered
+    private int deliver(List<OutboxEvent> claimed) {
+        List<Long> deliveredIds = new ArrayList<>(claimed.size());
+        List<OutboxEvent> failedEvents = new ArrayList<>();
+
+        for (OutboxEvent event : claimed) {
+            try {
+                publisher.publish(event);
+                deliveredIds.add(event.getId());
+                deliveryDelay.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+            } catch (RuntimeException e) {
+                logger.warn("Outbox delivery failed for event {} ({}), attempt {}: {}",
+                        event.getId(), event.getEventType(), event.getAttempts() + 1, e.getMessage());
+                failedEvents.add(event);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!deliveredIds.isEmpty()) {
+                outboxEventRepository.markPublished(deliveredIds, now);
+            }
+            for (OutboxEvent event : failedEvents) {
+                recordFailure(event, now);
+            }
+        });
+
+        published.increment(deliveredIds.size());
+        failed.increment(failedEvents.size());
+        return deliveredIds.size();
+    }
+
+    private void recordFailure(OutboxEvent event, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            logger.error("Outbox event {} ({} for {} {}) failed {} times; dead-lettering it.",
+                    event.getId(), event.getEventType(), event.getAggregateType(), event.getAggregateId(), attempts);
+            deadLettered.increment();
+            outboxEventRepository.recordFailure(event.getId(), null, now);
+        } else {
+            outboxEventRepository.recordFailure(event.getId(), now.plus(Duration.ofMillis(retryDelayMs * attempts)), null);
+        }
+    }
+
+    private void updateLag(List<OutboxEvent> batch) {
+        lagSeconds.set(batch.isEmpty() ? 0
+                : Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toSeconds());
+    }
+
+    /**
+     * Removes delivered events once they are past the retention period.
+     */
+    @Scheduled(cron = "${ecommerce.outbox.cleanupCron:0 0 * * * *}")
+    public void purgePublishedEvents() {
+        Integer removed = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours)));
+        logger.info("Outbox cleanup removed {} delivered events.", removed);
+    }
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.model.OutboxEvent;
+import com.ecommerce.backend.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records domain events in the outbox table as part of the caller's transaction.
+ * The event is committed if and only if the business change is, and is delivered later by the OutboxRelay,
+ * so follow-up work (emails, analytics, fulfilment) adds nothing to checkout latency.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    public static final String ORDER_AGGREGATE = "Order";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Adds an event to the outbox. Must be called inside an existing transaction.
+     * @param aggregateType The kind of entity the event is about (e.g., "Order").
+     * @param aggregateId The ID of that entity.
+     * @param eventType The event name (e.g., "OrderCreated").
+     * @param payload The event body; serialized to JSON.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        try {
+            String json = objectMapper.writeValueAsString(payload);
+            outboxEventRepository.save(new OutboxEvent(aggregateType, aggregateId, eventType, json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + eventType + " event payload", e);
+        }
+    }
+}
@@ -2,75 +2,114 @@
 
 package com.ecommerce.backend.service;
 
+import com.ecommerce.backend.model.Money;
 import com.ecommerce.backend.model.Order;
 import com.ecommerce.backend.model.OrderStatus;
 import com.ecommerce.backend.repository.OrderRepository;
 import com.ecommerce.backend.dto.PaymentOrderDto;
 import com.ecommerce.backend.dto.PaymentVerificationDto;
+import com.ecommerce.backend.exception.PaymentVerificationException;
 import com.ecommerce.backend.model.Transaction;
+import com.ecommerce.backend.payment.HmacSha256Verifier;
+import com.ecommerce.backend.payment.PaymentGateway;
+import com.ecommerce.backend.payment.PaymentWebhookEvent;
+import com.ecommerce.backend.payment.PendingPaymentRegistry;
 import com.ecommerce.backend.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
-import java.util.UUID; // Used for simulation
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class PaymentService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
+
     @Autowired
     private OrderRepository orderRepository;
     @Autowired
     private TransactionRepository transactionRepository;
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private PaymentGateway paymentGateway;
+    @Autowired
+    private PendingPaymentRegistry pendingPayments;
+    @Autowired
+    @Qualifier("checkoutSignatureVerifier")
+    private HmacSha256Verifier checkoutSignatureVerifier;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
-    // Inject payment gateway keys (e.g., Razorpay/Stripe keys)
-    @Value("${payment.razorpay.keyId}")
-    private String razorpayKeyId;
+    // Statuses a verified capture may place the order from. A failure report (bad callback signature,
+    // FAILED webhook) can precede the capture for the same order, and the captured money must win.
+    private static final List<OrderStatus> PAYABLE_STATUSES = List.of(OrderStatus.PENDING_PAYMENT, OrderStatus.PAYMENT_FAILED);
 
     // --- 1. Create Payment Order (Client Initiation) ---
 
     /**
-     * Simulates creating an Order on the Payment Gateway side.
-     * In a real scenario, this involves calling the PG SDK (e.g., Razorpay.createOrder()).
+     * Creates an Order on the Payment Gateway side.
+     * The order is validated synchronously; the gateway call itself does not hold the calling thread.
      * @param dto Contains order ID and amount.
-     * @return The payment gateway's order ID (needed by the frontend).
+     * @return A future completing with the payment gateway's order ID (needed by the frontend),
+     *         or failing with PaymentGatewayUnavailableException if the gateway is slow, failing or saturated.
      */
-    public String createPaymentOrder(PaymentOrderDto dto) {
+    public CompletableFuture<String> createPaymentOrder(PaymentOrderDto dto) {
         // 1. Fetch Order to verify amount
         Order order = orderRepository.findById(dto.getOrderId())
                 .orElseThrow(() -> new RuntimeException("Order not found."));
 
         // Ensure the order status is PENDING_PAYMENT and amount matches
-        if (order.getStatus() != OrderStatus.PENDING_PAYMENT || !order.getTotalAmount().equals(dto.getAmount())) {
+        // Compare as Money so 100.0 and 100.00 are treated as the same amount
+        if (order.getStatus() != OrderStatus.PENDING_PAYMENT || !order.getTotalAmount().equals(Money.of(dto.getAmount()))) {
             throw new RuntimeException("Order is not available for payment or amount mismatch.");
         }
 
-        // 2. SIMULATE CALL TO PAYMENT GATEWAY (e.g., Razorpay/Stripe SDK)
-        // This call creates a payment order on their server.
-        String paymentGatewayOrderId = "pg_order_" + UUID.randomUUID().toString().substring(0, 8);
-
-        // Return the PG Order ID, which the frontend uses to open the payment screen
-        return paymentGatewayOrderId;
+        // 2. Create the payment order on the gateway's server.
+        // The frontend uses the returned PG Order ID to open the payment screen
+        Long orderId = order.getId();
+        return paymentGateway.createOrder(orderId, order.getTotalAmount())
+                .thenApply(pgOrderId -> {
+                    // Persisted so webhooks resolve the gateway order however long the payment takes;
+                    // the registry lets verification and webhooks resolve it without a query meanwhile
+                    transactionTemplate.executeWithoutResult(
+                            status -> orderRepository.setPaymentGatewayOrderId(orderId, pgOrderId));
+                    pendingPayments.register(pgOrderId, orderId);
+                    return pgOrderId;
+                });
     }
 
     // --- 2. Verify Payment and Finalize Order ---
 
     /**
      * Verifies the payment and updates the order status.
+     * Safe to call concurrently and to retry: exactly one caller places the order and records the transaction,
+     * and any caller presenting the same payment afterwards gets the placed order back.
      * @param verificationDto Details returned by the frontend after payment.
      * @return The updated Order.
      */
-    @Transactional
+    @Transactional(noRollbackFor = PaymentVerificationException.class)
     public Order verifyPaymentAndFinalizeOrder(PaymentVerificationDto verificationDto) {
         // 1. Fetch Order
         Order order = orderRepository.findById(verificationDto.getOrderId())
                 .orElseThrow(() -> new RuntimeException("Order not found."));
 
+        // Retry of a payment that has already been applied: replay the result without re-verifying
+        if (!PAYABLE_STATUSES.contains(order.getStatus())) {
+            return replayFinalization(order, verificationDto.getPaymentGatewayPaymentId());
+        }
+
         // 2. CRYPTOGRAPHIC VERIFICATION (CRUCIAL STEP)
-        // In a real application, you use the PG SDK to verify the signature/hash
-        // to confirm the payment was successful and not tampered with.
+        // The gateway signs the order/payment ID pair with our API secret,
+        // confirming the payment was successful and not tampered with.
         boolean isPaymentValid = verifySignature(
                 verificationDto.getPaymentGatewayOrderId(),
                 verificationDto.getPaymentGatewayPaymentId(),
@@ -78,33 +117,170 @@ public class PaymentService {
         );
 
         if (!isPaymentValid) {
-            // If verification fails, update status to FAILED and throw error
-            order.setStatus(OrderStatus.PENDELIVERY_FAILED); // Assuming we define a FAILED status
-            orderRepository.save(order);
-            throw new RuntimeException("Payment verification failed! Transaction may be fraudulent.");
+            // If verification fails, move a still-pending order to PAYMENT_FAILED and throw error.
+            // Conditional, so a forged callback cannot un-place an order another caller just paid
+            orderRepository.updateStatusWhereCurrent(List.of(order.getId()), OrderStatus.PENDING_PAYMENT, OrderStatus.PAYMENT_FAILED);
+            throw new PaymentVerificationException("Payment verification failed! Transaction may be fraudulent.");
+        }
+
+        // The signature only covers the gateway IDs; make sure they belong to this order
+        if (!belongsToOrder(order.getId(),
+                verificationDto.getPaymentGatewayOrderId(), verificationDto.getPaymentGatewayPaymentId())) {
+            throw new RuntimeException("Payment does not belong to this order.");
+        }
+
+        // 3-5. Record the payment and place the order, unless a concurrent caller got there first
+        Order placedOrder = placeIfPayable(order, verificationDto.getPaymentGatewayOrderId(),
+                verificationDto.getPaymentGatewayPaymentId(), verificationDto.getPaymentSignature());
+        return placedOrder != null ? placedOrder
+                : replayFinalization(orderRepository.findById(order.getId()).orElseThrow(),
+                        verificationDto.getPaymentGatewayPaymentId());
+    }
+
+    // --- 3. Apply Gateway Webhook Notifications ---
+
+    /**
+     * Applies a verified webhook notification. Called from the webhook dispatcher lanes, one event per order at a time.
+     * A capture places the order even if it was marked PAYMENT_FAILED before. Captures for an order already paid by
+     * the same payment (e.g., the client callback won, or a gateway redelivery) are skipped; any other capture that
+     * cannot be applied is logged as an error for manual review, since the gateway has taken the money.
+     * @param event The event extracted from the webhook.
+     */
+    @Transactional
+    public void applyWebhookEvent(PaymentWebhookEvent event) {
+        Long orderId = event.getOrderId() != null ? event.getOrderId()
+                : resolveGatewayOrder(event.getPaymentGatewayOrderId());
+        Order order = orderId == null ? null : orderRepository.findById(orderId).orElse(null);
+        if (order == null) {
+            logger.warn("Payment webhook for unknown order (order {}, gateway order {})",
+                    event.getOrderId(), event.getPaymentGatewayOrderId());
+            return;
+        }
+
+        if (event.getType() == PaymentWebhookEvent.Type.FAILED) {
+            orderRepository.updateStatusWhereCurrent(List.of(orderId), OrderStatus.PENDING_PAYMENT, OrderStatus.PAYMENT_FAILED);
+            return;
+        }
+
+        Money captured = Money.ofMinor(event.getAmountMinorUnits(), event.getCurrency());
+        if (PAYABLE_STATUSES.contains(order.getStatus())) {
+            if (!captured.equals(order.getTotalAmount())) {
+                logger.error("Captured amount {} does not match order {} total {}; leaving the order for manual review.",
+                        captured, order.getId(), order.getTotalAmount());
+                return;
+            }
+            if (placeIfPayable(order, event.getPaymentGatewayOrderId(), event.getPaymentGatewayPaymentId(), null) != null) {
+                return;
+            }
+        }
+
+        // Not placed by this event: harmless if this payment already placed the order, otherwise money was taken
+        // for an order that cannot be placed (cancelled, or paid by another payment)
+        String paidBy = transactionRepository.findByOrder_Id(orderId)
+                .map(Transaction::getPaymentGatewayPaymentId)
+                .orElse(null);
+        if (event.getPaymentGatewayPaymentId() != null && event.getPaymentGatewayPaymentId().equals(paidBy)) {
+            logger.debug("Order {} is already paid by payment {}; ignoring capture notification.", orderId, paidBy);
+        } else {
+            logger.error("Payment {} ({}) was captured for order {}, which cannot be placed (status {}, paid by {}); "
+                            + "needs manual review.", event.getPaymentGatewayPaymentId(), captured, orderId,
+                    orderRepository.findById(orderId).map(Order::getStatus).orElse(null), paidBy);
         }
+    }
 
-        // 3. Save Transaction Record
+    /**
+     * Places the order if it is still awaiting payment, using a conditional UPDATE as the arbiter:
+     * of any number of concurrent callers exactly one sees an updated row, and only that caller records
+     * the transaction and the outbox event. Losers write nothing, so they never hit the unique order_id constraint.
+     * @return The placed order, or null if another caller had already moved the order on.
+     */
+    private Order placeIfPayable(Order order, String pgOrderId, String pgPaymentId, String signature) {
+        // 3. Claim the order, from whichever payable status it is in now (a failure report may land concurrently)
+        OrderStatus current = order.getStatus();
+        while (orderRepository.updateStatusWhereCurrent(List.of(order.getId()), current, OrderStatus.PLACED) == 0) {
+            current = orderRepository.findById(order.getId()).map(Order::getStatus).orElse(null);
+            if (!PAYABLE_STATUSES.contains(current)) {
+                return null;
+            }
+        }
+        // The update cleared the persistence context; reload the now PLACED order
+        Order placedOrder = orderRepository.findById(order.getId()).orElseThrow();
+
+        // 4. Save Transaction Record (winner only)
         Transaction transaction = new Transaction();
-        transaction.setOrder(order);
-        transaction.setPaymentGatewayOrderId(verificationDto.getPaymentGatewayOrderId());
-        transaction.setPaymentGatewayPaymentId(verificationDto.getPaymentGatewayPaymentId());
-        transaction.setAmountPaid(order.getTotalAmount());
+        transaction.setOrder(placedOrder);
+        transaction.setPaymentGatewayOrderId(pgOrderId);
+        transaction.setPaymentGatewayPaymentId(pgPaymentId);
+        transaction.setAmountPaid(placedOrder.getTotalAmount());
         transaction.setStatus("SUCCESS");
-        transaction.setSignature(verificationDto.getPaymentSignature());
+        transaction.setSignature(signature);
         transactionRepository.save(transaction);
+        pendingPayments.remove(pgOrderId);
+
+        // 5. Record the event for downstream consumers (fulfilment, emails) in the same transaction
+        Map<String, Object> event = new HashMap<>();
+        event.put("orderId", placedOrder.getId());
+        event.put("paymentGatewayPaymentId", pgPaymentId);
+        event.put("amountPaid", transaction.getAmountPaid());
+        outboxService.record(OutboxService.ORDER_AGGREGATE, placedOrder.getId(), "PaymentCompleted", event);
 
-        // 4. Update Order Status to PLACED
-        order.setStatus(OrderStatus.PLACED);
-        return orderRepository.save(order);
+        return placedOrder;
     }
 
-    // --- Helper for Simulation ---
+    /**
+     * Answers a caller that lost the race (or retried) for an order that is no longer pending:
+     * two primary-key reads, no writes.
+     * @return The order, if it was placed by this very payment.
+     * @throws RuntimeException if the order was settled by another payment or is not payable.
+     */
+    private Order replayFinalization(Order order, String pgPaymentId) {
+        boolean paidByThisPayment = pgPaymentId != null && transactionRepository.findByOrder_Id(order.getId())
+                .map(transaction -> pgPaymentId.equals(transaction.getPaymentGatewayPaymentId()))
+                .orElse(false);
+        if (!paidByThisPayment) {
+            throw new RuntimeException("Order is not awaiting payment (status " + order.getStatus() + ").");
+        }
+        return order;
+    }
+
+    /**
+     * Resolves a gateway order to our order: from the pending-payment map when possible, otherwise from the
+     * mapping recorded on the order, or (for orders paid before it was recorded) from the transaction.
+     * @return The order ID, or null if the gateway order is unknown.
+     */
+    private Long resolveGatewayOrder(String pgOrderId) {
+        if (pgOrderId == null) {
+            return null;
+        }
+        Long orderId = pendingPayments.resolve(pgOrderId);
+        if (orderId != null) {
+            return orderId;
+        }
+        return orderRepository.findIdByPaymentGatewayOrderId(pgOrderId)
+                .or(() -> transactionRepository.findByPaymentGatewayOrderId(pgOrderId)
+                        .map(transaction -> transaction.getOrder().getId()))
+                .orElse(null);
+    }
+
+    /**
+     * Checks that the gateway order was created for this order and the payment was not already used elsewhere.
+     * Served from the pending-payment map when possible, otherwise from the indexed gateway ID lookups.
+     */
+    private boolean belongsToOrder(Long orderId, String pgOrderId, String pgPaymentId) {
+        Long pendingOrderId = resolveGatewayOrder(pgOrderId);
+        if (pendingOrderId != null && !pendingOrderId.equals(orderId)) {
+            return false;
+        }
+        return transactionRepository.findByPaymentGatewayPaymentId(pgPaymentId)
+                .map(transaction -> transaction.getOrder().getId().equals(orderId))
+                .orElse(true);
+    }
+
+    /**
+     * Checks the checkout callback signature: hex HMAC-SHA256 of "pgOrderId|pgPaymentId" keyed with the API secret.
+     */
     private boolean verifySignature(String pgOrderId, String pgPaymentId, String signature) {
-        // !!! WARNING: This is a SIMULATION. !!!
-        // In a real Razorpay/Stripe integration, this method uses their SDK
-        // and your secret key to cryptographically verify the signature hash.
-        // For development, we return true.
-        return true;
+        return pgOrderId != null && pgPaymentId != null
+                && checkoutSignatureVerifier.verify(pgOrderId + "|" + pgPaymentId, signature);
     }
 }
@@ -0,0 +1,155 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.model.Money;
+import com.ecommerce.backend.payment.HmacSha256Verifier;
+import com.ecommerce.backend.payment.OrderedEventDispatcher;
+import com.ecommerce.backend.payment.PaymentWebhookEvent;
+import com.ecommerce.backend.payment.PendingPaymentRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingests payment gateway webhooks.
+ *
+ * The request thread only verifies the signature, extracts the event and queues it; the order update runs
+ * on an OrderedEventDispatcher lane keyed by order ID, so a burst of notifications does not hold Tomcat threads
+ * and the events of one order are still applied in the order they arrived.
+ *
+ * Queued events live in memory only, so a delivery is acknowledged only once its event has been applied: the
+ * returned outcome completes after the update commits. A full queue, a failed update or one that takes longer
+ * than ackTimeoutMs answers 5xx, and the gateway redelivers the event later; an event lost in a crash was never
+ * acknowledged, so it is redelivered as well. Applying an event twice is harmless (PaymentService finalizes an
+ * order at most once).
+ */
+@Service
+public class PaymentWebhookService {
+
+    public enum Outcome {
+        APPLIED,           // The order has been updated
+        IGNORED,           // Valid, but not an event we act on
+        INVALID_SIGNATURE,
+        MALFORMED,
+        OVERLOADED,        // Queue full; the gateway should retry
+        FAILED             // The update failed or timed out; the gateway should retry
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentWebhookService.class);
+
+    private final HmacSha256Verifier signatureVerifier;
+    private final PendingPaymentRegistry pendingPayments;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final OrderedEventDispatcher<PaymentWebhookEvent> dispatcher;
+    private final long ackTimeoutMs;
+
+    public PaymentWebhookService(@Qualifier("webhookSignatureVerifier") HmacSha256Verifier signatureVerifier,
+                                 PaymentService paymentService,
+                                 PendingPaymentRegistry pendingPayments,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${payment.webhook.lanes:8}") int lanes,
+                                 @Value("${payment.webhook.queueCapacityPerLane:2000}") int queueCapacityPerLane,
+                                 @Value("${payment.webhook.ackTimeoutMs:10000}") long ackTimeoutMs) {
+        this.signatureVerifier = signatureVerifier;
+        this.pendingPayments = pendingPayments;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.ackTimeoutMs = ackTimeoutMs;
+        this.dispatcher = new OrderedEventDispatcher<>("payment.webhook", lanes, queueCapacityPerLane,
+                paymentService::applyWebhookEvent, meterRegistry);
+    }
+
+    /**
+     * Verifies and applies one webhook delivery.
+     * @param body The raw request body, exactly as signed by the gateway.
+     * @param signature The hex HMAC-SHA256 signature header.
+     * @return What happened to the delivery (see Outcome); completes without blocking the caller, once the
+     *         event has been applied if it was queued.
+     */
+    public CompletableFuture<Outcome> receive(byte[] body, String signature) {
+        return ingest(body, signature).thenApply(outcome -> {
+            meterRegistry.counter("payment.webhook.received", "outcome", outcome.name()).increment();
+            return outcome;
+        });
+    }
+
+    private CompletableFuture<Outcome> ingest(byte[] body, String signature) {
+        // 1. Authenticate before parsing anything
+        if (!signatureVerifier.verify(body, signature)) {
+            return CompletableFuture.completedFuture(Outcome.INVALID_SIGNATURE);
+        }
+
+        // 2. Extract the event
+        PaymentWebhookEvent event;
+        try {
+            event = parse(body);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unreadable payment webhook: {}", e.getMessage());
+            return CompletableFuture.completedFuture(Outcome.MALFORMED);
+        }
+        if (event == null) {
+            return CompletableFuture.completedFuture(Outcome.IGNORED);
+        }
+        if (event.getOrderId() == null) {
+            event.setOrderId(pendingPayments.resolve(event.getPaymentGatewayOrderId()));
+        }
+        if (event.getOrderId() == null && event.getPaymentGatewayOrderId() == null) {
+            logger.warn("Payment webhook carries neither an order ID nor a gateway order ID; ignoring.");
+            return CompletableFuture.completedFuture(Outcome.IGNORED);
+        }
+
+        // 3. Queue on the order's lane. Still unresolved events are keyed by gateway order and resolved
+        // with an indexed lookup on the lane, keeping the query off the request thread
+        Object laneKey = event.getOrderId() != null ? event.getOrderId() : event.getPaymentGatewayOrderId();
+        CompletableFuture<Void> applied = dispatcher.offer(laneKey, event);
+        if (applied == null) {
+            return CompletableFuture.completedFuture(Outcome.OVERLOADED);
+        }
+
+        // 4. Acknowledge once applied. A timed-out event may still be applied later; the redelivery is then a no-op
+        return applied.orTimeout(ackTimeoutMs, TimeUnit.MILLISECONDS)
+                .handle((ignored, failure) -> failure == null ? Outcome.APPLIED : Outcome.FAILED);
+    }
+
+    private PaymentWebhookEvent parse(byte[] body) throws IOException {
+        JsonNode root = objectMapper.readTree(body);
+        PaymentWebhookEvent.Type type = switch (root.path("event").asText()) {
+            case "payment.captured", "order.paid" -> PaymentWebhookEvent.Type.CAPTURED;
+            case "payment.failed" -> PaymentWebhookEvent.Type.FAILED;
+            default -> null;
+        };
+        if (type == null) {
+            return null;
+        }
+
+        JsonNode payment = root.path("payload").path("payment").path("entity");
+        JsonNode gatewayOrder = root.path("payload").path("order").path("entity");
+
+        String receipt = gatewayOrder.path("receipt").asText(payment.path("notes").path("orderId").asText(""));
+        Long orderId = receipt.isEmpty() ? null : Long.valueOf(receipt);
+
+        return new PaymentWebhookEvent(
+                type,
+                orderId,
+                payment.path("order_id").asText(gatewayOrder.path("id").asText(null)),
+                payment.path("id").asText(null),
+                payment.path("amount").asLong(),
+                payment.path("currency").asText(Money.DEFAULT_CURRENCY));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown(5_000);
+    }
+}
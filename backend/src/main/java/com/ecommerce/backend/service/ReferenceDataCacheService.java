@@ -0,0 +1,79 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.model.Category;
+import com.ecommerce.backend.model.Product;
+import com.ecommerce.backend.model.ReferenceDataRegions;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Evicts reference data (products, categories) from Hibernate's second-level and query caches, and publishes
+ * per-region statistics as {@code hibernate.cache.region.requests{region, result=hit|miss}} and
+ * {@code hibernate.cache.region.puts{region}}.
+ *
+ * Writes made through JPA already update the cached entries; the admin write paths evict explicitly as well,
+ * so that rows changed by bulk or native SQL are never served stale after an edit.
+ */
+@Service
+public class ReferenceDataCacheService {
+
+    private final SessionFactory sessionFactory;
+
+    public ReferenceDataCacheService(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+
+        Stream.concat(ReferenceDataRegions.ENTITY_REGIONS.stream(), ReferenceDataRegions.QUERY_REGIONS.stream())
+                .forEach(region -> {
+                    registerCounter(meterRegistry, "hibernate.cache.region.requests", region, "hit", CacheRegionStatistics::getHitCount);
+                    registerCounter(meterRegistry, "hibernate.cache.region.requests", region, "miss", CacheRegionStatistics::getMissCount);
+                    registerCounter(meterRegistry, "hibernate.cache.region.puts", region, null, CacheRegionStatistics::getPutCount);
+                });
+    }
+
+    /**
+     * Drops a product from the entity cache, after it was updated or deleted.
+     * @param productId The product's ID.
+     */
+    public void evictProduct(Long productId) {
+        sessionFactory.getCache().evictEntityData(Product.class, productId);
+    }
+
+    /**
+     * Drops all categories and cached category listings, after a category was created, updated or deleted.
+     */
+    public void evictCategories() {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(Category.class);
+        cache.evictQueryRegion(ReferenceDataRegions.CATEGORY_LISTINGS);
+    }
+
+    /**
+     * @param region A second-level or query cache region name.
+     * @return The region's statistics, or null if statistics are disabled or the region does not exist.
+     */
+    public CacheRegionStatistics regionStatistics(String region) {
+        Statistics statistics = sessionFactory.getStatistics();
+        return statistics.isStatisticsEnabled() ? statistics.getCacheRegionStatistics(region) : null;
+    }
+
+    private void registerCounter(MeterRegistry meterRegistry, String name, String region, String result,
+                                 ToLongFunction<CacheRegionStatistics> count) {
+        FunctionCounter.Builder<ReferenceDataCacheService> builder = FunctionCounter.builder(name, this, service -> {
+            CacheRegionStatistics statistics = service.regionStatistics(region);
+            return statistics == null ? 0 : count.applyAsLong(statistics);
+        }).tag("region", region);
+        if (result != null) {
+            builder.tag("result", result);
+        }
+        builder.register(meterRegistry);
+    }
+}
@@ -0,0 +1,266 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.dto.ReconciliationSummary;
+import com.ecommerce.backend.dto.ReconciliationSummary.MismatchType;
+import com.ecommerce.backend.payment.SettlementFileReader;
+import com.ecommerce.backend.repository.TransactionRepository;
+import com.ecommerce.backend.repository.TransactionRepository.SettlementView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reconciles successful transactions against the gateway's daily settlement files.
+ *
+ * The settlement file must be sorted by payment ID (e.g., {@code sort -t, -k1,1}). It is merge-joined with
+ * a keyset scan of the transactions table in the same order, so memory use is one chunk of ledger rows
+ * plus one file line, regardless of file size. IDs are compared with String.compareTo, which matches the
+ * database's binary VARCHAR ordering for the ASCII IDs gateways issue.
+ *
+ * Ledger rows from the preceding {@code lookbackDays} are scanned too, since payments are often settled a
+ * day or more after capture; only transactions made on the settlement date itself are reported as missing
+ * from the settlement.
+ *
+ * Mismatches are written to a CSV report. Metrics:
+ *   reconciliation.lines        settlement lines processed
+ *   reconciliation.mismatches   mismatches found, tagged by type
+ *   reconciliation.duration     run time per file
+ *   reconciliation.throughput   settlement lines per second of the last run
+ */
+@Service
+public class SettlementReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SettlementReconciliationService.class);
+
+    private final TransactionRepository transactionRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Counter linesProcessed;
+    private final Timer runDuration;
+    private final AtomicLong lastThroughput = new AtomicLong();
+
+    @Value("${ecommerce.reconciliation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ecommerce.reconciliation.inboxDir:settlements/inbox}")
+    private String inboxDir;
+
+    @Value("${ecommerce.reconciliation.reportDir:settlements/reports}")
+    private String reportDir;
+
+    @Value("${ecommerce.reconciliation.lookbackDays:3}")
+    private int lookbackDays;
+
+    @Value("${ecommerce.reconciliation.chunkSize:5000}")
+    private int chunkSize = 5000;
+
+    @Value("${ecommerce.reconciliation.mapWindowBytes:67108864}")
+    private int mapWindowBytes = SettlementFileReader.DEFAULT_WINDOW_BYTES;
+
+    public SettlementReconciliationService(TransactionRepository transactionRepository, MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.meterRegistry = meterRegistry;
+
+        this.linesProcessed = meterRegistry.counter("reconciliation.lines");
+        this.runDuration = meterRegistry.timer("reconciliation.duration");
+        meterRegistry.gauge("reconciliation.throughput", lastThroughput);
+    }
+
+    /**
+     * Scheduled entry point: reconciles yesterday's file (settlement-YYYY-MM-DD.csv in the inbox) if it has arrived.
+     */
+    @Scheduled(cron = "${ecommerce.reconciliation.cron:0 0 6 * * *}")
+    public void reconcilePreviousDay() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate settlementDate = LocalDate.now().minusDays(1);
+        Path file = Paths.get(inboxDir, "settlement-" + settlementDate + ".csv");
+        if (!Files.exists(file)) {
+            logger.info("No settlement file for {} at {}; skipping reconciliation.", settlementDate, file);
+            return;
+        }
+        try {
+            reconcile(file, Paths.get(reportDir, "reconciliation-" + settlementDate + ".csv"), settlementDate);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Reconciliation of {} failed: {}", file, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reconciles one settlement file and writes the mismatch report.
+     * @param settlementFile The gateway's settlement file, sorted by payment ID.
+     * @param reportFile Where to write the CSV mismatch report (overwritten if present).
+     * @param settlementDate The day the file settles.
+     * @return Counts and throughput of the run.
+     * @throws IllegalStateException if the settlement file is not sorted by payment ID.
+     */
+    public ReconciliationSummary reconcile(Path settlementFile, Path reportFile, LocalDate settlementDate) throws IOException {
+        long start = System.nanoTime();
+        ReconciliationSummary summary = new ReconciliationSummary();
+        summary.setSettlementDate(settlementDate);
+        summary.setReportFile(reportFile.toString());
+
+        LocalDateTime dayStart = settlementDate.atStartOfDay();
+        LedgerCursor ledger = new LedgerCursor(
+                settlementDate.minusDays(lookbackDays).atStartOfDay(), settlementDate.plusDays(1).atStartOfDay());
+
+        if (reportFile.getParent() != null) {
+            Files.createDirectories(reportFile.getParent());
+        }
+        try (SettlementFileReader file = new SettlementFileReader(settlementFile, mapWindowBytes);
+             BufferedWriter report = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+            report.write("type,payment_id,transaction_id,ledger_amount_minor,settled_amount_minor,ledger_currency,settled_currency,line");
+            report.newLine();
+            MismatchWriter mismatches = new MismatchWriter(report, summary);
+
+            boolean hasLine = file.next();
+            String previousPaymentId = null;
+
+            // 1. Merge-join the two ordered streams
+            while (hasLine || ledger.current() != null) {
+                if (hasLine && previousPaymentId != null) {
+                    int order = file.getPaymentId().compareTo(previousPaymentId);
+                    if (order < 0) {
+                        throw new IllegalStateException("Settlement file is not sorted by payment ID at line " + file.getLineNumber());
+                    }
+                    if (order == 0) {
+                        mismatches.write(MismatchType.DUPLICATE_IN_SETTLEMENT, null, file);
+                        summary.setSettlementLines(summary.getSettlementLines() + 1);
+                        hasLine = file.next();
+                        continue;
+                    }
+                }
+
+                SettlementView row = ledger.current();
+                int cmp = !hasLine ? 1 : row == null ? -1 : file.getPaymentId().compareTo(row.getPaymentGatewayPaymentId());
+
+                if (cmp < 0) {
+                    mismatches.write(MismatchType.MISSING_IN_LEDGER, null, file);
+                } else if (cmp > 0) {
+                    // Only transactions of the settlement day are due in this file; older ones settled earlier
+                    if (!row.getTransactionDate().isBefore(dayStart)) {
+                        mismatches.write(MismatchType.MISSING_IN_SETTLEMENT, row, null);
+                    }
+                    ledger.advance();
+                    continue;
+                } else {
+                    if (!row.getCurrency().equals(file.getCurrency())) {
+                        mismatches.write(MismatchType.CURRENCY_MISMATCH, row, file);
+                    } else if (row.getAmountPaid().getMinorUnits() != file.getAmountMinorUnits()) {
+                        mismatches.write(MismatchType.AMOUNT_MISMATCH, row, file);
+                    } else {
+                        summary.setMatched(summary.getMatched() + 1);
+                    }
+                    ledger.advance();
+                }
+
+                previousPaymentId = file.getPaymentId();
+                summary.setSettlementLines(summary.getSettlementLines() + 1);
+                hasLine = file.next();
+            }
+        }
+
+        // 2. Record metrics
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        summary.setLedgerRowsScanned(ledger.scanned);
+        summary.setDurationMs(elapsed.toMillis());
+        summary.setLinesPerSecond(summary.getSettlementLines() * 1_000_000_000L / Math.max(elapsed.toNanos(), 1));
+
+        runDuration.record(elapsed);
+        linesProcessed.increment(summary.getSettlementLines());
+        lastThroughput.set(summary.getLinesPerSecond());
+        summary.getMismatches().forEach((type, count) ->
+                meterRegistry.counter("reconciliation.mismatches", "type", type.name()).increment(count));
+
+        logger.info("Reconciled {} settlement lines for {} in {} ms ({} lines/s): {} matched, {} mismatches, report at {}",
+                summary.getSettlementLines(), settlementDate, summary.getDurationMs(), summary.getLinesPerSecond(),
+                summary.getMatched(), summary.getTotalMismatches(), reportFile);
+        return summary;
+    }
+
+    /**
+     * Streams successful transactions in payment ID order, one keyset chunk at a time.
+     */
+    private class LedgerCursor {
+
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private List<SettlementView> chunk = List.of();
+        private int index;
+        private String lastPaymentId = "";
+        private boolean exhausted;
+        private long scanned;
+
+        LedgerCursor(LocalDateTime from, LocalDateTime to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        SettlementView current() {
+            if (index >= chunk.size() && !exhausted) {
+                chunk = transactionRepository.findSettledAfter(from, to, lastPaymentId, PageRequest.of(0, chunkSize));
+                index = 0;
+                exhausted = chunk.size() < chunkSize;
+                if (!chunk.isEmpty()) {
+                    lastPaymentId = chunk.get(chunk.size() - 1).getPaymentGatewayPaymentId();
+                    scanned += chunk.size();
+                }
+            }
+            return index < chunk.size() ? chunk.get(index) : null;
+        }
+
+        void advance() {
+            index++;
+        }
+    }
+
+    private static class MismatchWriter {
+
+        private final BufferedWriter report;
+        private final ReconciliationSummary summary;
+
+        MismatchWriter(BufferedWriter report, ReconciliationSummary summary) {
+            this.report = report;
+            this.summary = summary;
+        }
+
+        void write(MismatchType type, SettlementView row, SettlementFileReader line) throws IOException {
+            summary.getMismatches().merge(type, 1L, Long::sum);
+            report.write(type.name());
+            report.write(',');
+            report.write(line != null ? line.getPaymentId() : row.getPaymentGatewayPaymentId());
+            report.write(',');
+            report.write(row != null ? String.valueOf(row.getId()) : "");
+            report.write(',');
+            report.write(row != null ? String.valueOf(row.getAmountPaid().getMinorUnits()) : "");
+            report.write(',');
+            report.write(line != null ? String.valueOf(line.getAmountMinorUnits()) : "");
+            report.write(',');
+            report.write(row != null ? row.getCurrency() : "");
+            report.write(',');
+            report.write(line != null ? line.getCurrency() : "");
+            report.write(',');
+            report.write(line != null ? String.valueOf(line.getLineNumber()) : "");
+            report.newLine();
+        }
+    }
+}
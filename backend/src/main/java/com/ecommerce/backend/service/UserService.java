@@ -1,5 +1,7 @@
 package com.ecommerce.backend.service;
 
+import com.ecommerce.backend.model.User;
+
 import java.util.List;
 
 /**
@@ -29,6 +31,16 @@ public interface UserService {
      */
     User updateUser(Long id, User userDetails);
 
+    /**
+     * Changes a user's password after verifying the current one. Bumps the security version, so tokens issued
+     * with the old password stop working.
+     * @param id The ID of the user.
+     * @param currentPassword The user's current password, in plain text.
+     * @param newPassword The new password, in plain text.
+     * @throws org.springframework.security.authentication.BadCredentialsException if the current password is wrong.
+     */
+    void changePassword(Long id, String currentPassword, String newPassword);
+
     /**
      * Deletes a user by their ID.
      * @param id The ID of the user to delete.
@@ -2,6 +2,8 @@ package com.ecommerce.backend.service;
 
 import com.ecommerce.backend.model.Cart;
 import com.ecommerce.backend.model.CartItem;
+import com.ecommerce.backend.model.Money;
+import com.ecommerce.backend.model.User;
 import com.ecommerce.backend.repository.CartItemRepository;
 import com.ecommerce.backend.repository.CartRepository;
 import com.ecommerce.backend.model.Product;
@@ -12,7 +14,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.Optional;
 
 @Service
@@ -53,9 +54,12 @@ public class CartServiceImpl implements CartService {
                 .filter(item -> item.getProduct().getId().equals(productId))
                 .findFirst();
 
+        int newQuantity = existingItem.map(CartItem::getQuantity).orElse(0) + quantity;
+        checkStock(product, newQuantity);
+
         if (existingItem.isPresent()) {
             CartItem item = existingItem.get();
-            item.setQuantity(item.getQuantity() + quantity);
+            item.setQuantity(newQuantity);
             cartItemRepository.save(item);
         } else {
             CartItem newItem = new CartItem();
@@ -85,6 +89,7 @@ public class CartServiceImpl implements CartService {
             cart.getItems().remove(itemToUpdate);
             cartItemRepository.delete(itemToUpdate);
         } else {
+            checkStock(itemToUpdate.getProduct(), quantity);
             itemToUpdate.setQuantity(quantity);
             cartItemRepository.save(itemToUpdate);
         }
@@ -121,18 +126,30 @@ public class CartServiceImpl implements CartService {
         cart.getItems().clear();
 
         // Reset total amount
-        cart.setTotalAmount(BigDecimal.ZERO);
+        cart.setTotalAmount(Money.ZERO);
         cartRepository.save(cart);
     }
 
     @Override
-    public BigDecimal calculateTotal(Long userId) {
+    public Money calculateTotal(Long userId) {
         Cart cart = getCartByUserId(userId);
 
-        // Calculate total by multiplying each item's price by its quantity and summing them up
-        return cart.getItems().stream()
-                .map(item -> item.getProduct().getPrice().multiply(new BigDecimal(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Sum price * quantity in minor units; only the final total is wrapped in a Money
+        long totalMinor = 0L;
+        for (CartItem item : cart.getItems()) {
+            totalMinor = Math.addExact(totalMinor, item.getProduct().getPrice().timesMinorUnits(item.getQuantity()));
+        }
+        return Money.ofMinor(totalMinor);
+    }
+
+    /**
+     * Rejects a cart line asking for more than is in stock. Checkout takes the stock conditionally,
+     * so this is only an early answer for the shopper, not a reservation.
+     */
+    private static void checkStock(Product product, int quantity) {
+        if (quantity > product.getStockQuantity()) {
+            throw new IllegalStateException("Insufficient stock for product: " + product.getName());
+        }
     }
 
     /**
@@ -141,7 +158,7 @@ public class CartServiceImpl implements CartService {
     private Cart createNewCart(User user) {
         Cart newCart = new Cart();
         newCart.setUser(user);
-        newCart.setTotalAmount(BigDecimal.ZERO);
+        newCart.setTotalAmount(Money.ZERO);
         return cartRepository.save(newCart);
     }
 }
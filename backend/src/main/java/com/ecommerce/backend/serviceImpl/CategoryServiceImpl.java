@@ -1,6 +1,7 @@
 package com.ecommerce.backend.service;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import com.ecommerce.backend.repository.CategoryRepository;
 import com.ecommerce.backend.model.Category;
@@ -11,8 +12,9 @@ import java.util.List;
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
 
-    @Override public List<Category> findAll() { return categoryRepository.findAll(); }
-    @Override public Category findById(Integer id) { return categoryRepository.findById(id).orElse(null); }
+    // Read-only: served by the replica when the read/write split is enabled
+    @Override @Transactional(readOnly = true) public List<Category> findAll() { return categoryRepository.findAll(); }
+    @Override @Transactional(readOnly = true) public Category findById(Integer id) { return categoryRepository.findById(id).orElse(null); }
     @Override public Category save(Category c) { return categoryRepository.save(c); }
     @Override public void deleteById(Integer id) { categoryRepository.deleteById(id); }
 }
@@ -1,22 +1,35 @@
 package com.ecommerce.backend.service;
 
 import com.ecommerce.backend.model.Cart;
+import com.ecommerce.backend.model.CartItem;
 import com.ecommerce.backend.repository.CartRepository;
+import com.ecommerce.backend.dto.CheckoutRequest;
+import com.ecommerce.backend.dto.OrderStatusTransitionResult;
+import com.ecommerce.backend.dto.OrderStatusTransitionResult.Outcome;
 import com.ecommerce.backend.exception.ResourceNotFoundException;
+import com.ecommerce.backend.model.Money;
 import com.ecommerce.backend.model.Order;
 import com.ecommerce.backend.model.OrderItem;
 import com.ecommerce.backend.model.OrderStatus;
-import com.ecommerce.backend.payload.CheckoutRequest;
+import com.ecommerce.backend.model.User;
 import com.ecommerce.backend.repository.OrderItemRepository;
 import com.ecommerce.backend.repository.OrderRepository;
+import com.ecommerce.backend.repository.ProductRepository;
 import com.ecommerce.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -27,14 +40,27 @@ public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final CartRepository cartRepository;
+    private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final OrderArchiveService orderArchiveService;
+    private final OutboxService outboxService;
+    // Maximum number of IDs per IN-list in bulk status updates
+    private final int bulkStatusChunkSize;
 
     @Autowired
-    public OrderServiceImpl(OrderRepository orderRepository, OrderItemRepository orderItemRepository, CartRepository cartRepository, UserRepository userRepository) {
+    public OrderServiceImpl(OrderRepository orderRepository, OrderItemRepository orderItemRepository, CartRepository cartRepository, ProductRepository productRepository, UserRepository userRepository, OrderArchiveService orderArchiveService, OutboxService outboxService,
+                            @Value("${ecommerce.orders.bulkStatusChunkSize:500}") int bulkStatusChunkSize) {
+        if (bulkStatusChunkSize <= 0) {
+            throw new IllegalArgumentException("ecommerce.orders.bulkStatusChunkSize must be positive, was " + bulkStatusChunkSize);
+        }
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.cartRepository = cartRepository;
+        this.productRepository = productRepository;
         this.userRepository = userRepository;
+        this.orderArchiveService = orderArchiveService;
+        this.outboxService = outboxService;
+        this.bulkStatusChunkSize = bulkStatusChunkSize;
     }
 
     private static final String ORDER_NOT_FOUND_MSG = "Order not found with id: ";
@@ -46,6 +72,7 @@ public class OrderServiceImpl implements OrderService {
      * @param checkoutRequest The checkout details (e.g., shipping address).
      * @return The newly created Order entity.
      * @throws ResourceNotFoundException if the user or cart is not found.
+     * @throws IllegalStateException if the cart is empty or a product does not have enough stock left.
      */
     @Override
     public Order createOrder(Long userId, CheckoutRequest checkoutRequest) throws ResourceNotFoundException {
@@ -56,37 +83,41 @@ public class OrderServiceImpl implements OrderService {
         Cart cart = cartRepository.findByUser(user)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart not found for user: " + userId));
 
-        if (cart.getCartItems().isEmpty()) {
+        if (cart.getItems().isEmpty()) {
             throw new IllegalStateException("Cannot create order from an empty cart.");
         }
 
         // 1. Create the Order
         Order newOrder = new Order();
         newOrder.setUser(user);
-        newOrder.setOrderDate(Instant.now());
+        newOrder.setOrderDate(LocalDateTime.now());
         newOrder.setStatus(OrderStatus.PENDING);
         newOrder.setShippingAddress(checkoutRequest.getShippingAddress());
 
-        // Calculate total amount while creating OrderItems
-        BigDecimal orderTotal = BigDecimal.ZERO;
+        // Calculate total amount while creating OrderItems, accumulating minor units in a long
+        long orderTotalMinor = 0L;
+        Set<OrderItem> orderItems = new HashSet<>();
+
+        for (CartItem cartItem : cart.getItems()) {
+            // Take the stock; a shortfall throws and rolls back whatever was taken for earlier lines
+            if (productRepository.decrementStock(cartItem.getProduct().getId(), cartItem.getQuantity()) == 0) {
+                throw new IllegalStateException("Insufficient stock for product: " + cartItem.getProduct().getName());
+            }
+            Money unitPrice = cartItem.getProduct().getPrice();
 
-        Set<OrderItem> orderItems = cart.getCartItems().stream().map(cartItem -> {
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(newOrder);
             orderItem.setProduct(cartItem.getProduct());
             orderItem.setQuantity(cartItem.getQuantity());
             // CRITICAL: Capture the price at the time of order
-            orderItem.setPriceAtPurchase(cartItem.getProduct().getPrice());
+            orderItem.setPriceAtOrder(unitPrice);
+            orderItems.add(orderItem);
 
-            // Calculate item total and add to order total
-            BigDecimal itemTotal = cartItem.getProduct().getPrice().multiply(new BigDecimal(cartItem.getQuantity()));
-            orderTotal.add(itemTotal);
-
-            return orderItem;
-        }).collect(Collectors.toSet());
+            orderTotalMinor = Math.addExact(orderTotalMinor, unitPrice.timesMinorUnits(cartItem.getQuantity()));
+        }
 
-        newOrder.setOrderItems(orderItems);
-        newOrder.setTotalAmount(orderTotal);
+        newOrder.setItems(orderItems);
+        newOrder.setTotalAmount(Money.ofMinor(orderTotalMinor));
 
         // 2. Save the Order (cascades save to OrderItems)
         Order savedOrder = orderRepository.save(newOrder);
@@ -94,31 +125,122 @@ public class OrderServiceImpl implements OrderService {
         // 3. Clear the user's cart (Transactional cleanup)
         cartRepository.delete(cart);
 
-        // NOTE: Stock reduction and payment processing would typically happen after this,
-        // in a separate, dedicated step/service call (e.g., in PaymentService or a dedicated InventoryService).
+        // 4. Record the event for downstream consumers; committed atomically with the order
+        outboxService.record(OutboxService.ORDER_AGGREGATE, savedOrder.getId(), "OrderCreated", Map.of(
+                "orderId", savedOrder.getId(),
+                "userId", userId,
+                "totalAmount", savedOrder.getTotalAmount(),
+                "itemCount", orderItems.size()));
 
         return savedOrder;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Order> findAllOrdersByUser(Long userId) throws ResourceNotFoundException {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException(USER_NOT_FOUND_MSG + userId));
-        return orderRepository.findByUser(user);
+
+        // Recent orders come from the hot table, finished older ones from the archive; both newest first.
+        // Archiving goes by age, but a long-running order can still be older than archived ones, so merge
+        return mergeNewestFirst(orderRepository.findByUserOrderByOrderDateDesc(user),
+                orderArchiveService.findArchivedOrdersByUser(userId));
+    }
+
+    private static List<Order> mergeNewestFirst(List<Order> hot, List<Order> archived) {
+        List<Order> merged = new ArrayList<>(hot.size() + archived.size());
+        int h = 0;
+        int a = 0;
+        while (h < hot.size() && a < archived.size()) {
+            merged.add(hot.get(h).getOrderDate().isBefore(archived.get(a).getOrderDate())
+                    ? archived.get(a++) : hot.get(h++));
+        }
+        merged.addAll(hot.subList(h, hot.size()));
+        merged.addAll(archived.subList(a, archived.size()));
+        return merged;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Order findOrderById(Long orderId) throws ResourceNotFoundException {
         return orderRepository.findById(orderId)
+                .or(() -> orderArchiveService.findArchivedOrder(orderId))
                 .orElseThrow(() -> new ResourceNotFoundException(ORDER_NOT_FOUND_MSG + orderId));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Order> findAllOrders() {
+        return orderRepository.findAll();
+    }
+
     @Override
     public Order updateOrderStatus(Long orderId, OrderStatus status) throws ResourceNotFoundException {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException(ORDER_NOT_FOUND_MSG + orderId));
 
+        if (order.getStatus() != status && !order.getStatus().canTransitionTo(status)) {
+            throw new IllegalStateException("Cannot move order " + orderId + " from " + order.getStatus() + " to " + status);
+        }
+
         order.setStatus(status);
         return orderRepository.save(order);
     }
+
+    /**
+     * Moves many orders to the same status without loading the entities.
+     * Orders are processed in chunks: one projection read per chunk, then one guarded
+     * UPDATE per distinct source status, so the statement count does not grow with the order count.
+     * @param orderIds The orders to update (duplicates are ignored).
+     * @param newStatus The requested status.
+     * @return One outcome per distinct order ID, in request order.
+     */
+    @Override
+    public List<OrderStatusTransitionResult> bulkUpdateOrderStatus(Collection<Long> orderIds, OrderStatus newStatus) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        Map<Long, OrderStatusTransitionResult> results = new HashMap<>(ids.size() * 2);
+
+        for (int start = 0; start < ids.size(); start += bulkStatusChunkSize) {
+            List<Long> chunk = ids.subList(start, Math.min(start + bulkStatusChunkSize, ids.size()));
+            applyStatusChunk(chunk, newStatus, results);
+        }
+
+        return ids.stream().map(results::get).collect(Collectors.toList());
+    }
+
+    private void applyStatusChunk(List<Long> chunk, OrderStatus newStatus,
+                                  Map<Long, OrderStatusTransitionResult> results) {
+        // 1. Read current statuses for the whole chunk and validate against the transition table
+        Map<OrderStatus, List<Long>> candidatesByStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderRepository.StatusView view : orderRepository.findStatusesByIdIn(chunk)) {
+            OrderStatus current = view.getStatus();
+            if (current == newStatus) {
+                results.put(view.getId(), new OrderStatusTransitionResult(view.getId(), current, Outcome.UNCHANGED));
+            } else if (!current.canTransitionTo(newStatus)) {
+                results.put(view.getId(), new OrderStatusTransitionResult(view.getId(), current, Outcome.ILLEGAL_TRANSITION));
+            } else {
+                candidatesByStatus.computeIfAbsent(current, s -> new ArrayList<>()).add(view.getId());
+            }
+        }
+
+        // 2. Apply each group with an UPDATE that only matches rows still in the status we validated
+        candidatesByStatus.forEach((from, candidates) -> {
+            int updated = orderRepository.updateStatusWhereCurrent(candidates, from, newStatus);
+            if (updated == candidates.size()) {
+                candidates.forEach(id -> results.put(id, new OrderStatusTransitionResult(id, from, Outcome.UPDATED)));
+                return;
+            }
+
+            // Some rows changed between the read and the update; re-read to tell them apart
+            Set<Long> inTargetStatus = orderRepository.findStatusesByIdIn(candidates).stream()
+                    .filter(view -> view.getStatus() == newStatus)
+                    .map(OrderRepository.StatusView::getId)
+                    .collect(Collectors.toSet());
+            candidates.forEach(id -> results.put(id, new OrderStatusTransitionResult(id, from,
+                    inTargetStatus.contains(id) ? Outcome.UPDATED : Outcome.CONFLICT)));
+        });
+
+        // 3. Anything the read did not return does not exist
+        chunk.forEach(id -> results.putIfAbsent(id, new OrderStatusTransitionResult(id, null, Outcome.NOT_FOUND)));
+    }
 }
@@ -0,0 +1,65 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.exception.ResourceNotFoundException;
+import com.ecommerce.backend.model.Product;
+import com.ecommerce.backend.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Implementation of the ProductService interface.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductServiceImpl implements ProductService {
+
+    private static final String PRODUCT_NOT_FOUND_MSG = "Product not found with id: ";
+
+    private final ProductRepository productRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> findAllProducts(Long categoryId) {
+        if (categoryId == null) {
+            return productRepository.findAll();
+        }
+        return productRepository.findByCategoryId(Math.toIntExact(categoryId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Product findProductById(Long id) throws ResourceNotFoundException {
+        return productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(PRODUCT_NOT_FOUND_MSG + id));
+    }
+
+    @Override
+    @Transactional
+    public Product createProduct(Product product) {
+        product.setId(null);
+        return productRepository.save(product);
+    }
+
+    @Override
+    @Transactional
+    public Product updateProduct(Long id, Product productDetails) throws ResourceNotFoundException {
+        Product product = findProductById(id);
+        product.setName(productDetails.getName());
+        product.setDescription(productDetails.getDescription());
+        product.setPrice(productDetails.getPrice());
+        product.setStockQuantity(productDetails.getStockQuantity());
+        product.setImageUrl(productDetails.getImageUrl());
+        product.setCategory(productDetails.getCategory());
+        product.setAvailable(productDetails.isAvailable());
+        return productRepository.save(product);
+    }
+
+    @Override
+    @Transactional
+    public void deleteProduct(Long id) throws ResourceNotFoundException {
+        productRepository.delete(findProductById(id));
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecommerce.backend.service;
+
+import com.ecommerce.backend.exception.ResourceNotFoundException;
+import com.ecommerce.backend.model.User;
+import com.ecommerce.backend.repository.UserRepository;
+import com.ecommerce.backend.security.services.TokenRevocationService;
+import com.ecommerce.backend.security.services.UserDetailsCache;
+import com.ecommerce.backend.security.services.UserIdentityIndex;
+import com.ecommerce.backend.security.services.UserSecurityVersionCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Implementation of the UserService interface.
+ * Every change to a user's identity, roles or password revokes the tokens issued before it: through the revocation list,
+ * which every request checks, and by bumping the security version carried in claims tokens. The user is evicted from the
+ * authentication caches once the change commits.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserServiceImpl implements UserService {
+
+    private final UserRepository userRepository;
+    private final UserSecurityVersionCache securityVersionCache;
+    private final UserDetailsCache userDetailsCache;
+    private final UserIdentityIndex userIdentityIndex;
+    private final TokenRevocationService tokenRevocationService;
+    private final PasswordEncoder passwordEncoder;
+
+    @Override
+    public List<User> getAllUsers() {
+        return userRepository.findAll();
+    }
+
+    @Override
+    public User getUserById(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+    }
+
+    @Override
+    @Transactional
+    public User updateUser(Long id, User userDetails) {
+        // 1. Fetch the existing user
+        User user = getUserById(id);
+        String previousUsername = user.getUsername();
+
+        // 2. Apply the changes (the password is changed through changePassword, not here)
+        if (userDetails.getUsername() != null) {
+            user.setUsername(userDetails.getUsername());
+        }
+        if (userDetails.getEmail() != null) {
+            user.setEmail(userDetails.getEmail());
+        }
+        if (userDetails.getRoles() != null && !userDetails.getRoles().isEmpty()) {
+            user.setRoles(userDetails.getRoles());
+        }
+
+        // 3. Revoke existing tokens: they carry the old username/roles
+        user.setSecurityVersion(user.getSecurityVersion() + 1);
+        User saved = userRepository.save(user);
+        tokenRevocationService.revokeAllForUserAfterCommit(id);
+        securityVersionCache.invalidateAfterCommit(id);
+        userDetailsCache.invalidateAfterCommit(previousUsername);
+        userIdentityIndex.record(saved.getUsername(), saved.getEmail());
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void changePassword(Long id, String currentPassword, String newPassword) {
+        User user = getUserById(id);
+        if (!passwordEncoder.matches(currentPassword, user.getPassword())) {
+            throw new BadCredentialsException("Current password is incorrect.");
+        }
+
+        // Revoke existing tokens: they were issued against the old password
+        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setSecurityVersion(user.getSecurityVersion() + 1);
+        userRepository.save(user);
+        tokenRevocationService.revokeAllForUserAfterCommit(id);
+        securityVersionCache.invalidateAfterCommit(id);
+        userDetailsCache.invalidateAfterCommit(user.getUsername());
+    }
+
+    @Override
+    @Transactional
+    public void deleteUser(Long id) {
+        User user = getUserById(id);
+        userRepository.delete(user);
+        securityVersionCache.invalidateAfterCommit(id);
+        userDetailsCache.invalidateAfterCommit(user.getUsername());
+    }
+}
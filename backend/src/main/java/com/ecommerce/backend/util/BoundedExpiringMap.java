@@ -0,0 +1,166 @@
+package com.ecommerce.backend.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * A concurrent map whose entries expire and whose size is capped, for the in-memory caches and registries that
+ * sit in front of the database.
+ *
+ * Each value's expiry is read through {@code expiry}, in the units of {@code clock}, every time it is needed, so
+ * it may move while the value is held. An expired value is never returned.
+ *
+ * Eviction: when a new key arrives and the map is full, expired entries are swept out, at most once per
+ * {@code sweepInterval}. If the map is still full, the soonest-expiring of a few sampled entries is evicted.
+ * A put is therefore never refused; under concurrent writers the size may briefly exceed {@code maxEntries}
+ * by the number of writers. Callers that must not lose a live entry silently can pass an eviction listener.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+public class BoundedExpiringMap<K, V> {
+
+    // The map keeps no expiry order, so eviction compares only a few entries
+    private static final int EVICTION_SAMPLE = 16;
+
+    private final ConcurrentHashMap<K, V> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final ToLongFunction<? super V> expiry;
+    private final LongSupplier clock;
+    private final long sweepInterval;
+    private final BiConsumer<? super K, ? super V> evictionListener;
+    private final AtomicLong lastSweep;
+
+    /**
+     * @param maxEntries The most entries to hold; at least 1.
+     * @param expiry Reads the time at which a value expires.
+     * @param clock The current time, in the same units as {@code expiry} (e.g., System::currentTimeMillis).
+     * @param sweepInterval The minimum time between sweeps of expired entries, in the clock's units.
+     */
+    public BoundedExpiringMap(int maxEntries, ToLongFunction<? super V> expiry, LongSupplier clock, long sweepInterval) {
+        this(maxEntries, expiry, clock, sweepInterval, (key, value) -> { });
+    }
+
+    /**
+     * @param evictionListener Called with each entry evicted to make room (not with expired entries swept out);
+     *                         the entry may itself have expired since the last sweep.
+     */
+    public BoundedExpiringMap(int maxEntries, ToLongFunction<? super V> expiry, LongSupplier clock, long sweepInterval,
+                              BiConsumer<? super K, ? super V> evictionListener) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1, was " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.expiry = expiry;
+        this.clock = clock;
+        this.sweepInterval = sweepInterval;
+        this.evictionListener = evictionListener;
+        this.lastSweep = new AtomicLong(clock.getAsLong() - sweepInterval);
+    }
+
+    /**
+     * @return The value, or null if absent or expired (an expired entry is removed).
+     */
+    public V get(K key) {
+        V value = entries.get(key);
+        if (value == null) {
+            return null;
+        }
+        if (isExpired(value, clock.getAsLong())) {
+            entries.remove(key, value);
+            return null;
+        }
+        return value;
+    }
+
+    /**
+     * Stores the value, evicting another entry first if the key is new and the map is full.
+     */
+    public void put(K key, V value) {
+        if (!entries.containsKey(key)) {
+            makeRoom();
+        }
+        entries.put(key, value);
+    }
+
+    /**
+     * Returns the key's live value, or atomically stores and returns a new one from {@code factory}.
+     */
+    public V getOrCreate(K key, Function<? super K, ? extends V> factory) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        makeRoom();
+        return entries.compute(key,
+                (k, current) -> current != null && !isExpired(current, clock.getAsLong()) ? current : factory.apply(k));
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Drops every expired entry now, regardless of the sweep interval.
+     * @return The number of entries removed.
+     */
+    public int removeExpired() {
+        long now = clock.getAsLong();
+        int before = entries.size();
+        entries.values().removeIf(value -> isExpired(value, now));
+        return Math.max(0, before - entries.size());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    private void makeRoom() {
+        if (entries.size() < maxEntries) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long last = lastSweep.get();
+        if (now - last >= sweepInterval && lastSweep.compareAndSet(last, now)) {
+            entries.values().removeIf(value -> isExpired(value, now));
+        }
+        if (entries.size() >= maxEntries) {
+            evictSoonestExpiring();
+        }
+    }
+
+    private void evictSoonestExpiring() {
+        K victimKey = null;
+        V victim = null;
+        long victimExpiresAt = 0;
+        Iterator<Map.Entry<K, V>> sample = entries.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE && sample.hasNext(); i++) {
+            Map.Entry<K, V> entry = sample.next();
+            // Read once, as the expiry may be moving
+            long expiresAt = expiry.applyAsLong(entry.getValue());
+            if (victim == null || expiresAt - victimExpiresAt < 0) {
+                victimKey = entry.getKey();
+                victim = entry.getValue();
+                victimExpiresAt = expiresAt;
+            }
+        }
+        if (victim != null && entries.remove(victimKey, victim)) {
+            evictionListener.accept(victimKey, victim);
+        }
+    }
+
+    // Compared by difference, so nanoTime-based clocks work across wrap-around
+    private boolean isExpired(V value, long now) {
+        return now - expiry.applyAsLong(value) >= 0;
+    }
+}
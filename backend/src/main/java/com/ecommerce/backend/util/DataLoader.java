@@ -1,10 +1,13 @@
 package com.ecommerce.backend.util;
 
-import com.ecommerce.backend.product.model.Product;
-import com.ecommerce.backend.product.repository.ProductRepository;
-import com.ecommerce.backend.user.model.ERole;
-import com.ecommerce.backend.user.repository.RoleRepository;
-import com.ecommerce.backend.user.repository.UserRepository;
+import com.ecommerce.backend.model.ERole;
+import com.ecommerce.backend.model.Money;
+import com.ecommerce.backend.model.Product;
+import com.ecommerce.backend.model.Role;
+import com.ecommerce.backend.model.User;
+import com.ecommerce.backend.repository.ProductRepository;
+import com.ecommerce.backend.repository.RoleRepository;
+import com.ecommerce.backend.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,7 +16,6 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -60,16 +62,16 @@ public class DataLoader implements CommandLineRunner {
     }
 
     private void createInitialAdminUserIfNotExist() {
-        if (userRepository.findByEmail("admin@example.com").isEmpty()) {
+        if (!userRepository.existsByEmail("admin@example.com")) {
             Set<Role> roles = new HashSet<>();
             roleRepository.findByName(ERole.ROLE_ADMIN).ifPresent(roles::add);
 
             User admin = new User(
                     "AdminUser",
                     "admin@example.com",
-                    encoder.encode("password123"), // Default password for testing
-                    roles
+                    encoder.encode("password123") // Default password for testing
             );
+            admin.setRoles(roles);
             userRepository.save(admin);
             logger.info("Created default ADMIN user: admin@example.com with password 'password123'");
         }
@@ -82,7 +84,7 @@ public class DataLoader implements CommandLineRunner {
             Product p1 = new Product();
             p1.setName("Wireless Noise-Cancelling Headphones");
             p1.setDescription("Premium over-ear headphones with 40-hour battery life and superior audio quality.");
-            p1.setPrice(new BigDecimal("199.99"));
+            p1.setPrice(Money.of("199.99"));
             p1.setStockQuantity(50);
             p1.setAvailable(true);
             productRepository.save(p1);
@@ -91,7 +93,7 @@ public class DataLoader implements CommandLineRunner {
             Product p2 = new Product();
             p2.setName("Mechanical Keyboard (TKL)");
             p2.setDescription("Tenkeyless mechanical keyboard with tactile brown switches. Great for typing and gaming.");
-            p2.setPrice(new BigDecimal("99.50"));
+            p2.setPrice(Money.of("99.50"));
             p2.setStockQuantity(20);
             p2.setAvailable(true);
             productRepository.save(p2);
@@ -100,7 +102,7 @@ public class DataLoader implements CommandLineRunner {
             Product p3 = new Product();
             p3.setName("4K Ultra HD Monitor");
             p3.setDescription("27-inch monitor with 144Hz refresh rate, ideal for creative professionals and gaming.");
-            p3.setPrice(new BigDecimal("499.00"));
+            p3.setPrice(Money.of("499.00"));
             p3.setStockQuantity(0); // Out of stock
             p3.setAvailable(false);
             productRepository.save(p3);
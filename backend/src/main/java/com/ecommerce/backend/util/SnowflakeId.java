@@ -0,0 +1,20 @@
+package com.ecommerce.backend.util;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an entity's Long ID as generated in-process by the {@link SnowflakeIdGenerator}.
+ * Unlike GenerationType.IDENTITY, the ID is known before the INSERT, so Hibernate can batch inserts.
+ * Entities returned by the API pair it with {@code @JsonFormat(shape = JsonFormat.Shape.STRING)}: 64-bit IDs
+ * exceed the integer precision of JavaScript clients.
+ */
+@IdGeneratorType(SnowflakeIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SnowflakeId {
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.backend.util;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates time-ordered, 64-bit unique IDs without a database round trip (Snowflake layout).
+ *
+ * Bit layout, most significant first:
+ *   1 bit  unused sign bit (IDs are always positive)
+ *  41 bits milliseconds since {@link #EPOCH} (~69 years)
+ *  10 bits node ID (0-1023), unique per running application instance
+ *  12 bits per-millisecond sequence (4096 IDs per millisecond per node)
+ *
+ * The last issued timestamp and sequence are packed into a single AtomicLong and advanced with CAS,
+ * so concurrent callers never block. If the sequence overflows, or the wall clock moves backwards,
+ * the generator keeps counting from the last issued timestamp instead of waiting; IDs therefore stay
+ * unique and increasing at the cost of briefly running ahead of the clock.
+ */
+public final class SnowflakeIdGenerator {
+
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+
+    // One generator per node ID, shared by every entity type in the JVM
+    private static final Map<Long, SnowflakeIdGenerator> INSTANCES = new ConcurrentHashMap<>();
+
+    private final long nodeId;
+    private final long epochMillis;
+    private final LongSupplier clock;
+
+    // (timestamp - epoch) << SEQUENCE_BITS | sequence of the last issued ID
+    private final AtomicLong lastState = new AtomicLong();
+
+    SnowflakeIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Snowflake node ID must be between 0 and " + MAX_NODE_ID + ", was " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.epochMillis = EPOCH.toEpochMilli();
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the shared generator for a node.
+     * @param nodeId The node ID (0-1023); must differ between application instances sharing a database.
+     * @return The generator instance.
+     */
+    public static SnowflakeIdGenerator forNode(long nodeId) {
+        return INSTANCES.computeIfAbsent(nodeId, id -> new SnowflakeIdGenerator(id, System::currentTimeMillis));
+    }
+
+    /**
+     * Issues the next ID.
+     * @return A positive, unique ID, greater than every ID previously issued by this generator.
+     */
+    public long nextId() {
+        while (true) {
+            long now = clock.getAsLong() - epochMillis;
+            long previous = lastState.get();
+            long previousTimestamp = previous >>> SEQUENCE_BITS;
+
+            // New millisecond: restart the sequence. Same (or earlier) millisecond: bump the sequence,
+            // carrying into the timestamp field on overflow.
+            long next = now > previousTimestamp ? now << SEQUENCE_BITS : previous + 1;
+
+            if (lastState.compareAndSet(previous, next)) {
+                return (next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT
+                        | nodeId << SEQUENCE_BITS
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Extracts the creation time encoded in an ID.
+     * @param id An ID issued by any node.
+     * @return The instant the ID was issued (to the millisecond).
+     */
+    public static Instant timestampOf(long id) {
+        return EPOCH.plusMillis(id >>> TIMESTAMP_SHIFT);
+    }
+}
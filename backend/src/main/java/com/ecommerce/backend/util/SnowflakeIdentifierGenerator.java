@@ -0,0 +1,47 @@
+package com.ecommerce.backend.util;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+/**
+ * Hibernate adapter for {@link SnowflakeIdGenerator}, activated by the {@link SnowflakeId} annotation.
+ * The node ID is read from the Hibernate setting {@link #NODE_ID_SETTING}. It has no default outside the dev
+ * profile: two instances silently sharing node 0 would generate colliding IDs, so a missing or invalid value
+ * fails startup instead.
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+
+    public static final String NODE_ID_SETTING = "ecommerce.ids.node_id";
+
+    private final SnowflakeIdGenerator generator;
+
+    public SnowflakeIdentifierGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        Object nodeId = context.getServiceRegistry()
+                .getService(ConfigurationService.class)
+                .getSettings()
+                .get(NODE_ID_SETTING);
+        this.generator = SnowflakeIdGenerator.forNode(parseNodeId(nodeId));
+    }
+
+    static long parseNodeId(Object setting) {
+        try {
+            long nodeId = Long.parseLong(String.valueOf(setting).trim());
+            if (nodeId >= 0 && nodeId <= SnowflakeIdGenerator.MAX_NODE_ID) {
+                return nodeId;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below, with the expected range
+        }
+        throw new IllegalStateException("Hibernate setting " + NODE_ID_SETTING + " must be a node ID between 0 and "
+                + SnowflakeIdGenerator.MAX_NODE_ID + ", distinct per instance (set ECOMMERCE_NODE_ID); was: " + setting);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return generator.nextId();
+    }
+}
@@ -0,0 +1,173 @@
+-- Schema as previously generated by spring.jpa.hibernate.ddl-auto=update.
+-- Databases created that way are baselined at this version (spring.flyway.baseline-on-migrate) and start at V2.
+
+create table users (
+    id bigint generated by default as identity,
+    username varchar(20) not null,
+    email varchar(50) not null,
+    password varchar(120) not null,
+    security_version bigint not null,
+    primary key (id),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email)
+);
+
+create table roles (
+    id bigint generated by default as identity,
+    name varchar(20) not null,
+    primary key (id),
+    constraint uk_roles_name unique (name)
+);
+
+create table user_roles (
+    user_id bigint not null,
+    role_id bigint not null,
+    primary key (user_id, role_id),
+    constraint fk_user_roles_user foreign key (user_id) references users (id),
+    constraint fk_user_roles_role foreign key (role_id) references roles (id)
+);
+
+create table categories (
+    id integer generated by default as identity,
+    name varchar(255) not null,
+    primary key (id),
+    constraint uk_categories_name unique (name)
+);
+
+create table products (
+    id bigint generated by default as identity,
+    name varchar(100) not null,
+    description varchar(500),
+    price numeric(10, 2) not null,
+    stock_quantity integer not null,
+    image_url varchar(255),
+    category_id integer,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id),
+    constraint fk_products_category foreign key (category_id) references categories (id)
+);
+
+create table carts (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    total_amount numeric(10, 2),
+    last_modified timestamp(6),
+    primary key (id),
+    constraint uk_carts_user_id unique (user_id),
+    constraint fk_carts_user foreign key (user_id) references users (id)
+);
+
+create table cart_items (
+    id bigint not null,
+    cart_id bigint not null,
+    product_id bigint not null,
+    quantity integer not null,
+    primary key (id),
+    constraint fk_cart_items_cart foreign key (cart_id) references carts (id),
+    constraint fk_cart_items_product foreign key (product_id) references products (id)
+);
+
+create table orders (
+    id bigint not null,
+    user_id bigint not null,
+    order_date timestamp(6) not null,
+    status varchar(20) not null,
+    total_amount numeric(10, 2) not null,
+    shipping_address varchar(255) not null,
+    primary key (id),
+    constraint fk_orders_user foreign key (user_id) references users (id)
+);
+
+create table order_items (
+    id bigint not null,
+    order_id bigint not null,
+    product_id bigint not null,
+    quantity integer not null,
+    price_at_order numeric(10, 2) not null,
+    primary key (id),
+    constraint fk_order_items_order foreign key (order_id) references orders (id),
+    constraint fk_order_items_product foreign key (product_id) references products (id)
+);
+
+create table transactions (
+    id bigint not null,
+    order_id bigint not null,
+    payment_gateway_order_id varchar(255) not null,
+    payment_gateway_payment_id varchar(255),
+    amount_paid numeric(10, 2) not null,
+    currency varchar(255) not null,
+    status varchar(255) not null,
+    transaction_date timestamp(6),
+    signature varchar(255),
+    primary key (id),
+    constraint uk_transactions_order_id unique (order_id),
+    constraint fk_transactions_order foreign key (order_id) references orders (id)
+);
+
+create index idx_transactions_pg_order_id on transactions (payment_gateway_order_id);
+create index idx_transactions_pg_payment_id on transactions (payment_gateway_payment_id);
+
+-- Archive tables: flat copies of finished orders, no foreign keys
+create table orders_archive (
+    id bigint not null,
+    user_id bigint not null,
+    order_date timestamp(6) not null,
+    status varchar(20) not null,
+    total_amount numeric(10, 2) not null,
+    shipping_address varchar(255) not null,
+    payment_gateway_order_id varchar(255),
+    payment_gateway_payment_id varchar(255),
+    payment_status varchar(255),
+    archived_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index idx_orders_archive_user_date on orders_archive (user_id, order_date);
+
+create table order_items_archive (
+    id bigint not null,
+    order_id bigint not null,
+    product_id bigint not null,
+    product_name varchar(255),
+    quantity integer not null,
+    price_at_order numeric(10, 2) not null,
+    primary key (id)
+);
+
+create index idx_order_items_archive_order on order_items_archive (order_id);
+
+create table outbox_events (
+    id bigint not null,
+    aggregate_type varchar(50) not null,
+    aggregate_id bigint not null,
+    event_type varchar(50) not null,
+    payload varchar(4000) not null,
+    created_at timestamp(6) not null,
+    published_at timestamp(6),
+    attempts integer not null,
+    primary key (id)
+);
+
+create index idx_outbox_events_pending on outbox_events (published_at, id);
+
+create table revoked_tokens (
+    id bigint not null,
+    jti varchar(64),
+    user_id bigint not null,
+    revoked_at timestamp(6) not null,
+    expires_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index idx_revoked_tokens_revoked_at on revoked_tokens (revoked_at);
+create index idx_revoked_tokens_expires_at on revoked_tokens (expires_at);
+
+create table rate_limit_counters (
+    id varchar(200) not null,
+    request_count bigint not null,
+    expires_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index idx_rate_limit_counters_expires_at on rate_limit_counters (expires_at);
@@ -0,0 +1,15 @@
+-- Indexes for the hot access paths. ddl-auto only indexed primary keys and unique columns, so these lookups
+-- scanned whole tables (on databases that do not index foreign keys automatically).
+-- carts.user_id needs nothing new: it is covered by uk_carts_user_id.
+
+-- Order history of a user, by date (OrderRepository.findByUser)
+create index idx_orders_user_date on orders (user_id, order_date);
+
+-- Lines of an order (Order.items, OrderItemRepository.findByOrder / deleteByOrderIds, archiving)
+create index idx_order_items_order on order_items (order_id);
+
+-- Lines of a cart, and the line for a given product in it (Cart.items)
+create index idx_cart_items_cart_product on cart_items (cart_id, product_id);
+
+-- Products by category, by price (ProductRepository.findByCategoryName)
+create index idx_products_category_price on products (category_id, price);
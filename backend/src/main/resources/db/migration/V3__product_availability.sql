@@ -0,0 +1,3 @@
+-- Products can be unlisted without being deleted (order lines keep referencing them).
+-- Existing products stay listed.
+alter table products add column available boolean default true not null;
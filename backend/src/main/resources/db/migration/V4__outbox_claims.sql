@@ -0,0 +1,8 @@
+-- OutboxRelay claims the events it delivers (claimed_by / claimed_until), so several instances never publish
+-- the same event, and gives up on an event after a number of failed attempts (dead_lettered_at).
+alter table outbox_events add column claimed_by varchar(36);
+alter table outbox_events add column claimed_until timestamp(6);
+alter table outbox_events add column dead_lettered_at timestamp(6);
+
+-- Older pending events of the same aggregate (OutboxEventRepository.findPending)
+create index idx_outbox_events_aggregate on outbox_events (aggregate_id, aggregate_type, id);
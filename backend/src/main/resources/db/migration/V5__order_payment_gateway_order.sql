@@ -0,0 +1,5 @@
+-- The gateway order created for an order (PaymentService.createPaymentOrder), so a webhook that only names the
+-- gateway order still resolves while the order is pending, after PendingPaymentRegistry has forgotten it
+alter table orders add column payment_gateway_order_id varchar(255);
+
+create index idx_orders_pg_order_id on orders (payment_gateway_order_id);
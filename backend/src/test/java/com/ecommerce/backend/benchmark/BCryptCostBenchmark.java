@@ -0,0 +1,41 @@
+package com.ecommerce.backend.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calibrates ecommerce.app.passwordHashing.cost: the time one login's BCrypt verification takes on this
+ * hardware at each cost factor. Each step doubles the work.
+ *
+ * Pick the highest cost whose score stays within the per-login budget (roughly 50-100 ms), then check that
+ * passwordHashing.threads divided by that time covers the expected peak login rate.
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=BCryptCostBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BCryptCostBenchmark {
+
+    @Param({"10", "11", "12", "13"})
+    public int cost;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(cost);
+        hash = encoder.encode("correct horse battery staple");
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return encoder.matches("correct horse battery staple", hash);
+    }
+}
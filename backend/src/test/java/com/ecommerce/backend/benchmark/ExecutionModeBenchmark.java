@@ -0,0 +1,147 @@
+package com.ecommerce.backend.benchmark;
+
+import com.ecommerce.backend.EcommerceAppApplication;
+import com.ecommerce.backend.model.Money;
+import com.ecommerce.backend.model.Product;
+import com.ecommerce.backend.model.User;
+import com.ecommerce.backend.repository.ProductRepository;
+import com.ecommerce.backend.repository.UserRepository;
+import com.ecommerce.backend.security.jwt.JwtUtils;
+import com.ecommerce.backend.security.services.CustomUserDetails;
+import com.ecommerce.backend.service.CartService;
+import com.ecommerce.backend.service.CatalogSnapshotService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform vs virtual request threads (spring.threads.virtual.enabled) under load: one operation is a burst of
+ * {@code concurrency} simultaneous requests against the running application, timed until the last response.
+ * The catalog burst reads the product list through ProductController; the snapshot burst reads the same products
+ * from /api/catalog/products (CatalogSnapshotFilter: JWT authentication, but no JPA or serialization); the cart
+ * burst reads one user's cart.
+ *
+ * With concurrency above server.tomcat.threads.max (200), platform mode queues the excess behind the pool;
+ * in virtual mode every request gets a thread and the connection limiter queues them for the pool instead.
+ * Against the in-memory H2 database the queries barely block, so expect the gap to grow with real database
+ * latency; compare both modes on the same hardware and database.
+ *
+ * The virtual mode needs a Java 21 runtime (it fails setup on older ones).
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ExecutionModeBenchmark
+ * One mode only: -Dbenchmark="ExecutionModeBenchmark -p mode=platform"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutionModeBenchmark {
+
+    private static final int PRODUCTS = 50;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"50", "400"})
+    public int concurrency;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest catalogRequest;
+    private HttpRequest snapshotRequest;
+    private HttpRequest cartRequest;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(EcommerceAppApplication.class)
+                .profiles("dev")
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + mode.equals("virtual"),
+                        "spring.datasource.url=jdbc:h2:mem:bench_" + mode + ";DB_CLOSE_DELAY=-1",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        ProductRepository products = context.getBean(ProductRepository.class);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Benchmark product " + i);
+            product.setDescription("Seeded by ExecutionModeBenchmark");
+            product.setPrice(Money.of("19.99"));
+            product.setStockQuantity(1000);
+            products.save(product);
+        }
+        // Seeded after the startup build, like another instance's writes
+        context.getBean(CatalogSnapshotService.class).rebuild();
+        // CartController serves the cart of user 1
+        User user = context.getBean(UserRepository.class)
+                .save(new User("benchmark_user", "benchmark@example.com", "unused"));
+        context.getBean(CartService.class).getCartByUserId(user.getId());
+
+        CustomUserDetails details = CustomUserDetails.build(user);
+        String token = context.getBean(JwtUtils.class)
+                .generateJwtToken(new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        catalogRequest = get(port, "/api/products", token);
+        snapshotRequest = get(port, "/api/catalog/products", token);
+        cartRequest = get(port, "/api/v1/cart", token);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int catalogBurst() {
+        return burst(catalogRequest);
+    }
+
+    @Benchmark
+    public int snapshotBurst() {
+        return burst(snapshotRequest);
+    }
+
+    @Benchmark
+    public int cartBurst() {
+        return burst(cartRequest);
+    }
+
+    private int burst(HttpRequest request) {
+        List<CompletableFuture<HttpResponse<byte[]>>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()));
+        }
+        int bytes = 0;
+        for (CompletableFuture<HttpResponse<byte[]>> future : responses) {
+            HttpResponse<byte[]> response = future.join();
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+            }
+            bytes += response.body().length;
+        }
+        return bytes;
+    }
+
+    private static HttpRequest get(int port, String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+}
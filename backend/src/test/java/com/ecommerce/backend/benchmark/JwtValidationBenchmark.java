@@ -0,0 +1,69 @@
+package com.ecommerce.backend.benchmark;
+
+import com.ecommerce.backend.security.jwt.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT cost in AuthTokenFilter: the previous path (key and parser rebuilt for every call,
+ * token parsed once to validate and again to read the subject) against JwtUtils.parseClaims
+ * (cached key and parser, one parse), and a repeat of an already-verified token (verified-token cache).
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=JwtValidationBenchmark
+ * Compare the us/op score and gc.alloc.rate.norm (bytes allocated per operation).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtValidationBenchmark {
+
+    // Same development key as application.properties
+    private static final String SECRET = "bG9uZ1NlY3JldEtleUZvckVjb21tZXJjZUFwcGxpY2F0aW9uV2l0aEpXVC1TZWN1cml0eQ==";
+
+    private JwtUtils jwtUtils;
+    private JwtUtils cachingJwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils(SECRET, 86_400_000, false);
+        cachingJwtUtils = new JwtUtils(SECRET, 86_400_000, false, 10_000, 300_000);
+        token = Jwts.builder()
+                .setSubject("benchmark_user")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 86_400_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public String rebuiltKeyParsedTwice() {
+        // validateJwtToken(...)
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build().parse(token);
+        // getUserNameFromJwtToken(...)
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String cachedParserSingleParse() {
+        Claims claims = jwtUtils.parseClaims(token);
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public String verifiedTokenCacheHit() {
+        Claims claims = cachingJwtUtils.parseClaims(token);
+        return claims.getSubject();
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.backend.benchmark;
+
+import com.ecommerce.backend.model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares cart/order total calculation with BigDecimal (previous implementation)
+ * against the long-based Money type.
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=MoneyArithmeticBenchmark
+ * Compare the ops/us score and gc.alloc.rate.norm (bytes allocated per operation).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyArithmeticBenchmark {
+
+    // Number of lines in the cart/order
+    @Param({"5", "50"})
+    public int lines;
+
+    private BigDecimal[] decimalPrices;
+    private Money[] moneyPrices;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        decimalPrices = new BigDecimal[lines];
+        moneyPrices = new Money[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            long minor = 100 + random.nextInt(100_000);
+            decimalPrices[i] = BigDecimal.valueOf(minor, 2);
+            moneyPrices[i] = Money.ofMinor(minor);
+            quantities[i] = 1 + random.nextInt(5);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalTotal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            total = total.add(decimalPrices[i].multiply(new BigDecimal(quantities[i])));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money moneyTotal() {
+        long totalMinor = 0L;
+        for (int i = 0; i < lines; i++) {
+            totalMinor = Math.addExact(totalMinor, moneyPrices[i].timesMinorUnits(quantities[i]));
+        }
+        return Money.ofMinor(totalMinor);
+    }
+}
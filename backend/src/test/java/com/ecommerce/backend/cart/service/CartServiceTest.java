@@ -1,28 +1,24 @@
-// src/test/java/com/ecommerce/backend/cart/service/CartServiceTest.java
-
 package com.ecommerce.backend.cart.service;
 
-import com.ecommerce.backend.cart.dto.CartItemRequestDto;
-import com.ecommerce.backend.cart.model.Cart;
-import com.ecommerce.backend.cart.model.CartItem;
-import com.ecommerce.backend.cart.repository.CartItemRepository;
-import com.ecommerce.backend.cart.repository.CartRepository;
-import com.ecommerce.backend.product.model.Product;
-import com.ecommerce.backend.product.repository.ProductRepository;
+import com.ecommerce.backend.exception.ResourceNotFoundException;
+import com.ecommerce.backend.model.Cart;
+import com.ecommerce.backend.model.CartItem;
+import com.ecommerce.backend.model.Money;
+import com.ecommerce.backend.model.Product;
+import com.ecommerce.backend.model.User;
+import com.ecommerce.backend.repository.CartItemRepository;
+import com.ecommerce.backend.repository.CartRepository;
+import com.ecommerce.backend.repository.ProductRepository;
+import com.ecommerce.backend.repository.UserRepository;
+import com.ecommerce.backend.service.CartServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
-
-import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List; // Added for correct List creation
+
+import java.util.HashSet;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,167 +37,132 @@ public class CartServiceTest {
     private UserRepository userRepository;
 
     @InjectMocks
-    private CartService cartService;
+    private CartServiceImpl cartService;
 
-    private User testUser;
     private Product testProduct;
     private Cart testCart;
-    private String username = "testuser";
 
+    // Every test resolves user 1 and its cart; not every test gets as far as saving it
     @BeforeEach
     void setUp() {
-        // Mock Security Context (User Login)
-        testUser = new User();
-        testUser.setUsername(username);
-
-        Authentication authentication = mock(Authentication.class);
-        SecurityContext securityContext = mock(SecurityContext.class);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        SecurityContextHolder.setContext(securityContext);
-        when(authentication.getName()).thenReturn(username);
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(testUser));
-
-        // Mock Product
+        User testUser = new User("testuser", "test@example.com", "secret");
+        testUser.setId(1L);
+        lenient().when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
         testProduct = new Product();
         testProduct.setId(1L);
         testProduct.setName("Test Product");
-        testProduct.setPrice(new BigDecimal("50.00"));
+        testProduct.setPrice(Money.of("50.00"));
         testProduct.setStockQuantity(5);
 
-        // Mock Cart
         testCart = new Cart();
         testCart.setId(1L);
         testCart.setUser(testUser);
-        testCart.setItems(new ArrayList<>());
+        testCart.setItems(new HashSet<>());
+        lenient().when(cartRepository.findByUser(testUser)).thenReturn(Optional.of(testCart));
+        lenient().when(cartRepository.save(testCart)).thenReturn(testCart);
     }
 
-    @Test
-    void addProductToCart_AddNewItem_Success() {
-        // ARRANGE: FIX DTO Instantiation
-        CartItemRequestDto request = new CartItemRequestDto();
-        request.setProductId(1L);
-        request.setQuantity(1);
+    private CartItem line(Cart cart, int quantity) {
+        CartItem item = new CartItem();
+        item.setCart(cart);
+        item.setProduct(testProduct);
+        item.setQuantity(quantity);
+        cart.getItems().add(item);
+        return item;
+    }
 
-        when(cartRepository.findByUser(testUser)).thenReturn(Optional.of(testCart));
+    @Test
+    void addToCart_AddNewItem_Success() {
+        // ARRANGE
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(cartItemRepository.findByCartAndProduct(any(Cart.class), any(Product.class)))
-                .thenReturn(Optional.empty()); // Item does not exist
-
-        // Mock the cart item repository to return the new item list for total calculation
-        when(cartItemRepository.findByCart(testCart)).thenReturn(
-                List.of(new CartItem(null, testCart, testProduct, 1))); // Use List.of for concise list creation
+        when(cartItemRepository.save(any(CartItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // ACT
-        Cart result = cartService.addProductToCart(request);
+        Cart result = cartService.addToCart(1L, 1L, 1);
 
         // ASSERT
         verify(cartItemRepository, times(1)).save(any(CartItem.class));
-        assertEquals(50.00, result.getTotalAmount()); // 1 * 50.00
+        assertEquals(1, result.getItems().size());
+        assertEquals(Money.of("50.00"), result.getTotalAmount()); // 1 * 50.00
     }
 
     @Test
-    void addProductToCart_UpdateExistingItem_Success() {
+    void addToCart_UpdateExistingItem_Success() {
         // ARRANGE: Item already exists with quantity 3
-        CartItem existingItem = new CartItem(null, testCart, testProduct, 3);
-
-        // FIX DTO Instantiation
-        CartItemRequestDto request = new CartItemRequestDto();
-        request.setProductId(1L);
-        request.setQuantity(2); // Adding 2 more
-
-        when(cartRepository.findByUser(testUser)).thenReturn(Optional.of(testCart));
+        CartItem existingItem = line(testCart, 3);
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(cartItemRepository.findByCartAndProduct(any(Cart.class), any(Product.class)))
-                .thenReturn(Optional.of(existingItem)); // Item exists
 
-        // Mock total calculation: 3 + 2 = 5 items
-        when(cartItemRepository.findByCart(testCart)).thenReturn(
-                List.of(new CartItem(null, testCart, testProduct, 5)));
+        // ACT: Adding 2 more
+        Cart result = cartService.addToCart(1L, 1L, 2);
 
-        // ACT
-        Cart result = cartService.addProductToCart(request);
-
-        // ASSERT
-        // Quantity should be updated from 3 to 5
+        // ASSERT: Quantity should be updated from 3 to 5
         assertEquals(5, existingItem.getQuantity());
         verify(cartItemRepository, times(1)).save(existingItem);
-        assertEquals(250.00, result.getTotalAmount()); // 5 * 50.00
+        assertEquals(Money.of("250.00"), result.getTotalAmount()); // 5 * 50.00
     }
 
     @Test
-    void addProductToCart_InsufficientStock_ThrowsException() {
+    void addToCart_InsufficientStock_ThrowsException() {
         // ARRANGE: Only 5 in stock, request is for 6
-        CartItemRequestDto request = new CartItemRequestDto();
-        request.setProductId(1L);
-        request.setQuantity(6);
-
-        when(cartRepository.findByUser(testUser)).thenReturn(Optional.of(testCart));
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
 
         // ACT & ASSERT
-        RuntimeException exception = assertThrows(RuntimeException.class,
-                () -> cartService.addProductToCart(request));
-
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> cartService.addToCart(1L, 1L, 6));
         assertTrue(exception.getMessage().contains("Insufficient stock"));
 
         // Ensure no save operation was attempted
         verify(cartItemRepository, never()).save(any());
     }
 
-    // --- FIX: Tests were moved here to correct scoping ---
+    @Test
+    void addToCart_NonPositiveQuantity_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> cartService.addToCart(1L, 1L, 0));
+
+        verify(cartItemRepository, never()).save(any());
+    }
 
     @Test
     void updateCartItemQuantity_ToNewValue_Success() {
-        // ARRANGE: Item exists with ID 10 and current quantity 2
-        CartItem itemToUpdate = new CartItem(10L, testCart, testProduct, 2);
-        when(cartItemRepository.findById(10L)).thenReturn(Optional.of(itemToUpdate));
-        when(cartRepository.findByUser(testUser)).thenReturn(Optional.of(testCart)); // Cart matches
+        // ARRANGE: Item exists with quantity 2
+        CartItem itemToUpdate = line(testCart, 2);
 
-        // Mock total calculation for new quantity 4
-        when(cartItemRepository.findByCart(testCart)).thenReturn(
-                List.of(new CartItem(10L, testCart, testProduct, 4)));
-
-        // ACT
-        Cart result = cartService.updateCartItemQuantity(10L, 4); // Update to 4
+        // ACT: Update to 4
+        Cart result = cartService.updateCartItemQuantity(1L, 1L, 4);
 
         // ASSERT
         verify(cartItemRepository, times(1)).save(itemToUpdate);
-        assertEquals(4, itemToUpdate.getQuantity()); // Quantity updated
-        assertEquals(200.00, result.getTotalAmount()); // 4 * 50.00
+        assertEquals(4, itemToUpdate.getQuantity());
+        assertEquals(Money.of("200.00"), result.getTotalAmount()); // 4 * 50.00
     }
 
     @Test
     void updateCartItemQuantity_ToZero_RemovesItem() {
-        // ARRANGE: Item exists with ID 10
-        CartItem itemToRemove = new CartItem(10L, testCart, testProduct, 2);
-        when(cartItemRepository.findById(10L)).thenReturn(Optional.of(itemToRemove));
-        when(cartRepository.findByUser(testUser)).thenReturn(Optional.of(testCart));
-
-        // Mock total calculation for quantity 0 (empty cart)
-        when(cartItemRepository.findByCart(testCart)).thenReturn(Collections.emptyList());
+        // ARRANGE
+        CartItem itemToRemove = line(testCart, 2);
 
         // ACT
-        cartService.updateCartItemQuantity(10L, 0); // Update to 0
+        Cart result = cartService.updateCartItemQuantity(1L, 1L, 0);
 
         // ASSERT
         verify(cartItemRepository, times(1)).delete(itemToRemove);
+        assertTrue(result.getItems().isEmpty());
+        assertEquals(Money.ZERO, result.getTotalAmount());
     }
 
     @Test
-    void updateCartItemQuantity_AccessDenied_ThrowsException() {
-        // ARRANGE: Create an item belonging to a DIFFERENT cart
+    void updateCartItemQuantity_ItemInAnotherUsersCart_ThrowsException() {
+        // ARRANGE: the product is only in a DIFFERENT user's cart
         Cart otherCart = new Cart();
         otherCart.setId(99L);
-        CartItem itemToUpdate = new CartItem(10L, otherCart, testProduct, 2);
+        otherCart.setItems(new HashSet<>());
+        CartItem otherItem = line(otherCart, 2);
 
-        when(cartItemRepository.findById(10L)).thenReturn(Optional.of(itemToUpdate));
-        when(cartRepository.findByUser(testUser)).thenReturn(Optional.of(testCart)); // Current user's cart is ID 1
+        // ACT & ASSERT: lookups only go through the current user's cart, so the line is unreachable
+        assertThrows(ResourceNotFoundException.class, () -> cartService.updateCartItemQuantity(1L, 1L, 1));
 
-        // ACT & ASSERT
-        // Expect failure because itemToUpdate.cart.id (99) != testCart.id (1)
-        RuntimeException exception = assertThrows(RuntimeException.class,
-                () -> cartService.updateCartItemQuantity(10L, 1));
-
-        assertTrue(exception.getMessage().contains("Access denied"));
+        assertEquals(2, otherItem.getQuantity());
+        verify(cartItemRepository, never()).save(any());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,149 @@
+package com.ecommerce.backend.catalog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogSnapshotFilterTest {
+
+    private final FilterChain chain = mock(FilterChain.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CatalogSnapshot snapshot;
+    private CatalogSnapshotFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = CatalogSnapshot.of(Map.of(
+                1L, "{\"id\":1}".getBytes(StandardCharsets.UTF_8),
+                7L, "{\"id\":7}".getBytes(StandardCharsets.UTF_8)));
+        filter = new CatalogSnapshotFilter(() -> snapshot, 30_000, meterRegistry);
+    }
+
+    private MockHttpServletResponse get(String path, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void list_IsServedFromTheSnapshotWithoutTheChain() throws Exception {
+        // ACT
+        MockHttpServletResponse response = get("/api/catalog/products", null);
+
+        // ASSERT
+        assertEquals(200, response.getStatus());
+        assertEquals("[{\"id\":1},{\"id\":7}]", response.getContentAsString());
+        assertEquals("application/json", response.getContentType());
+        assertEquals(snapshot.list().etag(), response.getHeader("ETag"));
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void product_IsServedByIdAndUnknownIdsAre404() throws Exception {
+        assertEquals("{\"id\":7}", get("/api/catalog/products/7", null).getContentAsString());
+        assertEquals(404, get("/api/catalog/products/8", null).getStatus());
+        assertEquals(1.0, meterRegistry.get("catalog.snapshot.requests").tag("result", "not_found").counter().count());
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void matchingETag_Gets304WithoutABody() throws Exception {
+        // ACT
+        MockHttpServletResponse response = get("/api/catalog/products/1", snapshot.product(1).etag());
+
+        // ASSERT
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void changedSnapshot_IsServedOnTheNextRequest() throws Exception {
+        // ARRANGE
+        String oldEtag = get("/api/catalog/products", null).getHeader("ETag");
+
+        // ACT
+        snapshot = snapshot.without(7L);
+        MockHttpServletResponse response = get("/api/catalog/products", oldEtag);
+
+        // ASSERT
+        assertEquals(200, response.getStatus());
+        assertEquals("[{\"id\":1}]", response.getContentAsString());
+    }
+
+    @Test
+    void otherRequests_PassThrough() throws Exception {
+        get("/api/catalog/products/abc", null);
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/api/catalog/products");
+        filter.doFilter(post, new MockHttpServletResponse(), chain);
+
+        verify(chain, times(2)).doFilter(any(), any());
+    }
+
+    @Test
+    void parseId_AcceptsDigitsAndATrailingSlashOnly() {
+        int start = CatalogSnapshotFilter.PRODUCTS_PATH.length() + 1;
+        assertEquals(42, CatalogSnapshotFilter.parseId("/api/catalog/products/42", start));
+        assertEquals(42, CatalogSnapshotFilter.parseId("/api/catalog/products/42/", start));
+        assertEquals(-1, CatalogSnapshotFilter.parseId("/api/catalog/products/-4", start));
+        assertEquals(-1, CatalogSnapshotFilter.parseId("/api/catalog/products/", start));
+        assertEquals(-1, CatalogSnapshotFilter.parseId("/api/catalog/products/99999999999999999999", start));
+    }
+
+    @Test
+    void bodyWriter_WritesOnlyWhileTheConnectionIsReadyThenCompletes() throws Exception {
+        // ARRANGE: a connection that accepts two chunks per onWritePossible call
+        byte[] json = new byte[20_000];
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        int[] budget = {0};
+        ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return budget[0]-- > 0;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+            }
+
+            @Override
+            public void write(int b) {
+                written.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                written.write(b, off, len);
+            }
+        };
+        AsyncContext async = mock(AsyncContext.class);
+        CatalogSnapshotFilter.BodyWriter writer = new CatalogSnapshotFilter.BodyWriter(json, out, async);
+
+        // ACT & ASSERT
+        budget[0] = 2;
+        writer.onWritePossible();
+        assertEquals(16_384, written.size());
+        verify(async, never()).complete();
+
+        budget[0] = 2;
+        writer.onWritePossible();
+        assertEquals(20_000, written.size());
+        verify(async).complete();
+    }
+}
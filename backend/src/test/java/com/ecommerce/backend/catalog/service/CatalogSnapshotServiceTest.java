@@ -0,0 +1,122 @@
+package com.ecommerce.backend.catalog.service;
+
+import com.ecommerce.backend.catalog.CatalogSnapshot;
+import com.ecommerce.backend.model.Money;
+import com.ecommerce.backend.model.Product;
+import com.ecommerce.backend.repository.ProductRepository;
+import com.ecommerce.backend.service.CatalogSnapshotService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogSnapshotServiceTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CatalogSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findAll()).thenReturn(List.of(product(2L, "Mug", "8.50"), product(1L, "Lamp", "25.00")));
+        service = new CatalogSnapshotService(productRepository, mock(PlatformTransactionManager.class),
+                new ObjectMapper(), meterRegistry);
+        service.rebuild();
+    }
+
+    private static Product product(Long id, String name, String price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(Money.of(price));
+        product.setStockQuantity(3);
+        return product;
+    }
+
+    private static String json(CatalogSnapshot.Body body) {
+        return new String(body.json(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void rebuild_SerializesEveryProductOnceOrderedById() {
+        // ACT
+        CatalogSnapshot snapshot = service.current();
+
+        // ASSERT
+        assertEquals(2, snapshot.size());
+        String list = json(snapshot.list());
+        assertTrue(list.startsWith("[{\"id\":1,\"name\":\"Lamp\""), list);
+        assertTrue(list.contains("},{\"id\":2,\"name\":\"Mug\""), list);
+        assertTrue(list.endsWith("}]"), list);
+        assertTrue(json(snapshot.product(2)).contains("\"categoryId\":null"));
+        assertEquals(2.0, meterRegistry.get("catalog.snapshot.products").gauge().value());
+    }
+
+    @Test
+    void refreshProduct_ReplacesOnlyThatProductAndSwapsTheSnapshot() {
+        // ARRANGE
+        CatalogSnapshot before = service.current();
+        when(productRepository.findById(2L)).thenReturn(Optional.of(product(2L, "Large mug", "9.00")));
+
+        // ACT
+        service.refreshProduct(2L);
+
+        // ASSERT
+        CatalogSnapshot after = service.current();
+        assertNotSame(before, after);
+        assertTrue(json(after.product(2)).contains("Large mug"));
+        assertSame(before.product(1), after.product(1));
+        assertNotEquals(before.list().etag(), after.list().etag());
+        // Readers holding the old snapshot still see a consistent catalog
+        assertTrue(json(before.product(2)).contains("\"Mug\""));
+        verify(productRepository, times(1)).findAll();
+    }
+
+    @Test
+    void refreshProduct_DropsADeletedProduct() {
+        // ARRANGE
+        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // ACT
+        service.refreshProduct(1L);
+
+        // ASSERT
+        assertNull(service.current().product(1));
+        assertTrue(json(service.current().list()).startsWith("[{\"id\":2,"));
+    }
+
+    @Test
+    void unavailableProducts_AreLeftOut() {
+        // ARRANGE: an unlisted product, and the mug unlisted by an admin
+        Product unlisted = product(3L, "Prototype", "99.00");
+        unlisted.setAvailable(false);
+        when(productRepository.findAll()).thenReturn(List.of(product(1L, "Lamp", "25.00"), unlisted));
+        Product mug = product(2L, "Mug", "8.50");
+        mug.setAvailable(false);
+        when(productRepository.findById(2L)).thenReturn(Optional.of(mug));
+
+        // ACT
+        service.rebuild();
+        service.refreshProduct(2L);
+
+        // ASSERT
+        assertEquals(1, service.current().size());
+        assertNull(service.current().product(3));
+        assertNull(service.current().product(2));
+        assertFalse(json(service.current().list()).contains("Prototype"));
+    }
+
+    @Test
+    void emptyCatalog_IsAnEmptyArray() {
+        assertEquals("[]", json(CatalogSnapshot.EMPTY.list()));
+        assertSame(CatalogSnapshot.EMPTY, CatalogSnapshot.EMPTY.without(1L));
+    }
+}
@@ -0,0 +1,155 @@
+package com.ecommerce.backend.catalog.service;
+
+import com.ecommerce.backend.model.Category;
+import com.ecommerce.backend.model.ERole;
+import com.ecommerce.backend.model.Money;
+import com.ecommerce.backend.model.Product;
+import com.ecommerce.backend.model.ReferenceDataRegions;
+import com.ecommerce.backend.model.Role;
+import com.ecommerce.backend.service.ReferenceDataCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs Hibernate with the application's cache settings and ehcache.xml against an in-memory H2 database,
+ * counting the SQL statements each lookup needs.
+ */
+public class ReferenceDataCacheServiceTest {
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+    private SimpleMeterRegistry meterRegistry;
+    private ReferenceDataCacheService referenceDataCache;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Product.class)
+                .addAnnotatedClass(Category.class)
+                .addAnnotatedClass(Role.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:reference_data_cache;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("jakarta.persistence.validation.mode", "none")
+                .setProperty("hibernate.cache.use_second_level_cache", "true")
+                .setProperty("hibernate.cache.use_query_cache", "true")
+                .setProperty("hibernate.cache.region.factory_class", "jcache")
+                .setProperty("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider")
+                .setProperty("hibernate.javax.cache.uri", "ehcache.xml")
+                .setProperty("hibernate.javax.cache.missing_cache_strategy", "fail")
+                .setProperty("hibernate.generate_statistics", "true")
+                .buildSessionFactory();
+        statistics = sessionFactory.getStatistics();
+        meterRegistry = new SimpleMeterRegistry();
+        referenceDataCache = new ReferenceDataCacheService(sessionFactory, meterRegistry);
+
+        sessionFactory.inTransaction(session -> {
+            session.persist(new Product(null, "Laptop", "14 inch", Money.of("999.99"), 10, null, true, null, null, null));
+            session.persist(new Category(null, "Electronics"));
+            session.persist(new Category(null, "Books"));
+            session.persist(new Role(ERole.ROLE_USER));
+        });
+        productId = sessionFactory.fromSession(session ->
+                session.createQuery("select p.id from Product p", Long.class).getSingleResult());
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void productLookup_IsServedFromSecondLevelCache() {
+        // ARRANGE
+        loadProduct();
+        statistics.clear();
+
+        // ACT
+        loadProduct();
+        loadProduct();
+
+        // ASSERT
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getCacheRegionStatistics(ReferenceDataRegions.PRODUCTS).getHitCount());
+        assertEquals(2.0, meterRegistry.get("hibernate.cache.region.requests")
+                .tags("region", ReferenceDataRegions.PRODUCTS, "result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void evictProduct_NextLookupReadsDatabase() {
+        // ARRANGE
+        loadProduct();
+
+        // ACT
+        referenceDataCache.evictProduct(productId);
+        statistics.clear();
+        loadProduct();
+        loadProduct();
+
+        // ASSERT
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1.0, meterRegistry.get("hibernate.cache.region.requests")
+                .tags("region", ReferenceDataRegions.PRODUCTS, "result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void categoryListing_IsServedFromQueryCache() {
+        // ACT
+        List<Category> first = listCategories();
+        List<Category> second = listCategories();
+
+        // ASSERT
+        assertEquals(2, first.size());
+        assertEquals(2, second.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getCacheRegionStatistics(ReferenceDataRegions.CATEGORY_LISTINGS).getHitCount());
+    }
+
+    @Test
+    void categoryWrite_InvalidatesListing() {
+        // ARRANGE
+        listCategories();
+
+        // ACT
+        sessionFactory.inTransaction(session -> session.persist(new Category(null, "Toys")));
+        List<Category> afterWrite = listCategories();
+
+        // ASSERT
+        assertEquals(3, afterWrite.size());
+    }
+
+    @Test
+    void evictCategories_NextListingReadsDatabase() {
+        // ARRANGE
+        listCategories();
+
+        // ACT
+        referenceDataCache.evictCategories();
+        statistics.clear();
+        listCategories();
+
+        // ASSERT
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private void loadProduct() {
+        sessionFactory.inSession(session -> session.find(Product.class, productId));
+    }
+
+    private List<Category> listCategories() {
+        return sessionFactory.fromSession(session -> session.createQuery("from Category", Category.class)
+                .setCacheable(true)
+                .setCacheRegion(ReferenceDataRegions.CATEGORY_LISTINGS)
+                .getResultList());
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.backend.config.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbc.JdbcConnection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionLimitingDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        DriverManagerDataSource pool = new DriverManagerDataSource("jdbc:h2:mem:limiter;DB_CLOSE_DELAY=-1", "sa", "");
+        dataSource = new ConnectionLimitingDataSource("test", pool, 2, 50, meterRegistry);
+    }
+
+    @Test
+    void failsOnceAllPermitsAreHeldPastTheWait() throws Exception {
+        // ARRANGE
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            // ACT & ASSERT
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+            assertEquals(1.0, meterRegistry.counter("jdbc.connections.limiter.timeouts", "pool", "test").count());
+            assertEquals(0, dataSource.availablePermits());
+        }
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    void waitingCallerGetsTheConnectionReleasedByClose() throws Exception {
+        // ARRANGE
+        ConnectionLimitingDataSource patient = new ConnectionLimitingDataSource("patient",
+                new DriverManagerDataSource("jdbc:h2:mem:limiter;DB_CLOSE_DELAY=-1", "sa", ""), 1, 5000, meterRegistry);
+        Connection held = patient.getConnection();
+
+        // ACT
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try (Connection connection = patient.getConnection()) {
+                return connection.isValid(1);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (meterRegistry.get("jdbc.connections.limiter.waiting").tag("pool", "patient").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+        held.close();
+
+        // ASSERT
+        assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, patient.availablePermits());
+    }
+
+    @Test
+    void repeatedCloseReturnsThePermitOnce() throws Exception {
+        // ARRANGE
+        Connection connection = dataSource.getConnection();
+
+        // ACT
+        connection.close();
+        connection.close();
+
+        // ASSERT
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    void permitIsReturnedWhenThePoolFails() {
+        // ARRANGE
+        ConnectionLimitingDataSource broken = new ConnectionLimitingDataSource("broken",
+                new DriverManagerDataSource("jdbc:unknown:nothing"), 1, 50, meterRegistry);
+
+        // ACT
+        assertThrows(SQLException.class, broken::getConnection);
+
+        // ASSERT
+        assertEquals(1, broken.availablePermits());
+    }
+
+    @Test
+    void otherCallsReachTheUnderlyingConnection() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             ResultSet rs = connection.createStatement().executeQuery("select 42")) {
+            assertTrue(rs.next());
+            assertEquals(42, rs.getInt(1));
+            assertTrue(connection.isWrapperFor(JdbcConnection.class));
+        }
+    }
+}
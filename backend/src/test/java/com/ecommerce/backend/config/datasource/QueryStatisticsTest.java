@@ -0,0 +1,73 @@
+package com.ecommerce.backend.config.datasource;
+
+import com.ecommerce.backend.dto.QueryShapeStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryStatisticsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shapeOf_ReplacesLiteralsAndCollapsesInLists() {
+        assertEquals("select o1_0.id from orders o1_0 where o1_0.id in (?) and o1_0.status = ?",
+                QueryStatistics.shapeOf("select o1_0.id from orders o1_0\n    where o1_0.id in (?, ?,?) and o1_0.status = 'PLACED'"));
+        assertEquals("update users set security_version = security_version + ? where id = ?",
+                QueryStatistics.shapeOf("update users set security_version = security_version + 1 where id = 42"));
+        assertEquals("select * from t where name = ?", QueryStatistics.shapeOf("select * from t where name = 'it''s'"));
+    }
+
+    @Test
+    void record_SameShapeWithDifferentListLengths_IsOneShape() {
+        // ARRANGE
+        QueryStatistics statistics = new QueryStatistics(meterRegistry, 10);
+
+        // ACT
+        statistics.record("select * from orders where id in (?, ?)", 1_000_000);
+        statistics.record("select * from orders where id in (?, ?, ?, ?)", 3_000_000);
+
+        // ASSERT
+        List<QueryShapeStats> slowest = statistics.slowest(10);
+        assertEquals(1, slowest.size());
+        assertEquals(2, slowest.get(0).getCount());
+        assertEquals(4.0, slowest.get(0).getTotalMs(), 0.001);
+        assertEquals(2, meterRegistry.get("db.statement").tag("shape", slowest.get(0).getId()).timer().count());
+    }
+
+    @Test
+    void record_BeyondMaxShapes_CountsUnderOther() {
+        // ARRANGE
+        QueryStatistics statistics = new QueryStatistics(meterRegistry, 2);
+
+        // ACT
+        statistics.record("select * from a", 1_000_000);
+        statistics.record("select * from b", 1_000_000);
+        statistics.record("select * from c", 1_000_000);
+        statistics.record("select * from d", 1_000_000);
+
+        // ASSERT
+        List<QueryShapeStats> slowest = statistics.slowest(10);
+        assertEquals(3, slowest.size());
+        assertEquals(2, slowest.stream().filter(s -> s.getShape().equals(QueryStatistics.OTHER)).findFirst().orElseThrow().getCount());
+    }
+
+    @Test
+    void slowest_OrdersByP99AndLimits() {
+        // ARRANGE
+        QueryStatistics statistics = new QueryStatistics(meterRegistry, 10);
+        statistics.record("select * from fast", 1_000_000);
+        statistics.record("select * from slow", 50_000_000);
+        statistics.record("select * from medium", 10_000_000);
+
+        // ACT
+        List<QueryShapeStats> slowest = statistics.slowest(2);
+
+        // ASSERT
+        assertEquals(List.of("select * from slow", "select * from medium"),
+                slowest.stream().map(QueryShapeStats::getShape).toList());
+    }
+}
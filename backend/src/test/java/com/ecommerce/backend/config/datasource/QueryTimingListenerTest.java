@@ -0,0 +1,124 @@
+package com.ecommerce.backend.config.datasource;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryTimingListenerTest {
+
+    // Stands in for a Spring Data repository
+    interface ItemRepository {
+        Integer countItems();
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryStatistics statistics = new QueryStatistics(meterRegistry, 100);
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final ListAppender<ILoggingEvent> log = new ListAppender<>();
+    private final Logger listenerLogger = (Logger) LoggerFactory.getLogger(QueryTimingListener.class);
+    private DriverManagerDataSource h2;
+
+    @BeforeEach
+    void setUp() {
+        log.start();
+        listenerLogger.addAppender(log);
+        h2 = new DriverManagerDataSource("jdbc:h2:mem:query_timing;DB_CLOSE_DELAY=-1", "sa", "");
+        new JdbcTemplate(h2).execute("create table if not exists item (id int, name varchar(20))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        listenerLogger.detachAppender(log);
+        new JdbcTemplate(h2).execute("drop table item");
+    }
+
+    @Test
+    void fastStatement_IsTimedButNotLogged() {
+        // ARRANGE
+        JdbcTemplate jdbc = proxiedJdbc(60_000, 10);
+
+        // ACT
+        jdbc.queryForObject("select count(*) from item where id = ?", Integer.class, 7);
+
+        // ASSERT
+        assertEquals(1, statistics.slowest(10).get(0).getCount());
+        assertEquals("select count(*) from item where id = ?", statistics.slowest(10).get(0).getShape());
+        assertTrue(log.list.isEmpty());
+        assertEquals(0.0, meterRegistry.get("db.statement.slow").counter().count());
+    }
+
+    @Test
+    void slowStatement_IsLoggedWithMaskedBindValuesAndRepositoryMethod() {
+        // ARRANGE
+        JdbcTemplate jdbc = proxiedJdbc(0, 10);
+        ProxyFactory proxyFactory = new ProxyFactory((ItemRepository) () ->
+                jdbc.queryForObject("select count(*) from item where name = ? and id = ?", Integer.class, "widget", 7));
+        proxyFactory.addInterface(ItemRepository.class);
+        proxyFactory.addAdvice(RepositoryMethodTracker.interceptor(ItemRepository.class));
+        ItemRepository repository = (ItemRepository) proxyFactory.getProxy();
+
+        // ACT
+        repository.countItems();
+
+        // ASSERT
+        assertEquals(1, log.list.size());
+        String message = log.list.get(0).getFormattedMessage();
+        assertTrue(message.contains("from ItemRepository.countItems"), message);
+        assertTrue(message.contains("bind=[<6 chars>, 7]"), message);
+        assertEquals(null, RepositoryMethodTracker.current());
+    }
+
+    @Test
+    void slowStatementOutsideRepository_NamesApplicationFrame() {
+        // ARRANGE
+        JdbcTemplate jdbc = proxiedJdbc(0, 10);
+
+        // ACT
+        jdbc.queryForObject("select count(*) from item", Integer.class);
+
+        // ASSERT
+        String message = log.list.get(0).getFormattedMessage();
+        assertTrue(message.contains("from config.datasource.QueryTimingListenerTest.slowStatementOutsideRepository_NamesApplicationFrame"),
+                message);
+    }
+
+    @Test
+    void slowLog_IsSampledPerSecond() {
+        // ARRANGE
+        JdbcTemplate jdbc = proxiedJdbc(0, 2);
+
+        // ACT
+        for (int i = 0; i < 5; i++) {
+            jdbc.queryForObject("select count(*) from item", Integer.class);
+        }
+        now.addAndGet(1000);
+        jdbc.queryForObject("select count(*) from item", Integer.class);
+
+        // ASSERT: 2 logged, 3 suppressed and reported once the window ends, then the next one logged
+        List<String> messages = log.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+        assertEquals(4, messages.size());
+        assertTrue(messages.get(2).startsWith("3 more slow statements were not logged"), messages.get(2));
+        assertEquals(6.0, meterRegistry.get("db.statement.slow").counter().count());
+    }
+
+    private JdbcTemplate proxiedJdbc(long slowThresholdMs, int maxLoggedPerSecond) {
+        QueryTimingListener listener = new QueryTimingListener(statistics, slowThresholdMs, maxLoggedPerSecond, true,
+                meterRegistry, now::get);
+        return new JdbcTemplate(ProxyDataSourceBuilder.create(h2).listener(listener).build());
+    }
+}
@@ -0,0 +1,161 @@
+package com.ecommerce.backend.config.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two separate H2 databases stand in for primary and replica; each holds a row naming itself,
+ * so every read shows which one served it.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final long PIN_MS = 5000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnlyTx;
+    private TransactionTemplate readWriteTx;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("routing_primary");
+        DataSource replica = h2("routing_replica");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        for (JdbcTemplate db : new JdbcTemplate[] {primaryJdbc, replicaJdbc}) {
+            db.execute("create table node (name varchar(16))");
+            db.execute("create table writes (val int)");
+        }
+        primaryJdbc.update("insert into node values ('primary')");
+        replicaJdbc.update("insert into node values ('replica')");
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(new RecentWriteTracker(PIN_MS, 100, now::get));
+        routing.setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        readWriteTx = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primaryJdbc.execute("shutdown");
+        replicaJdbc.execute("shutdown");
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_IsServedByReplica() {
+        assertEquals("replica", readNode());
+    }
+
+    @Test
+    void readWriteTransaction_WritesToPrimary() {
+        // ACT
+        readWriteTx.executeWithoutResult(status -> jdbc.update("insert into writes values (1)"));
+
+        // ASSERT
+        assertEquals(1, count(primaryJdbc));
+        assertEquals(0, count(replicaJdbc));
+    }
+
+    @Test
+    void userWhoJustWrote_ReadsFromPrimaryUntilPinExpires() {
+        // ARRANGE
+        authenticate("alice");
+        readWriteTx.executeWithoutResult(status -> jdbc.update("insert into writes values (1)"));
+
+        // ACT / ASSERT
+        assertEquals("primary", readNode());
+        now.addAndGet(PIN_MS);
+        assertEquals("replica", readNode());
+    }
+
+    @Test
+    void pinIsPerUser() {
+        // ARRANGE
+        authenticate("alice");
+        readWriteTx.executeWithoutResult(status -> jdbc.update("insert into writes values (1)"));
+
+        // ACT
+        authenticate("bob");
+
+        // ASSERT
+        assertEquals("replica", readNode());
+    }
+
+    @Test
+    void rolledBackWrite_DoesNotPinUser() {
+        // ARRANGE
+        authenticate("alice");
+        readWriteTx.executeWithoutResult(status -> {
+            jdbc.update("insert into writes values (1)");
+            status.setRollbackOnly();
+        });
+
+        // ACT / ASSERT
+        assertEquals("replica", readNode());
+    }
+
+    @Test
+    void fullTracker_KeepsAnEvictedUserOnThePrimaryUntilTheirPinExpires() {
+        // ARRANGE: room for one pin
+        RecentWriteTracker tracker = new RecentWriteTracker(PIN_MS, 1, now::get);
+        authenticate("alice");
+        tracker.recordWriteByCurrentUser();
+
+        // ACT: bob's write evicts alice's live pin
+        now.addAndGet(1);
+        authenticate("bob");
+        tracker.recordWriteByCurrentUser();
+
+        // ASSERT: alice still reads her own write, and so does everyone else until her pin would have expired
+        authenticate("alice");
+        assertTrue(tracker.isCurrentUserPinned());
+        authenticate("carol");
+        assertTrue(tracker.isCurrentUserPinned());
+        now.addAndGet(PIN_MS - 1);
+        assertFalse(tracker.isCurrentUserPinned());
+        authenticate("bob");
+        assertTrue(tracker.isCurrentUserPinned());
+    }
+
+    private String readNode() {
+        return readOnlyTx.execute(status -> jdbc.queryForObject("select name from node", String.class));
+    }
+
+    private static int count(JdbcTemplate db) {
+        return db.queryForObject("select count(*) from writes", Integer.class);
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.NO_AUTHORITIES));
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
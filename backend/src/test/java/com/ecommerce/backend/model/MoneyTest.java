@@ -0,0 +1,56 @@
+package com.ecommerce.backend.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    @Test
+    void arithmetic_WorksOnMinorUnits() {
+        Money price = Money.of("99.50");
+
+        assertEquals(9950L, price.getMinorUnits());
+        assertEquals(Money.of("298.50"), price.times(3));
+        assertEquals(29850L, price.timesMinorUnits(3));
+        assertEquals(Money.of("100.00"), price.plus(Money.of("0.5")));
+        assertEquals(Money.of("-0.50"), price.minus(Money.of("100")));
+    }
+
+    @Test
+    void of_IgnoresScaleAndRoundsHalfEven() {
+        assertEquals(Money.of("100"), Money.of("100.00"));
+        assertEquals(Money.of("0.12"), Money.of("0.125"));
+        assertEquals(Money.of("0.14"), Money.of("0.135"));
+    }
+
+    @Test
+    void times_Overflow_Throws() {
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE / 2).times(3));
+    }
+
+    @Test
+    void plus_DifferentCurrency_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> Money.ofMinor(100).plus(Money.ofMinor(100, "USD")));
+    }
+
+    @Test
+    void converter_RoundTripsDecimalColumn() {
+        MoneyConverter converter = new MoneyConverter();
+
+        assertEquals(new BigDecimal("199.99"), converter.convertToDatabaseColumn(Money.of("199.99")));
+        assertEquals(Money.of("199.99"), converter.convertToEntityAttribute(new BigDecimal("199.990")));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void json_IsPlainDecimalNumber() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+
+        assertEquals("199.99", mapper.writeValueAsString(Money.of("199.99")));
+        assertEquals(Money.of("5.50"), mapper.readValue("5.5", Money.class));
+    }
+}
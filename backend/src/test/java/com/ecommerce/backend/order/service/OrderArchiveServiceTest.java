@@ -0,0 +1,125 @@
+package com.ecommerce.backend.order.service;
+
+import com.ecommerce.backend.model.OrderStatus;
+import com.ecommerce.backend.repository.ArchivedOrderItemRepository;
+import com.ecommerce.backend.repository.ArchivedOrderRepository;
+import com.ecommerce.backend.repository.OrderItemRepository;
+import com.ecommerce.backend.repository.OrderRepository;
+import com.ecommerce.backend.repository.TransactionRepository;
+import com.ecommerce.backend.service.OrderArchiveService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderArchiveServiceTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private OrderItemRepository orderItemRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+    @Mock
+    private ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    private OrderArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        archiveService = new OrderArchiveService(orderRepository, orderItemRepository, transactionRepository,
+                archivedOrderRepository, archivedOrderItemRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(archiveService, "enabled", true);
+        ReflectionTestUtils.setField(archiveService, "retentionDays", 90);
+        ReflectionTestUtils.setField(archiveService, "chunkSize", 2);
+    }
+
+    @Test
+    void archiveOrdersBefore_WalksTheKeyInChunksAndCopiesBeforeDeleting() {
+        // ARRANGE: three eligible orders, in chunks of two
+        when(orderRepository.findArchivableIds(any(), eq(CUTOFF), eq(0L), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(11L, 12L));
+        when(orderRepository.findArchivableIds(any(), eq(CUTOFF), eq(12L), any())).thenReturn(List.of(13L));
+        when(orderRepository.findArchivableIds(any(), eq(CUTOFF), eq(13L), any())).thenReturn(List.of());
+        when(archivedOrderRepository.copyFromOrders(anyList()))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        // ACT
+        int archived = archiveService.archiveOrdersBefore(CUTOFF);
+
+        // ASSERT
+        assertEquals(3, archived);
+        for (List<Long> chunk : List.of(List.of(11L, 12L), List.of(13L))) {
+            InOrder inOrder = inOrder(archivedOrderRepository, archivedOrderItemRepository,
+                    orderItemRepository, transactionRepository, orderRepository);
+            inOrder.verify(archivedOrderRepository).copyFromOrders(chunk);
+            inOrder.verify(archivedOrderItemRepository).copyFromOrderItems(chunk);
+            inOrder.verify(orderItemRepository).deleteByOrderIds(chunk);
+            inOrder.verify(transactionRepository).deleteByOrderIds(chunk);
+            inOrder.verify(orderRepository).deleteAllByIdInBatch(chunk);
+        }
+    }
+
+    @Test
+    void archiveOrdersBefore_NothingEligible_WritesNothing() {
+        // ARRANGE
+        when(orderRepository.findArchivableIds(any(), any(), eq(0L), any())).thenReturn(List.of());
+
+        // ACT
+        int archived = archiveService.archiveOrdersBefore(CUTOFF);
+
+        // ASSERT
+        assertEquals(0, archived);
+        verifyNoInteractions(archivedOrderRepository, archivedOrderItemRepository, orderItemRepository,
+                transactionRepository);
+        verify(orderRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void archiveFinishedOrders_OnlyTakesFinishedOrdersPastTheRetention() {
+        // ARRANGE
+        when(orderRepository.findArchivableIds(any(), any(), eq(0L), any())).thenReturn(List.of());
+        LocalDateTime expectedCutoff = LocalDateTime.now().minusDays(90);
+
+        // ACT
+        archiveService.archiveFinishedOrders();
+
+        // ASSERT: only terminal statuses, so no archived order can still change
+        verify(orderRepository).findArchivableIds(eq(EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED)),
+                argThat(cutoff -> Math.abs(ChronoUnit.SECONDS.between(expectedCutoff, cutoff)) < 5),
+                eq(0L), any());
+    }
+
+    @Test
+    void archiveFinishedOrders_Disabled_DoesNothing() {
+        // ARRANGE
+        ReflectionTestUtils.setField(archiveService, "enabled", false);
+
+        // ACT
+        archiveService.archiveFinishedOrders();
+
+        // ASSERT
+        verifyNoInteractions(orderRepository);
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecommerce.backend.order.service;
+
+import com.ecommerce.backend.dto.OrderStatusTransitionResult;
+import com.ecommerce.backend.dto.OrderStatusTransitionResult.Outcome;
+import com.ecommerce.backend.model.OrderStatus;
+import com.ecommerce.backend.repository.OrderRepository;
+import com.ecommerce.backend.service.OrderServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderBulkStatusTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private OrderServiceImpl orderService;
+
+    private OrderServiceImpl withChunkSize(int bulkStatusChunkSize) {
+        return new OrderServiceImpl(orderRepository, null, null, null, null, null, null, bulkStatusChunkSize);
+    }
+
+    private static OrderRepository.StatusView view(Long id, OrderStatus status) {
+        return new OrderRepository.StatusView() {
+            @Override public Long getId() { return id; }
+            @Override public OrderStatus getStatus() { return status; }
+        };
+    }
+
+    @Test
+    void transitionTable_AllowsOnlyForwardMoves() {
+        assertTrue(OrderStatus.PROCESSING.canTransitionTo(OrderStatus.SHIPPED));
+        assertTrue(OrderStatus.PENDING_PAYMENT.canTransitionTo(OrderStatus.PLACED));
+        assertFalse(OrderStatus.DELIVERED.canTransitionTo(OrderStatus.SHIPPED));
+        assertFalse(OrderStatus.PENDING.canTransitionTo(OrderStatus.DELIVERED));
+        assertFalse(OrderStatus.CANCELLED.canTransitionTo(OrderStatus.PROCESSING));
+    }
+
+    @Test
+    void bulkUpdateOrderStatus_MixedBatch_ReportsPerOrderOutcome() {
+        // ARRANGE: 1 and 2 can ship, 3 is delivered, 4 already shipped, 5 does not exist
+        orderService = withChunkSize(500);
+        when(orderRepository.findStatusesByIdIn(anyCollection())).thenReturn(List.of(
+                view(1L, OrderStatus.PROCESSING),
+                view(2L, OrderStatus.PROCESSING),
+                view(3L, OrderStatus.DELIVERED),
+                view(4L, OrderStatus.SHIPPED)));
+        when(orderRepository.updateStatusWhereCurrent(List.of(1L, 2L), OrderStatus.PROCESSING, OrderStatus.SHIPPED))
+                .thenReturn(2);
+
+        // ACT
+        List<OrderStatusTransitionResult> results =
+                orderService.bulkUpdateOrderStatus(List.of(1L, 2L, 3L, 4L, 5L), OrderStatus.SHIPPED);
+
+        // ASSERT: one set-based update, outcomes in request order
+        verify(orderRepository, times(1)).updateStatusWhereCurrent(anyCollection(), any(), any());
+        assertEquals(List.of(Outcome.UPDATED, Outcome.UPDATED, Outcome.ILLEGAL_TRANSITION, Outcome.UNCHANGED, Outcome.NOT_FOUND),
+                results.stream().map(OrderStatusTransitionResult::getOutcome).toList());
+        assertEquals(OrderStatus.DELIVERED, results.get(2).getPreviousStatus());
+    }
+
+    @Test
+    void bulkUpdateOrderStatus_ConcurrentChange_ReportsConflict() {
+        // ARRANGE: both orders read as PROCESSING, but order 2 is cancelled before the update runs
+        orderService = withChunkSize(10);
+        when(orderRepository.findStatusesByIdIn(anyCollection()))
+                .thenReturn(List.of(view(1L, OrderStatus.PROCESSING), view(2L, OrderStatus.PROCESSING)))
+                .thenReturn(List.of(view(1L, OrderStatus.SHIPPED), view(2L, OrderStatus.CANCELLED)));
+        when(orderRepository.updateStatusWhereCurrent(anyCollection(), eq(OrderStatus.PROCESSING), eq(OrderStatus.SHIPPED)))
+                .thenReturn(1);
+
+        // ACT
+        List<OrderStatusTransitionResult> results =
+                orderService.bulkUpdateOrderStatus(List.of(1L, 2L), OrderStatus.SHIPPED);
+
+        // ASSERT
+        assertEquals(Outcome.UPDATED, results.get(0).getOutcome());
+        assertEquals(Outcome.CONFLICT, results.get(1).getOutcome());
+    }
+
+    @Test
+    void bulkUpdateOrderStatus_LargeBatch_IsChunked() {
+        // ARRANGE
+        orderService = withChunkSize(2);
+        when(orderRepository.findStatusesByIdIn(anyCollection())).thenReturn(List.of());
+
+        // ACT
+        List<OrderStatusTransitionResult> results =
+                orderService.bulkUpdateOrderStatus(List.of(1L, 2L, 3L, 4L, 5L), OrderStatus.SHIPPED);
+
+        // ASSERT: 5 IDs in chunks of 2 -> 3 reads
+        verify(orderRepository, times(3)).findStatusesByIdIn(anyCollection());
+        assertEquals(5, results.size());
+    }
+
+    @Test
+    void constructor_NonPositiveChunkSize_IsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> withChunkSize(0));
+        assertThrows(IllegalArgumentException.class, () -> withChunkSize(-1));
+    }
+}
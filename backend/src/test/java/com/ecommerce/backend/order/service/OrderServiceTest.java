@@ -1,31 +1,35 @@
-// src/test/java/com/ecommerce/backend/order/service/OrderServiceTest.java
-
 package com.ecommerce.backend.order.service;
 
-import com.ecommerce.backend.cart.model.Cart;
-import com.ecommerce.backend.cart.model.CartItem;
-import com.ecommerce.backend.cart.repository.CartRepository;
-import com.ecommerce.backend.order.model.Order;
-import com.ecommerce.backend.order.model.OrderStatus;
-import com.ecommerce.backend.order.repository.OrderItemRepository;
-import com.ecommerce.backend.order.repository.OrderRepository;
-import com.ecommerce.backend.product.model.Product;
-import com.ecommerce.backend.product.repository.ProductRepository;
+import com.ecommerce.backend.dto.CheckoutRequest;
+import com.ecommerce.backend.model.Cart;
+import com.ecommerce.backend.model.CartItem;
+import com.ecommerce.backend.model.Money;
+import com.ecommerce.backend.model.Order;
+import com.ecommerce.backend.model.OrderStatus;
+import com.ecommerce.backend.model.Product;
+import com.ecommerce.backend.model.User;
+import com.ecommerce.backend.repository.CartRepository;
+import com.ecommerce.backend.repository.OrderItemRepository;
+import com.ecommerce.backend.repository.OrderRepository;
+import com.ecommerce.backend.repository.ProductRepository;
+import com.ecommerce.backend.repository.UserRepository;
+import com.ecommerce.backend.service.OrderArchiveService;
+import com.ecommerce.backend.service.OrderServiceImpl;
+import com.ecommerce.backend.service.OutboxService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
 
-import java.math.BigDecimal;
-import java.util.Collections;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class) // Initializes Mockito annotations
@@ -41,111 +45,124 @@ public class OrderServiceTest {
     private ProductRepository productRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private OutboxService outboxService;
+    @Mock
+    private OrderArchiveService orderArchiveService;
 
-    // InjectMocks creates a real instance of OrderService and injects the Mocks above
-    @InjectMocks
-    private OrderService orderService;
+    // A real instance of OrderServiceImpl wired with the Mocks above
+    private OrderServiceImpl orderService;
 
     private User testUser;
     private Cart testCart;
     private Product testProduct;
-    private CartItem testCartItem;
-    private String username = "testuser";
 
     @BeforeEach
     void setUp() {
-        // 1. Mock the Security Context to simulate a logged-in user
-        testUser = new User();
-        testUser.setUsername(username);
-
-        Authentication authentication = mock(Authentication.class);
-        SecurityContext securityContext = mock(SecurityContext.class);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        SecurityContextHolder.setContext(securityContext);
-        when(authentication.getName()).thenReturn(username);
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(testUser));
-
-        // 2. Mock Product data
+        orderService = new OrderServiceImpl(orderRepository, orderItemRepository, cartRepository, productRepository,
+                userRepository, orderArchiveService, outboxService, 500);
+
+        // 1. The user placing the order
+        testUser = new User("testuser", "test@example.com", "secret");
+        testUser.setId(7L);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(testUser));
+
+        // 2. Product data
         testProduct = new Product();
         testProduct.setId(1L);
         testProduct.setName("Laptop");
-        testProduct.setPrice(new BigDecimal("1000.00"));
+        testProduct.setPrice(Money.of("1000.00"));
         testProduct.setStockQuantity(10);
 
-        // 3. Mock Cart Item data
-        testCartItem = new CartItem();
+        // 3. Cart with one line of two laptops
+        CartItem testCartItem = new CartItem();
         testCartItem.setProduct(testProduct);
-        testCartItem.setQuantity(2); // Quantity to purchase
+        testCartItem.setQuantity(2);
 
-        // 4. Mock Cart data
         testCart = new Cart();
         testCart.setId(100L);
         testCart.setUser(testUser);
-        testCart.setItems(Collections.singletonList(testCartItem));
+        testCart.setItems(new HashSet<>(Set.of(testCartItem)));
         testCartItem.setCart(testCart);
+        // Lenient: only the checkout tests read the cart
+        lenient().when(cartRepository.findByUser(testUser)).thenReturn(Optional.of(testCart));
+    }
 
-        // 5. Mock Repositories
-        when(cartRepository.findByUser(testUser)).thenReturn(Optional.of(testCart));
-        when(productRepository.findById(testProduct.getId())).thenReturn(Optional.of(testProduct));
+    private static Order order(long id, LocalDateTime orderDate) {
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderDate(orderDate);
+        return order;
+    }
 
-        // Mock saving the new Order (important for transactional services)
+    @Test
+    void createOrder_Success() {
+        // ARRANGE: stock is available; simulate ID generation on save
+        when(productRepository.decrementStock(1L, 2)).thenReturn(1);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order order = invocation.getArgument(0);
-            order.setId(1L); // Simulate ID generation
+            order.setId(1L);
             return order;
         });
-    }
 
-    @Test
-    void placeOrderFromCart_Success() {
         // ACT
-        Order result = orderService.placeOrderFromCart("123 Test St.");
-
-        // ASSERT 1: Verify Order Details
-        assertNotNull(result);
-        assertEquals(OrderStatus.PENDING_PAYMENT, result.getStatus());
-        assertEquals(new BigDecimal("2000.00"), result.getTotalAmount()); // 2 * 1000.00
+        Order result = orderService.createOrder(7L, new CheckoutRequest("123 Test St."));
 
-        // ASSERT 2: Verify Product Stock Update
-        assertEquals(8, testProduct.getStockQuantity()); // Stock should be 10 - 2 = 8
-        verify(productRepository, times(1)).save(testProduct);
+        // ASSERT 1: Order details, with the price captured per line
+        assertEquals(OrderStatus.PENDING, result.getStatus());
+        assertEquals(Money.of("2000.00"), result.getTotalAmount()); // 2 * 1000.00
+        assertEquals("123 Test St.", result.getShippingAddress());
+        assertEquals(Money.of("1000.00"), result.getItems().iterator().next().getPriceAtOrder());
 
-        // ASSERT 3: Verify Persistence
+        // ASSERT 2: Stock taken, persistence, event and cart cleanup
+        verify(productRepository).decrementStock(1L, 2);
         verify(orderRepository, times(1)).save(any(Order.class));
-        verify(orderItemRepository, times(1)).saveAll(anyList());
-
-        // ASSERT 4: Verify Cart Cleanup
+        verify(outboxService).record(eq(OutboxService.ORDER_AGGREGATE), eq(1L), eq("OrderCreated"), any());
         verify(cartRepository, times(1)).delete(testCart);
     }
 
     @Test
-    void placeOrderFromCart_InsufficientStock_ThrowsException() {
-        // ARRANGE: Set stock lower than purchase quantity
-        testProduct.setStockQuantity(1);
+    void createOrder_InsufficientStock_ThrowsException() {
+        // ARRANGE: the conditional decrement finds less stock than the purchase quantity
+        when(productRepository.decrementStock(1L, 2)).thenReturn(0);
 
         // ACT & ASSERT
-        // Expect a RuntimeException due to the stock check
-        RuntimeException exception = assertThrows(RuntimeException.class,
-                () -> orderService.placeOrderFromCart("123 Test St."));
-
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> orderService.createOrder(7L, new CheckoutRequest("123 Test St.")));
         assertTrue(exception.getMessage().contains("Insufficient stock"));
 
-        // ASSERT 3: Verify No Persistence or Stock Change Occurred
         // Crucial check: if an exception is thrown, nothing should have been saved.
-        verify(productRepository, never()).save(any(Product.class));
         verify(orderRepository, never()).save(any(Order.class));
         verify(cartRepository, never()).delete(any(Cart.class));
     }
 
     @Test
-    void placeOrderFromCart_EmptyCart_ThrowsException() {
-        // ARRANGE: Mock an empty cart
-        testCart.setItems(Collections.emptyList());
+    void createOrder_EmptyCart_ThrowsException() {
+        // ARRANGE: an empty cart
+        testCart.setItems(new HashSet<>());
 
         // ACT & ASSERT
         RuntimeException exception = assertThrows(RuntimeException.class,
-                () -> orderService.placeOrderFromCart("123 Test St."));
+                () -> orderService.createOrder(7L, new CheckoutRequest("123 Test St.")));
+
+        assertTrue(exception.getMessage().contains("empty cart"));
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(cartRepository, never()).delete(any(Cart.class));
+    }
+
+    @Test
+    void findAllOrdersByUser_MergesHotAndArchivedOrdersNewestFirst() {
+        // ARRANGE: a long-running hot order predates some archived ones
+        LocalDateTime day = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(orderRepository.findByUserOrderByOrderDateDesc(testUser))
+                .thenReturn(List.of(order(5, day.plusDays(40)), order(2, day.plusDays(5))));
+        when(orderArchiveService.findArchivedOrdersByUser(7L))
+                .thenReturn(List.of(order(4, day.plusDays(20)), order(3, day.plusDays(10)), order(1, day)));
+
+        // ACT
+        List<Order> orders = orderService.findAllOrdersByUser(7L);
 
-        assertTrue(exception.getMessage().contains("Cart is empty"));
+        // ASSERT
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), orders.stream().map(Order::getId).toList());
     }
-}
\ No newline at end of file
+}
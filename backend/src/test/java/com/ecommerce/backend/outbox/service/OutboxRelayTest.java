@@ -0,0 +1,117 @@
+package com.ecommerce.backend.outbox.service;
+
+import com.ecommerce.backend.model.OutboxEvent;
+import com.ecommerce.backend.repository.OutboxEventRepository;
+import com.ecommerce.backend.service.OutboxEventPublisher;
+import com.ecommerce.backend.service.OutboxRelay;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private OutboxEventPublisher publisher;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxEventRepository, publisher,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry);
+    }
+
+    private static OutboxEvent event(long id, long orderId, int attempts) {
+        OutboxEvent event = new OutboxEvent("Order", orderId, "OrderCreated", "{}");
+        event.setId(id);
+        event.setAttempts(attempts);
+        return event;
+    }
+
+    // One batch, then an empty outbox; the whole batch is claimed
+    private void outboxHolds(OutboxEvent... events) {
+        when(outboxEventRepository.findPending(any(), any())).thenReturn(List.of(events), List.of());
+        when(outboxEventRepository.claim(anyCollection(), anyString(), any(), any())).thenReturn(events.length);
+    }
+
+    @Test
+    void failedEvent_IsScheduledForRetryAndDoesNotHoldBackOthers() {
+        // ARRANGE: the first event fails, the second belongs to another order
+        OutboxEvent poison = event(1L, 10L, 0);
+        OutboxEvent next = event(2L, 20L, 0);
+        outboxHolds(poison, next);
+        doThrow(new IllegalStateException("subscriber down")).when(publisher).publish(poison);
+
+        // ACT
+        LocalDateTime before = LocalDateTime.now();
+        relay.relayPendingEvents();
+
+        // ASSERT
+        verify(publisher).publish(next);
+        verify(outboxEventRepository).markPublished(eq(List.of(2L)), any());
+        verify(outboxEventRepository).recordFailure(eq(1L),
+                argThat(retryAt -> retryAt.isAfter(before.plusSeconds(4))), isNull());
+        assertEquals(1.0, meterRegistry.counter("outbox.events.failed").count());
+    }
+
+    @Test
+    void eventFailingTooOften_IsDeadLettered() {
+        // ARRANGE: nine failures so far, ten allowed
+        OutboxEvent poison = event(1L, 10L, 9);
+        outboxHolds(poison);
+        doThrow(new IllegalStateException("cannot handle")).when(publisher).publish(poison);
+
+        // ACT
+        relay.relayPendingEvents();
+
+        // ASSERT: given up on, and the relay stops polling since nothing was delivered
+        verify(outboxEventRepository).recordFailure(eq(1L), isNull(), notNull());
+        verify(outboxEventRepository, never()).markPublished(anyCollection(), any());
+        verify(outboxEventRepository, times(1)).findPending(any(), any());
+        assertEquals(1.0, meterRegistry.counter("outbox.events.deadLettered").count());
+    }
+
+    @Test
+    void eventsClaimedByAnotherInstance_AreNotPublished() {
+        // ARRANGE: another instance claimed event 1 between the read and the claim
+        OutboxEvent taken = event(1L, 10L, 0);
+        OutboxEvent ours = event(2L, 20L, 0);
+        when(outboxEventRepository.findPending(any(), any())).thenReturn(List.of(taken, ours), List.of());
+        when(outboxEventRepository.claim(eq(List.of(1L, 2L)), anyString(), any(), any())).thenReturn(1);
+        when(outboxEventRepository.findClaimed(eq(List.of(1L, 2L)), anyString())).thenReturn(List.of(ours));
+
+        // ACT
+        relay.relayPendingEvents();
+
+        // ASSERT
+        verify(publisher, never()).publish(taken);
+        verify(publisher).publish(ours);
+        verify(outboxEventRepository).markPublished(eq(List.of(2L)), any());
+    }
+
+    @Test
+    void emptyOutbox_ClaimsNothing() {
+        when(outboxEventRepository.findPending(any(), any())).thenReturn(List.of());
+
+        relay.relayPendingEvents();
+
+        verify(outboxEventRepository, never()).claim(anyCollection(), anyString(), any(), any());
+        verifyNoInteractions(publisher);
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.backend.payment;
+
+import com.ecommerce.backend.exception.PaymentGatewayRejectedException;
+import com.ecommerce.backend.exception.PaymentGatewayUnavailableException;
+import com.ecommerce.backend.model.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs HttpPaymentGateway against the local stub gateway with injected faults.
+ */
+class HttpPaymentGatewayTest {
+
+    private StubPaymentGatewayServer stub;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        stub = new StubPaymentGatewayServer(0, 0, 0, 0, 0);
+        stub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop();
+    }
+
+    private HttpPaymentGateway gateway(Duration deadline, int maxConcurrentCalls, int failureThreshold) {
+        return new HttpPaymentGateway("http://127.0.0.1:" + stub.getPort(), "key", "secret",
+                Duration.ofSeconds(1), deadline, maxConcurrentCalls,
+                new CircuitBreaker(failureThreshold, Duration.ofMinutes(1)),
+                new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    private static Throwable failureOf(CompletableFuture<String> call) {
+        CompletionException e = assertThrows(CompletionException.class, call::join);
+        return e.getCause();
+    }
+
+    @Test
+    void testCreateOrder_ReturnsGatewayOrderId() {
+        String id = gateway(Duration.ofSeconds(2), 5, 3).createOrder(1L, Money.ofMinor(10_000)).join();
+
+        assertTrue(id.startsWith("order_"));
+    }
+
+    @Test
+    void testCreateOrder_SlowGatewayFailsAtDeadline() {
+        // ARRANGE
+        stub.configure(Map.of("latencyMs", "2000"));
+        HttpPaymentGateway gateway = gateway(Duration.ofMillis(200), 5, 3);
+
+        // ACT
+        long start = System.nanoTime();
+        Throwable failure = failureOf(gateway.createOrder(1L, Money.ofMinor(100)));
+
+        // ASSERT
+        assertInstanceOf(PaymentGatewayUnavailableException.class, failure);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1500);
+    }
+
+    @Test
+    void testCreateOrder_RepeatedErrorsOpenTheCircuit() {
+        // ARRANGE
+        stub.configure(Map.of("errorRate", "1.0"));
+        HttpPaymentGateway gateway = gateway(Duration.ofSeconds(2), 5, 2);
+
+        // ACT
+        failureOf(gateway.createOrder(1L, Money.ofMinor(100)));
+        failureOf(gateway.createOrder(2L, Money.ofMinor(100)));
+
+        // ASSERT: the third call is rejected without reaching the gateway, even once it has recovered
+        stub.configure(Map.of("errorRate", "0"));
+        assertEquals(CircuitBreaker.State.OPEN, gateway.getCircuitState());
+        Throwable failure = failureOf(gateway.createOrder(3L, Money.ofMinor(100)));
+        assertTrue(failure.getMessage().contains("circuit open"));
+    }
+
+    @Test
+    void testCreateOrder_RejectedRequestsLeaveTheCircuitClosed() {
+        // ARRANGE: the gateway refuses amounts below its minimum with HTTP 400
+        HttpPaymentGateway gateway = gateway(Duration.ofSeconds(2), 5, 2);
+
+        // ACT
+        for (long orderId = 1; orderId <= 3; orderId++) {
+            Throwable failure = failureOf(gateway.createOrder(orderId, Money.ofMinor(50)));
+            PaymentGatewayRejectedException rejected = assertInstanceOf(PaymentGatewayRejectedException.class, failure);
+            assertEquals(400, rejected.getGatewayStatusCode());
+        }
+
+        // ASSERT: caller errors are not gateway failures, so valid calls still go through
+        assertEquals(CircuitBreaker.State.CLOSED, gateway.getCircuitState());
+        assertTrue(gateway.createOrder(4L, Money.ofMinor(100)).join().startsWith("order_"));
+    }
+
+    @Test
+    void testCreateOrder_BulkheadRejectsExcessCalls() {
+        // ARRANGE
+        stub.configure(Map.of("latencyMs", "500"));
+        HttpPaymentGateway gateway = gateway(Duration.ofSeconds(2), 1, 3);
+
+        // ACT
+        CompletableFuture<String> first = gateway.createOrder(1L, Money.ofMinor(100));
+        Throwable rejected = failureOf(gateway.createOrder(2L, Money.ofMinor(100)));
+
+        // ASSERT
+        assertTrue(rejected.getMessage().contains("busy"));
+        assertTrue(first.join().startsWith("order_"));
+        assertEquals(CircuitBreaker.State.CLOSED, gateway.getCircuitState());
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.backend.payment;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PendingPaymentRegistryTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void resolve_ExpiresEntriesAfterTtl() {
+        PendingPaymentRegistry registry = new PendingPaymentRegistry(Duration.ofSeconds(10), 10, now::get);
+        registry.register("order_a", 1L);
+
+        now.set(Duration.ofSeconds(9).toNanos());
+        assertEquals(1L, registry.resolve("order_a"));
+
+        now.set(Duration.ofSeconds(10).toNanos());
+        assertNull(registry.resolve("order_a"));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void register_WhenFull_PurgesExpiredEntriesOrEvictsTheOldest() {
+        // ARRANGE
+        PendingPaymentRegistry registry = new PendingPaymentRegistry(Duration.ofSeconds(10), 2, now::get);
+        registry.register("order_a", 1L);
+        now.set(Duration.ofSeconds(5).toNanos());
+        registry.register("order_b", 2L);
+
+        // ACT: full of live entries, so the oldest makes room (it still resolves through the database)
+        now.set(Duration.ofSeconds(6).toNanos());
+        registry.register("order_c", 3L);
+
+        // ASSERT
+        assertNull(registry.resolve("order_a"));
+        assertEquals(2L, registry.resolve("order_b"));
+        assertEquals(3L, registry.resolve("order_c"));
+
+        // ACT: order_b has expired and is purged to make room
+        now.set(Duration.ofSeconds(15).toNanos());
+        registry.register("order_d", 4L);
+
+        // ASSERT
+        assertEquals(2, registry.size());
+        assertEquals(3L, registry.resolve("order_c"));
+        assertEquals(4L, registry.resolve("order_d"));
+    }
+
+    @Test
+    void purgeExpired_DropsAbandonedCheckouts() {
+        PendingPaymentRegistry registry = new PendingPaymentRegistry(Duration.ofSeconds(10), 10, now::get);
+        registry.register("order_a", 1L);
+        now.set(Duration.ofSeconds(5).toNanos());
+        registry.register("order_b", 2L);
+
+        now.set(Duration.ofSeconds(10).toNanos());
+
+        assertEquals(1, registry.purgeExpired());
+        assertEquals(1, registry.size());
+    }
+}
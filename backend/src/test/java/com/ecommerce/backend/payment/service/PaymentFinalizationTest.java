@@ -0,0 +1,222 @@
+package com.ecommerce.backend.payment.service;
+
+import com.ecommerce.backend.dto.PaymentVerificationDto;
+import com.ecommerce.backend.exception.PaymentVerificationException;
+import com.ecommerce.backend.model.Money;
+import com.ecommerce.backend.model.Order;
+import com.ecommerce.backend.model.OrderStatus;
+import com.ecommerce.backend.model.Transaction;
+import com.ecommerce.backend.payment.HmacSha256Verifier;
+import com.ecommerce.backend.payment.PaymentWebhookEvent;
+import com.ecommerce.backend.payment.PendingPaymentRegistry;
+import com.ecommerce.backend.repository.OrderRepository;
+import com.ecommerce.backend.repository.TransactionRepository;
+import com.ecommerce.backend.service.OutboxService;
+import com.ecommerce.backend.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PaymentFinalizationTest {
+
+    private static final Long ORDER_ID = 10L;
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private OutboxService outboxService;
+    @Spy
+    private PendingPaymentRegistry pendingPayments = new PendingPaymentRegistry(Duration.ofMinutes(5), 100);
+    @Mock
+    private HmacSha256Verifier checkoutSignatureVerifier;
+
+    @InjectMocks
+    private PaymentService paymentService;
+
+    private PaymentVerificationDto dto;
+
+    @BeforeEach
+    void setUp() {
+        dto = new PaymentVerificationDto();
+        dto.setOrderId(ORDER_ID);
+        dto.setPaymentGatewayOrderId("order_pg");
+        dto.setPaymentGatewayPaymentId("pay_1");
+        dto.setPaymentSignature("sig");
+    }
+
+    private static Order order(OrderStatus status) {
+        Order order = new Order();
+        order.setId(ORDER_ID);
+        order.setStatus(status);
+        order.setTotalAmount(Money.ofMinor(50000));
+        return order;
+    }
+
+    private static Transaction transaction(String paymentId) {
+        Transaction transaction = new Transaction();
+        transaction.setOrder(order(OrderStatus.PLACED));
+        transaction.setPaymentGatewayPaymentId(paymentId);
+        return transaction;
+    }
+
+    @Test
+    void verify_Winner_PlacesOrderAndRecordsTransactionOnce() {
+        // ARRANGE
+        when(orderRepository.findById(ORDER_ID))
+                .thenReturn(Optional.of(order(OrderStatus.PENDING_PAYMENT)), Optional.of(order(OrderStatus.PLACED)));
+        when(checkoutSignatureVerifier.verify("order_pg|pay_1", "sig")).thenReturn(true);
+        when(orderRepository.updateStatusWhereCurrent(List.of(ORDER_ID), OrderStatus.PENDING_PAYMENT, OrderStatus.PLACED))
+                .thenReturn(1);
+
+        // ACT
+        Order result = paymentService.verifyPaymentAndFinalizeOrder(dto);
+
+        // ASSERT
+        assertEquals(OrderStatus.PLACED, result.getStatus());
+        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        verify(outboxService).record(eq(OutboxService.ORDER_AGGREGATE), eq(ORDER_ID), eq("PaymentCompleted"), any());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void verify_LoserOfTheRace_GetsReplayWithoutWriting() {
+        // ARRANGE: read as pending, but a concurrent caller claims it first
+        when(orderRepository.findById(ORDER_ID))
+                .thenReturn(Optional.of(order(OrderStatus.PENDING_PAYMENT)), Optional.of(order(OrderStatus.PLACED)));
+        when(checkoutSignatureVerifier.verify(anyString(), anyString())).thenReturn(true);
+        when(orderRepository.updateStatusWhereCurrent(anyCollection(), any(), any())).thenReturn(0);
+        when(transactionRepository.findByOrder_Id(ORDER_ID)).thenReturn(Optional.of(transaction("pay_1")));
+
+        // ACT
+        Order result = paymentService.verifyPaymentAndFinalizeOrder(dto);
+
+        // ASSERT
+        assertEquals(OrderStatus.PLACED, result.getStatus());
+        verify(transactionRepository, never()).save(any());
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void verify_RetryAfterSuccess_IsReplayedWithoutVerifyingAgain() {
+        // ARRANGE
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order(OrderStatus.PLACED)));
+        when(transactionRepository.findByOrder_Id(ORDER_ID)).thenReturn(Optional.of(transaction("pay_1")));
+
+        // ACT
+        Order result = paymentService.verifyPaymentAndFinalizeOrder(dto);
+
+        // ASSERT
+        assertEquals(ORDER_ID, result.getId());
+        verifyNoInteractions(checkoutSignatureVerifier);
+        verify(orderRepository, never()).updateStatusWhereCurrent(anyCollection(), any(), any());
+    }
+
+    @Test
+    void verify_OrderPaidByAnotherPayment_IsRejected() {
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order(OrderStatus.PLACED)));
+        when(transactionRepository.findByOrder_Id(ORDER_ID)).thenReturn(Optional.of(transaction("pay_other")));
+
+        assertThrows(RuntimeException.class, () -> paymentService.verifyPaymentAndFinalizeOrder(dto));
+    }
+
+    @Test
+    void verify_BadSignature_FailsOnlyAPendingOrder() {
+        // ARRANGE
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order(OrderStatus.PENDING_PAYMENT)));
+        when(checkoutSignatureVerifier.verify(anyString(), anyString())).thenReturn(false);
+
+        // ACT & ASSERT
+        assertThrows(PaymentVerificationException.class, () -> paymentService.verifyPaymentAndFinalizeOrder(dto));
+        verify(orderRepository).updateStatusWhereCurrent(List.of(ORDER_ID), OrderStatus.PENDING_PAYMENT, OrderStatus.PAYMENT_FAILED);
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void webhook_GatewayOrderNoLongerInRegistry_ResolvesFromTheOrder() {
+        // ARRANGE: the registry entry expired while the customer was still paying
+        PaymentWebhookEvent event = new PaymentWebhookEvent(PaymentWebhookEvent.Type.CAPTURED, null,
+                "order_pg", "pay_1", 50000, "INR");
+        when(orderRepository.findIdByPaymentGatewayOrderId("order_pg")).thenReturn(Optional.of(ORDER_ID));
+        when(orderRepository.findById(ORDER_ID))
+                .thenReturn(Optional.of(order(OrderStatus.PENDING_PAYMENT)), Optional.of(order(OrderStatus.PLACED)));
+        when(orderRepository.updateStatusWhereCurrent(List.of(ORDER_ID), OrderStatus.PENDING_PAYMENT, OrderStatus.PLACED))
+                .thenReturn(1);
+
+        // ACT
+        paymentService.applyWebhookEvent(event);
+
+        // ASSERT
+        verify(transactionRepository).save(any(Transaction.class));
+        verify(transactionRepository, never()).findByPaymentGatewayOrderId(any());
+    }
+
+    @Test
+    void webhook_FailedThenCaptured_PlacesTheOrder() {
+        // ARRANGE: the order's status lives in the "database"; conditional updates apply only from the current status
+        AtomicReference<OrderStatus> stored = new AtomicReference<>(OrderStatus.PENDING_PAYMENT);
+        when(orderRepository.findById(ORDER_ID)).thenAnswer(invocation -> Optional.of(order(stored.get())));
+        when(orderRepository.updateStatusWhereCurrent(eq(List.of(ORDER_ID)), any(), any())).thenAnswer(invocation ->
+                stored.compareAndSet(invocation.getArgument(1), invocation.getArgument(2)) ? 1 : 0);
+
+        // ACT: the gateway reports a failed attempt, then a successful capture for the same order
+        paymentService.applyWebhookEvent(new PaymentWebhookEvent(PaymentWebhookEvent.Type.FAILED, ORDER_ID,
+                "order_pg", "pay_0", 50000, "INR"));
+        assertEquals(OrderStatus.PAYMENT_FAILED, stored.get());
+        paymentService.applyWebhookEvent(new PaymentWebhookEvent(PaymentWebhookEvent.Type.CAPTURED, ORDER_ID,
+                "order_pg", "pay_1", 50000, "INR"));
+
+        // ASSERT: the capture wins
+        assertEquals(OrderStatus.PLACED, stored.get());
+        verify(transactionRepository).save(argThat(transaction -> "pay_1".equals(transaction.getPaymentGatewayPaymentId())));
+        verify(outboxService).record(eq(OutboxService.ORDER_AGGREGATE), eq(ORDER_ID), eq("PaymentCompleted"), any());
+    }
+
+    @Test
+    void verify_ValidSignatureAfterFailure_PlacesTheOrder() {
+        // ARRANGE: an earlier callback with a bad signature failed the order
+        when(orderRepository.findById(ORDER_ID))
+                .thenReturn(Optional.of(order(OrderStatus.PAYMENT_FAILED)), Optional.of(order(OrderStatus.PLACED)));
+        when(checkoutSignatureVerifier.verify("order_pg|pay_1", "sig")).thenReturn(true);
+        when(orderRepository.updateStatusWhereCurrent(List.of(ORDER_ID), OrderStatus.PAYMENT_FAILED, OrderStatus.PLACED))
+                .thenReturn(1);
+
+        // ACT
+        Order result = paymentService.verifyPaymentAndFinalizeOrder(dto);
+
+        // ASSERT
+        assertEquals(OrderStatus.PLACED, result.getStatus());
+        verify(transactionRepository).save(any(Transaction.class));
+    }
+
+    @Test
+    void webhook_CaptureForCancelledOrder_IsLeftForReview() {
+        // ARRANGE
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order(OrderStatus.CANCELLED)));
+        when(transactionRepository.findByOrder_Id(ORDER_ID)).thenReturn(Optional.empty());
+
+        // ACT
+        paymentService.applyWebhookEvent(new PaymentWebhookEvent(PaymentWebhookEvent.Type.CAPTURED, ORDER_ID,
+                "order_pg", "pay_1", 50000, "INR"));
+
+        // ASSERT: nothing is written; the capture is logged for manual review
+        verify(orderRepository, never()).updateStatusWhereCurrent(anyCollection(), any(), any());
+        verify(transactionRepository, never()).save(any());
+        verifyNoInteractions(outboxService);
+    }
+}
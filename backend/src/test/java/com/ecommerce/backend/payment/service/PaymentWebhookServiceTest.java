@@ -0,0 +1,149 @@
+package com.ecommerce.backend.payment.service;
+
+import com.ecommerce.backend.payment.HmacSha256Verifier;
+import com.ecommerce.backend.payment.PaymentWebhookEvent;
+import com.ecommerce.backend.payment.PendingPaymentRegistry;
+import com.ecommerce.backend.service.PaymentService;
+import com.ecommerce.backend.service.PaymentWebhookService;
+import com.ecommerce.backend.service.PaymentWebhookService.Outcome;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PaymentWebhookServiceTest {
+
+    private static final String SECRET = "webhook_secret";
+
+    @Mock
+    private PaymentService paymentService;
+
+    private final HmacSha256Verifier signer = new HmacSha256Verifier(SECRET);
+    private final PendingPaymentRegistry pendingPayments = new PendingPaymentRegistry(Duration.ofMinutes(5), 100);
+    private PaymentWebhookService webhookService;
+
+    @BeforeEach
+    void setUp() {
+        webhookService = new PaymentWebhookService(new HmacSha256Verifier(SECRET), paymentService, pendingPayments,
+                new ObjectMapper(), new SimpleMeterRegistry(), 4, 100, 2000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        webhookService.shutdown();
+    }
+
+    private static String paymentEvent(String event, long orderId, String paymentId) {
+        return "{\"event\":\"" + event + "\",\"payload\":{\"payment\":{\"entity\":{" +
+                "\"id\":\"" + paymentId + "\",\"order_id\":\"order_1\",\"amount\":49900,\"currency\":\"INR\"," +
+                "\"notes\":{\"orderId\":\"" + orderId + "\"}}}}}";
+    }
+
+    private CompletableFuture<Outcome> send(String json) {
+        return webhookService.receive(json.getBytes(StandardCharsets.UTF_8), signer.signHex(json));
+    }
+
+    private Outcome deliver(String json) {
+        return send(json).join();
+    }
+
+    @Test
+    void receive_TamperedBody_IsRejected() {
+        String json = paymentEvent("payment.captured", 42L, "pay_1");
+        String signature = signer.signHex(json);
+
+        Outcome outcome = webhookService.receive(json.replace("49900", "100").getBytes(StandardCharsets.UTF_8), signature).join();
+
+        assertEquals(Outcome.INVALID_SIGNATURE, outcome);
+        verifyNoInteractions(paymentService);
+    }
+
+    @Test
+    void receive_CapturedPayment_IsAcknowledgedOnceApplied() {
+        // ACT
+        Outcome outcome = deliver(paymentEvent("payment.captured", 42L, "pay_1"));
+
+        // ASSERT: the outcome only completes after the update ran
+        assertEquals(Outcome.APPLIED, outcome);
+        verify(paymentService).applyWebhookEvent(argThat(event ->
+                event.getType() == PaymentWebhookEvent.Type.CAPTURED
+                        && event.getOrderId() == 42L
+                        && "pay_1".equals(event.getPaymentGatewayPaymentId())
+                        && event.getAmountMinorUnits() == 49900));
+    }
+
+    @Test
+    void receive_EventWithoutNotes_IsResolvedFromPendingPayments() {
+        // ARRANGE
+        pendingPayments.register("order_9", 99L);
+        String json = "{\"event\":\"payment.failed\",\"payload\":{\"payment\":{\"entity\":" +
+                "{\"id\":\"pay_9\",\"order_id\":\"order_9\",\"amount\":100}}}}";
+
+        // ACT
+        Outcome outcome = deliver(json);
+
+        // ASSERT
+        assertEquals(Outcome.APPLIED, outcome);
+        verify(paymentService).applyWebhookEvent(argThat(event -> event.getOrderId() == 99L));
+    }
+
+    @Test
+    void receive_EventsOfOneOrder_AreAppliedInArrivalOrder() {
+        // ARRANGE
+        List<String> applied = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            applied.add(invocation.<PaymentWebhookEvent>getArgument(0).getPaymentGatewayPaymentId());
+            return null;
+        }).when(paymentService).applyWebhookEvent(any());
+
+        // ACT: deliveries overlap, as they do when the gateway sends a burst
+        List<CompletableFuture<Outcome>> outcomes = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            outcomes.add(send(paymentEvent("payment.failed", 7L, "pay_" + i)));
+        }
+
+        // ASSERT
+        outcomes.forEach(outcome -> assertEquals(Outcome.APPLIED, outcome.join()));
+        verify(paymentService, times(50)).applyWebhookEvent(any());
+        for (int i = 0; i < 50; i++) {
+            assertEquals("pay_" + i, applied.get(i));
+        }
+    }
+
+    @Test
+    void receive_FailedUpdate_IsNotAcknowledged() {
+        // ARRANGE
+        doThrow(new IllegalStateException("database unavailable")).when(paymentService).applyWebhookEvent(any());
+
+        // ACT
+        Outcome outcome = deliver(paymentEvent("payment.captured", 42L, "pay_1"));
+
+        // ASSERT: answered with 5xx, so the gateway redelivers; the lane keeps going
+        assertEquals(Outcome.FAILED, outcome);
+        doNothing().when(paymentService).applyWebhookEvent(any());
+        assertEquals(Outcome.APPLIED, deliver(paymentEvent("payment.captured", 42L, "pay_1")));
+    }
+
+    @Test
+    void receive_UnhandledEventType_IsAcknowledgedButIgnored() {
+        assertEquals(Outcome.IGNORED, deliver("{\"event\":\"refund.created\",\"payload\":{}}"));
+        assertEquals(Outcome.MALFORMED, deliver("not json"));
+        verifyNoInteractions(paymentService);
+    }
+}
@@ -0,0 +1,124 @@
+package com.ecommerce.backend.payment.service;
+
+import com.ecommerce.backend.dto.ReconciliationSummary;
+import com.ecommerce.backend.dto.ReconciliationSummary.MismatchType;
+import com.ecommerce.backend.model.Money;
+import com.ecommerce.backend.repository.TransactionRepository;
+import com.ecommerce.backend.repository.TransactionRepository.SettlementView;
+import com.ecommerce.backend.service.SettlementReconciliationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SettlementReconciliationServiceTest {
+
+    private static final LocalDate SETTLEMENT_DATE = LocalDate.of(2024, 5, 10);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @TempDir
+    Path dir;
+
+    private SettlementReconciliationService service;
+    private final List<SettlementView> ledger = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        service = new SettlementReconciliationService(transactionRepository, new SimpleMeterRegistry());
+        // Tiny chunks and map windows so the test crosses keyset and mapping boundaries
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+        ReflectionTestUtils.setField(service, "mapWindowBytes", 32);
+        ReflectionTestUtils.setField(service, "lookbackDays", 3);
+
+        // The mock behaves like the keyset query: rows after the given key, in key order, limited to the page size
+        lenient().when(transactionRepository.findSettledAfter(any(), any(), anyString(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    String after = invocation.getArgument(2);
+                    Pageable page = invocation.getArgument(3);
+                    return ledger.stream()
+                            .filter(row -> row.getPaymentGatewayPaymentId().compareTo(after) > 0)
+                            .limit(page.getPageSize())
+                            .toList();
+                });
+    }
+
+    private void ledgerRow(long id, String paymentId, long amountMinor, String currency, LocalDateTime date) {
+        ledger.add(new SettlementView() {
+            @Override public Long getId() { return id; }
+            @Override public String getPaymentGatewayPaymentId() { return paymentId; }
+            @Override public Money getAmountPaid() { return Money.ofMinor(amountMinor); }
+            @Override public String getCurrency() { return currency; }
+            @Override public LocalDateTime getTransactionDate() { return date; }
+        });
+    }
+
+    @Test
+    void reconcile_ReportsEachKindOfMismatch() throws Exception {
+        // ARRANGE
+        LocalDateTime onDay = SETTLEMENT_DATE.atTime(12, 0);
+        LocalDateTime dayBefore = SETTLEMENT_DATE.minusDays(1).atTime(12, 0);
+        ledgerRow(1, "pay_a", 10000, "INR", onDay);      // matches
+        ledgerRow(2, "pay_b", 5000, "INR", onDay);       // amount differs
+        ledgerRow(3, "pay_c", 700, "INR", onDay);        // currency differs
+        ledgerRow(4, "pay_e", 100, "INR", onDay);        // not settled: reported
+        ledgerRow(5, "pay_f", 100, "INR", dayBefore);    // not settled, settled on an earlier day: ignored
+        ledgerRow(6, "pay_g", 123456, "INR", dayBefore); // matches (settled a day late)
+        Path file = dir.resolve("settlement.csv");
+        Files.writeString(file, String.join("\n",
+                "payment_id,amount,currency",
+                "pay_a,100.00,INR",
+                "pay_b,50.5,INR",
+                "pay_c,7,USD",
+                "pay_d,1.00,INR",
+                "pay_d,1.00,INR",
+                "pay_g,1234.56,INR"));
+        Path report = dir.resolve("reports/report.csv");
+
+        // ACT
+        ReconciliationSummary summary = service.reconcile(file, report, SETTLEMENT_DATE);
+
+        // ASSERT
+        assertEquals(6, summary.getSettlementLines());
+        assertEquals(6, summary.getLedgerRowsScanned());
+        assertEquals(2, summary.getMatched());
+        assertEquals(1L, summary.getMismatches().get(MismatchType.AMOUNT_MISMATCH));
+        assertEquals(1L, summary.getMismatches().get(MismatchType.CURRENCY_MISMATCH));
+        assertEquals(1L, summary.getMismatches().get(MismatchType.MISSING_IN_LEDGER));
+        assertEquals(1L, summary.getMismatches().get(MismatchType.DUPLICATE_IN_SETTLEMENT));
+        assertEquals(1L, summary.getMismatches().get(MismatchType.MISSING_IN_SETTLEMENT));
+
+        List<String> lines = Files.readAllLines(report);
+        assertEquals(6, lines.size()); // header + 5 mismatches
+        assertTrue(lines.contains("AMOUNT_MISMATCH,pay_b,2,5000,5050,INR,INR,3"));
+        assertTrue(lines.contains("MISSING_IN_SETTLEMENT,pay_e,4,100,,INR,,"));
+    }
+
+    @Test
+    void reconcile_UnsortedFile_Fails() throws Exception {
+        Path file = dir.resolve("settlement.csv");
+        Files.writeString(file, "pay_b,1.00,INR\npay_a,1.00,INR\n");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> service.reconcile(file, dir.resolve("report.csv"), SETTLEMENT_DATE));
+        assertTrue(e.getMessage().contains("line 2"));
+    }
+}
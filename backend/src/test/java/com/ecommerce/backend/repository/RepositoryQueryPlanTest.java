@@ -0,0 +1,272 @@
+package com.ecommerce.backend.repository;
+
+import com.ecommerce.backend.model.ArchivedOrder;
+import com.ecommerce.backend.model.ArchivedOrderItem;
+import com.ecommerce.backend.model.Cart;
+import com.ecommerce.backend.model.CartItem;
+import com.ecommerce.backend.model.Category;
+import com.ecommerce.backend.model.ERole;
+import com.ecommerce.backend.model.Order;
+import com.ecommerce.backend.model.OrderItem;
+import com.ecommerce.backend.model.OrderStatus;
+import com.ecommerce.backend.model.OutboxEvent;
+import com.ecommerce.backend.model.Product;
+import com.ecommerce.backend.model.RateLimitCounter;
+import com.ecommerce.backend.model.RevokedToken;
+import com.ecommerce.backend.model.Role;
+import com.ecommerce.backend.model.Transaction;
+import com.ecommerce.backend.model.User;
+import com.ecommerce.backend.util.SnowflakeIdentifierGenerator;
+import jakarta.persistence.EntityManager;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every repository query against the schema built by the Flyway migrations (H2), and fails if the plan
+ * of any statement it issues scans a whole table. Hibernate validates the entities against that schema first.
+ *
+ * To add a repository method, add a case below; {@link #everyRepositoryMethodHasACase()} enforces it.
+ */
+public class RepositoryQueryPlanTest {
+
+    private static final String URL = "jdbc:h2:mem:query_plans;DB_CLOSE_DELAY=-1";
+
+    private static final List<Class<?>> ENTITIES = List.of(ArchivedOrder.class, ArchivedOrderItem.class, Cart.class,
+            CartItem.class, Category.class, Order.class, OrderItem.class, OutboxEvent.class, Product.class,
+            RateLimitCounter.class, RevokedToken.class, Role.class, Transaction.class, User.class);
+
+    private static final List<Class<?>> REPOSITORIES = List.of(ArchivedOrderItemRepository.class,
+            ArchivedOrderRepository.class, CartItemRepository.class, CartRepository.class, CategoryRepository.class,
+            OrderItemRepository.class, OrderRepository.class, OutboxEventRepository.class, ProductRepository.class,
+            RateLimitCounterRepository.class, RevokedTokenRepository.class, RoleRepository.class,
+            TransactionRepository.class, UserRepository.class);
+
+    // Queries that read a whole table on purpose
+    private static final Map<String, String> INTENDED_FULL_SCANS = Map.of(
+            "CategoryRepository.findAll", "lists every category (served from the query cache)");
+
+    private static final List<String> statements = new ArrayList<>();
+    private static SessionFactory sessionFactory;
+    private static Connection connection;
+
+    private final Map<String, Consumer<EntityManager>> cases = new LinkedHashMap<>();
+
+    @BeforeAll
+    static void migrate() throws SQLException {
+        Flyway.configure().dataSource(URL, "sa", "").locations("classpath:db/migration").load().migrate();
+
+        Configuration configuration = new Configuration()
+                .setProperty("hibernate.connection.url", URL)
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.hbm2ddl.auto", "validate")
+                .setProperty("jakarta.persistence.validation.mode", "none")
+                .setProperty(SnowflakeIdentifierGenerator.NODE_ID_SETTING, "0");
+        configuration.setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy());
+        configuration.setImplicitNamingStrategy(new SpringImplicitNamingStrategy());
+        configuration.setStatementInspector(sql -> {
+            statements.add(sql);
+            return sql;
+        });
+        ENTITIES.forEach(configuration::addAnnotatedClass);
+        sessionFactory = configuration.buildSessionFactory();
+
+        // One user with a cart and an order, for the collection loads
+        connection = DriverManager.getConnection(URL, "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("insert into users (id, username, email, password, security_version) values (1, 'u', 'u@x.io', 'p', 0)");
+            statement.execute("insert into carts (id, user_id) values (1, 1)");
+            statement.execute("insert into orders (id, user_id, order_date, status, total_amount, shipping_address) "
+                    + "values (1, 1, current_timestamp, 'PLACED', 10, 'a')");
+        }
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        sessionFactory.close();
+        connection.close();
+    }
+
+    RepositoryQueryPlanTest() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = List.of(1L, 2L);
+        PageRequest page = PageRequest.of(0, 100);
+
+        query(ArchivedOrderItemRepository.class, "findByOrderId", r -> r.findByOrderId(1L));
+        query(ArchivedOrderItemRepository.class, "findByOrderIdIn", r -> r.findByOrderIdIn(ids));
+        query(ArchivedOrderItemRepository.class, "copyFromOrderItems", r -> r.copyFromOrderItems(ids));
+
+        query(ArchivedOrderRepository.class, "findByUserIdOrderByOrderDateDesc", r -> r.findByUserIdOrderByOrderDateDesc(1L));
+        query(ArchivedOrderRepository.class, "copyFromOrders", r -> r.copyFromOrders(ids));
+
+        query(CartRepository.class, "findByUser", (r, em) -> r.findByUser(em.getReference(User.class, 1L)));
+        query(CategoryRepository.class, "findAll", r -> r.findAll());
+
+        query(OrderItemRepository.class, "findByOrder", (r, em) -> r.findByOrder(em.getReference(Order.class, 1L)));
+        query(OrderItemRepository.class, "deleteByOrderIds", r -> r.deleteByOrderIds(ids));
+
+        query(OrderRepository.class, "findByUserOrderByOrderDateDesc",
+                (r, em) -> r.findByUserOrderByOrderDateDesc(em.getReference(User.class, 1L)));
+        query(OrderRepository.class, "findByIdAndUser", (r, em) -> r.findByIdAndUser(1L, em.getReference(User.class, 1L)));
+        query(OrderRepository.class, "findStatusesByIdIn", r -> r.findStatusesByIdIn(ids));
+        query(OrderRepository.class, "updateStatusWhereCurrent",
+                r -> r.updateStatusWhereCurrent(ids, OrderStatus.PLACED, OrderStatus.PROCESSING));
+        query(OrderRepository.class, "findArchivableIds",
+                r -> r.findArchivableIds(EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED), now, 0L, page));
+        query(OrderRepository.class, "setPaymentGatewayOrderId", r -> r.setPaymentGatewayOrderId(1L, "order_pg"));
+        query(OrderRepository.class, "findIdByPaymentGatewayOrderId",
+                r -> r.findIdByPaymentGatewayOrderId("order_pg"));
+
+        query(OutboxEventRepository.class, "findPending", r -> r.findPending(now, page));
+        query(OutboxEventRepository.class, "claim", r -> r.claim(ids, "run", now, now));
+        query(OutboxEventRepository.class, "findClaimed", r -> r.findClaimed(ids, "run"));
+        query(OutboxEventRepository.class, "markPublished", r -> r.markPublished(ids, now));
+        query(OutboxEventRepository.class, "recordFailure", r -> r.recordFailure(1L, now, null));
+        query(OutboxEventRepository.class, "deletePublishedBefore", r -> r.deletePublishedBefore(now));
+
+        query(ProductRepository.class, "findByCategoryName", r -> r.findByCategoryName("Books"));
+        query(ProductRepository.class, "findByCategoryId", r -> r.findByCategoryId(1));
+        query(ProductRepository.class, "decrementStock", r -> r.decrementStock(1L, 1));
+
+        query(RateLimitCounterRepository.class, "incrementIfBelow", r -> r.incrementIfBelow("k", 10));
+        query(RateLimitCounterRepository.class, "insertFirst", r -> r.insertFirst("k", now));
+        query(RateLimitCounterRepository.class, "deleteExpired", r -> r.deleteExpired(now));
+
+        query(RevokedTokenRepository.class, "findActiveRevokedSince", r -> r.findActiveRevokedSince(now, now));
+        query(RevokedTokenRepository.class, "deleteExpired", r -> r.deleteExpired(now));
+
+        query(RoleRepository.class, "findByName", r -> r.findByName(ERole.ROLE_USER));
+
+        query(TransactionRepository.class, "findByOrder_Id", r -> r.findByOrder_Id(1L));
+        query(TransactionRepository.class, "findByPaymentGatewayOrderId", r -> r.findByPaymentGatewayOrderId("order_1"));
+        query(TransactionRepository.class, "findByPaymentGatewayPaymentId", r -> r.findByPaymentGatewayPaymentId("pay_1"));
+        query(TransactionRepository.class, "findSettledAfter", r -> r.findSettledAfter(now, now, "", page));
+        query(TransactionRepository.class, "deleteByOrderIds", r -> r.deleteByOrderIds(ids));
+
+        query(UserRepository.class, "findByUsername", r -> r.findByUsername("u"));
+        query(UserRepository.class, "findWithRolesByUsername", r -> r.findWithRolesByUsername("u"));
+        query(UserRepository.class, "findIdentitiesByUsernameOrEmail", r -> r.findIdentitiesByUsernameOrEmail("u", "u@x.io"));
+        query(UserRepository.class, "findIdentitiesAfter", r -> r.findIdentitiesAfter(0L, page));
+        query(UserRepository.class, "existsByUsername", r -> r.existsByUsername("u"));
+        query(UserRepository.class, "existsByEmail", r -> r.existsByEmail("u@x.io"));
+        query(UserRepository.class, "findSecurityVersionById", r -> r.findSecurityVersionById(1L));
+        query(UserRepository.class, "updatePassword", r -> r.updatePassword("u", "p"));
+        query(UserRepository.class, "incrementSecurityVersion", r -> r.incrementSecurityVersion(1L));
+
+        // Collection loads behind the order and cart pages
+        cases.put("Order.items", em -> em.find(Order.class, 1L).getItems().size());
+        cases.put("Cart.items", em -> em.find(Cart.class, 1L).getItems().size());
+    }
+
+    @TestFactory
+    List<DynamicTest> queryPlans_UseIndexes() {
+        return cases.entrySet().stream()
+                .map(c -> DynamicTest.dynamicTest(c.getKey(), () -> assertNoFullScan(c.getKey(), c.getValue())))
+                .toList();
+    }
+
+    @Test
+    void everyRepositoryMethodHasACase() {
+        for (Class<?> repository : REPOSITORIES) {
+            for (Method method : repository.getDeclaredMethods()) {
+                if (isQueryMethod(method)) {
+                    String name = repository.getSimpleName() + "." + method.getName();
+                    assertTrue(cases.containsKey(name), "No query plan case for " + name);
+                }
+            }
+        }
+    }
+
+    private void assertNoFullScan(String name, Consumer<EntityManager> call) throws SQLException {
+        List<String> issued = execute(call);
+        assertFalse(issued.isEmpty(), name + " issued no SQL");
+
+        for (String sql : issued) {
+            String plan = explain(sql);
+            if (INTENDED_FULL_SCANS.containsKey(name)) {
+                continue;
+            }
+            assertFalse(plan.contains(".tableScan"), name + " scans a whole table:\n" + plan);
+        }
+    }
+
+    // Runs the call in a transaction that is rolled back, and returns the SQL it issued
+    private static List<String> execute(Consumer<EntityManager> call) {
+        EntityManager entityManager = sessionFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            statements.clear();
+            call.accept(entityManager);
+            entityManager.flush();
+            return List.copyOf(statements);
+        } finally {
+            entityManager.getTransaction().rollback();
+            entityManager.close();
+        }
+    }
+
+    // The plan does not depend on parameter values, so every parameter is bound to null
+    private static String explain(String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        }
+    }
+
+    private <R> void query(Class<R> repository, String method, Consumer<R> call) {
+        query(repository, method, (r, em) -> call.accept(r));
+    }
+
+    private <R> void query(Class<R> repository, String method, RepositoryCall<R> call) {
+        String name = repository.getSimpleName() + "." + method;
+        assertEquals(1, Arrays.stream(repository.getDeclaredMethods())
+                        .filter(m -> isQueryMethod(m) && m.getName().equals(method)).count(),
+                name + " is not a declared method");
+        cases.put(name, em -> call.accept(new JpaRepositoryFactory(em).getRepository(repository), em));
+    }
+
+    private static boolean isQueryMethod(Method method) {
+        return !method.isDefault() && !method.isBridge() && !Modifier.isStatic(method.getModifiers());
+    }
+
+    @FunctionalInterface
+    private interface RepositoryCall<R> {
+        void accept(R repository, EntityManager entityManager);
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.backend.security;
+
+import com.ecommerce.backend.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    // Blocks every hash until the test releases it
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                await();
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                await();
+                return true;
+            }
+
+            private void await() {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    @Test
+    void bcrypt_VerifiesOnThePoolAndFlagsLowerCostHashes() {
+        // ARRANGE
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 4, Duration.ofSeconds(5), meterRegistry);
+        String oldHash = new BCryptPasswordEncoder(4).encode("secret");
+
+        // ACT & ASSERT
+        assertTrue(encoder.matches("secret", oldHash));
+        assertFalse(encoder.matches("wrong", oldHash));
+        assertTrue(encoder.upgradeEncoding(oldHash));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+        assertEquals(3, meterRegistry.get("security.password.hashing").timer().count());
+    }
+
+    @Test
+    void matches_QueueFull_IsRejectedImmediately() {
+        // ARRANGE: one hash running, one queued
+        encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 1, Duration.ofSeconds(5), meterRegistry);
+        CompletableFuture.runAsync(() -> encoder.matches("a", "hash"));
+        CompletableFuture.runAsync(() -> encoder.matches("b", "hash"));
+        waitForQueueDepth(1);
+
+        // ACT & ASSERT
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.matches("c", "hash"));
+        assertEquals(1.0, meterRegistry.get("security.password.hashing.rejected").tag("reason", "queue_full").counter().count());
+    }
+
+    @Test
+    void matches_WaitTooLong_GivesUp() {
+        encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 1, Duration.ofMillis(50), meterRegistry);
+
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.matches("a", "hash"));
+        assertEquals(1.0, meterRegistry.get("security.password.hashing.rejected").tag("reason", "timeout").counter().count());
+    }
+
+    private void waitForQueueDepth(int depth) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.get("security.password.hashing.queue.depth").gauge().value() < depth) {
+            assertTrue(System.currentTimeMillis() < deadline, "queue never filled");
+            Thread.onSpinWait();
+        }
+    }
+}
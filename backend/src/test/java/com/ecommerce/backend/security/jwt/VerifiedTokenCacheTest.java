@@ -0,0 +1,77 @@
+package com.ecommerce.backend.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "bG9uZ1NlY3JldEtleUZvckVjb21tZXJjZUFwcGxpY2F0aW9uV2l0aEpXVC1TZWN1cml0eQ==";
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private static Claims claimsExpiringAt(long epochMillis) {
+        return Jwts.claims().setSubject("alice").setExpiration(new Date(epochMillis));
+    }
+
+    @Test
+    void parseClaims_RepeatedToken_IsServedFromTheCache() {
+        // ARRANGE
+        JwtUtils jwtUtils = new JwtUtils(SECRET, 60_000, false, 100, 300_000);
+        String token = Jwts.builder().setSubject("alice").setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(io.jsonwebtoken.security.Keys.hmacShaKeyFor(io.jsonwebtoken.io.Decoders.BASE64.decode(SECRET)))
+                .compact();
+
+        // ACT
+        Claims first = jwtUtils.parseClaims(token);
+        Claims second = jwtUtils.parseClaims(token);
+
+        // ASSERT: same instance, so the second call did not parse
+        assertEquals("alice", first.getSubject());
+        assertSame(first, second);
+        // A token differing in one character is never served from the cache
+        assertNull(jwtUtils.parseClaims(token.substring(0, token.length() - 2) + "xx"));
+    }
+
+    @Test
+    void entry_ExpiresWithTheTokenOrTheTtlCap() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, 5_000, now::get);
+        cache.put("short", claimsExpiringAt(now.get() + 1_000));
+        cache.put("long", claimsExpiringAt(now.get() + 60_000));
+
+        now.addAndGet(1_000);
+        assertNull(cache.get("short"));
+        assertNotNull(cache.get("long"));
+
+        now.addAndGet(4_000);
+        assertNull(cache.get("long"));
+    }
+
+    @Test
+    void put_WhenFull_EvictsTheSoonestExpiringToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2, 300_000, now::get);
+        cache.put("a", claimsExpiringAt(now.get() + 10_000));
+        cache.put("b", claimsExpiringAt(now.get() + 60_000));
+
+        cache.put("c", claimsExpiringAt(now.get() + 60_000));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    void zeroMaxEntries_DisablesTheCache() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0, 5_000, now::get);
+        cache.put("a", claimsExpiringAt(now.get() + 60_000));
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get("a"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.backend.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalRateLimiterTest {
+
+    private static final RateLimitRule RULE = new RateLimitRule(100, 1);
+
+    @Test
+    void concurrentRequests_NeverExceedTheCapacity() throws Exception {
+        // ARRANGE: refill is negligible during the test
+        LocalRateLimiter limiter = new LocalRateLimiter(10);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        // ACT
+        for (int i = 0; i < 1_000; i++) {
+            pool.submit(() -> {
+                if (limiter.tryAcquire("key", RULE) == 0) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        // ASSERT
+        assertEquals(100, allowed.get());
+    }
+
+    @Test
+    void fullMap_EvictsTheBucketsNearestToRefilled() {
+        AtomicLong nanos = new AtomicLong(0);
+        RateLimitRule oneToken = new RateLimitRule(1, 60);
+        LocalRateLimiter limiter = new LocalRateLimiter(2, nanos::get);
+
+        assertEquals(0, limiter.tryAcquire("a", oneToken));
+        nanos.set(500_000_000L);
+        assertEquals(0, limiter.tryAcquire("b", oneToken));
+        // Full and nothing refilled yet: "a" refills first, so it makes room for "c"
+        assertEquals(0, limiter.tryAcquire("c", oneToken));
+        assertEquals(2, limiter.size());
+        // "b" kept its state
+        assertTrue(limiter.tryAcquire("b", oneToken) > 0);
+        // Between sweeps a new key still gets a bucket of its own
+        assertEquals(0, limiter.tryAcquire("d", oneToken));
+        assertEquals(2, limiter.size());
+
+        // A second after refilling, idle buckets are swept
+        nanos.addAndGet(2_000_000_000L);
+        assertEquals(0, limiter.tryAcquire("e", oneToken));
+        assertEquals(1, limiter.size());
+    }
+}
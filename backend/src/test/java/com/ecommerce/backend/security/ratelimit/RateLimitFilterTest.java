@@ -0,0 +1,114 @@
+package com.ecommerce.backend.security.ratelimit;
+
+import com.ecommerce.backend.security.jwt.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RateLimitFilterTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+    private final FilterChain chain = mock(FilterChain.class);
+    private final JwtUtils jwtUtils = mock(JwtUtils.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RateLimitFilter(
+                Map.of(RouteClass.AUTH, new RateLimitRule(2, 60), RouteClass.AVAILABILITY, new RateLimitRule(2, 60)),
+                Map.of(),
+                new LocalRateLimiter(100, nanos::get), null, jwtUtils, meterRegistry);
+    }
+
+    private MockHttpServletResponse post(String path, String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void burstAboveCapacity_IsRejectedWith429BeforeTheChain() throws Exception {
+        // ACT
+        assertEquals(200, post("/api/auth/signin", "10.0.0.1").getStatus());
+        assertEquals(200, post("/api/auth/signin", "10.0.0.1").getStatus());
+        MockHttpServletResponse rejected = post("/api/auth/signin", "10.0.0.1");
+
+        // ASSERT
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        verify(chain, times(2)).doFilter(any(), any());
+        assertEquals(1.0, meterRegistry.get("ratelimit.rejected").counter().count());
+    }
+
+    @Test
+    void otherClientsAndRoutes_AreNotAffected() throws Exception {
+        post("/api/auth/signin", "10.0.0.1");
+        post("/api/auth/signin", "10.0.0.1");
+
+        assertEquals(200, post("/api/auth/signup", "10.0.0.2").getStatus());
+        assertEquals(200, post("/api/products", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void bucket_RefillsOverTime() throws Exception {
+        post("/api/auth/signin", "10.0.0.1");
+        post("/api/auth/signin", "10.0.0.1");
+        assertEquals(429, post("/api/auth/signin", "10.0.0.1").getStatus());
+
+        // One token per second at 60/minute
+        nanos.addAndGet(1_000_000_000L);
+
+        assertEquals(200, post("/api/auth/signin", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void availabilityCheck_IsLimitedPerIp() throws Exception {
+        // ARRANGE
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/availability");
+        request.setRemoteAddr("10.0.0.1");
+
+        // ACT
+        for (int i = 0; i < 2; i++) {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+        }
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(request, rejected, chain);
+
+        // ASSERT
+        assertEquals(429, rejected.getStatus());
+        verify(chain, times(2)).doFilter(any(), any());
+    }
+
+    @Test
+    void perUserKey_LeavesTheVerifiedClaimsForAuthentication() throws Exception {
+        // ARRANGE
+        RateLimitFilter checkoutFilter = new RateLimitFilter(Map.of(),
+                Map.of(RouteClass.CHECKOUT, new RateLimitRule(1, 60)),
+                new LocalRateLimiter(100, nanos::get), null, jwtUtils, meterRegistry);
+        Claims claims = Jwts.claims().setSubject("alice");
+        when(jwtUtils.parseClaims("token")).thenReturn(claims);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders/checkout");
+        request.addHeader("Authorization", "Bearer token");
+
+        // ACT
+        checkoutFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // ASSERT
+        assertSame(claims, request.getAttribute(JwtUtils.CLAIMS_ATTRIBUTE));
+        verify(jwtUtils, times(1)).parseClaims("token");
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.backend.security.services;
+
+import com.ecommerce.backend.repository.UserRepository;
+import com.ecommerce.backend.security.jwt.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ClaimsAuthenticationTest {
+
+    private static final String SECRET = "bG9uZ1NlY3JldEtleUZvckVjb21tZXJjZUFwcGxpY2F0aW9uV2l0aEpXVC1TZWN1cml0eQ==";
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final AtomicLong now = new AtomicLong();
+
+    private static String issueToken(JwtUtils jwtUtils, long securityVersion) {
+        CustomUserDetails user = new CustomUserDetails(7L, "alice", "alice@example.com", "hash",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), securityVersion);
+        return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @Test
+    void claimsToken_RebuildsPrincipalWithoutLoadingTheUser() {
+        // ARRANGE
+        JwtUtils jwtUtils = new JwtUtils(SECRET, 60_000, true);
+
+        // ACT
+        Claims claims = jwtUtils.parseClaims(issueToken(jwtUtils, 3));
+        CustomUserDetails details = jwtUtils.userDetailsFromClaims(claims);
+
+        // ASSERT
+        assertEquals(7L, details.getId());
+        assertEquals("alice", details.getUsername());
+        assertEquals("alice@example.com", details.getEmail());
+        assertEquals(3L, details.getSecurityVersion());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), List.copyOf(details.getAuthorities()));
+        assertNull(details.getPassword());
+    }
+
+    @Test
+    void plainToken_HasNoUserClaims() {
+        JwtUtils jwtUtils = new JwtUtils(SECRET, 60_000, false);
+
+        Claims claims = jwtUtils.parseClaims(issueToken(jwtUtils, 0));
+
+        assertEquals("alice", claims.getSubject());
+        assertNull(jwtUtils.userDetailsFromClaims(claims));
+    }
+
+    @Test
+    void versionCheck_QueriesOncePerTtlAndHonoursInvalidation() {
+        // ARRANGE
+        UserSecurityVersionCache cache = new UserSecurityVersionCache(userRepository, 30_000, 100, now::get);
+        when(userRepository.findSecurityVersionById(7L)).thenReturn(Optional.of(3L), Optional.of(4L));
+
+        // ACT & ASSERT: repeated requests within the TTL hit the cache
+        assertTrue(cache.isCurrent(7L, 3));
+        now.set(29_999);
+        assertTrue(cache.isCurrent(7L, 3));
+        verify(userRepository, times(1)).findSecurityVersionById(7L);
+
+        // A local role change invalidates immediately: the old token is rejected, the new one accepted
+        cache.invalidate(7L);
+        assertFalse(cache.isCurrent(7L, 3));
+        assertTrue(cache.isCurrent(7L, 4));
+    }
+
+    @Test
+    void versionCheck_DeletedUserIsRejected() {
+        UserSecurityVersionCache cache = new UserSecurityVersionCache(userRepository, 30_000, 100, now::get);
+        when(userRepository.findSecurityVersionById(9L)).thenReturn(Optional.empty());
+
+        assertFalse(cache.isCurrent(9L, 0));
+        assertFalse(cache.isCurrent(9L, 0));
+        verify(userRepository, times(1)).findSecurityVersionById(9L);
+    }
+}
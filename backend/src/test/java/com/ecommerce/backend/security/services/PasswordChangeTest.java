@@ -0,0 +1,120 @@
+package com.ecommerce.backend.security.services;
+
+import com.ecommerce.backend.model.RevokedToken;
+import com.ecommerce.backend.model.User;
+import com.ecommerce.backend.repository.RevokedTokenRepository;
+import com.ecommerce.backend.repository.UserRepository;
+import com.ecommerce.backend.service.UserServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PasswordChangeTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserSecurityVersionCache securityVersionCache;
+    @Mock
+    private UserDetailsCache userDetailsCache;
+    @Mock
+    private UserIdentityIndex userIdentityIndex;
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationService tokenRevocationService;
+    private UserServiceImpl userService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // A real revocation service: it is what rejects old tokens in the default (non-claims) mode
+        tokenRevocationService = new TokenRevocationService(revokedTokenRepository, 3_600_000, 1_000, 0.01, () -> NOW);
+        userService = new UserServiceImpl(userRepository, securityVersionCache, userDetailsCache, userIdentityIndex,
+                tokenRevocationService, NoOpPasswordEncoder.getInstance());
+        user = new User("alice", "alice@example.com", "old-secret");
+        user.setId(7L);
+        user.setSecurityVersion(3);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void changePassword_BumpsTheSecurityVersionAndEvictsTheUser() {
+        // ACT
+        userService.changePassword(7L, "old-secret", "new-secret");
+
+        // ASSERT: tokens carrying version 3 are now rejected
+        assertEquals("new-secret", user.getPassword());
+        assertEquals(4, user.getSecurityVersion());
+        verify(userRepository).save(user);
+        verify(securityVersionCache).invalidateAfterCommit(7L);
+        verify(userDetailsCache).invalidateAfterCommit("alice");
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void changePassword_RevokesEarlierTokensOnceTheChangeCommits() {
+        // ARRANGE: inside a transaction, with a token issued before the change
+        TransactionSynchronizationManager.initSynchronization();
+        Date issuedBefore = new Date(NOW - 60_000);
+
+        // ACT
+        userService.changePassword(7L, "old-secret", "new-secret");
+
+        // ASSERT: the revocation is stored with the change, but only applied when it commits
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        assertFalse(tokenRevocationService.isRevoked("jti", issuedBefore, 7L));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(tokenRevocationService.isRevoked("jti", issuedBefore, 7L));
+        assertFalse(tokenRevocationService.isRevoked("jti", new Date(NOW + 1_000), 7L));
+        assertFalse(tokenRevocationService.isRevoked("jti", issuedBefore, 8L));
+    }
+
+    @Test
+    void updateUser_RevokesEarlierTokens() {
+        // ARRANGE
+        when(userRepository.save(user)).thenReturn(user);
+
+        // ACT: outside a transaction the revocation applies immediately
+        User changes = new User();
+        changes.setEmail("alice@example.org");
+        userService.updateUser(7L, changes);
+
+        // ASSERT
+        assertTrue(tokenRevocationService.isRevoked("jti", new Date(NOW - 60_000), 7L));
+        assertEquals(4, user.getSecurityVersion());
+    }
+
+    @Test
+    void wrongCurrentPassword_ChangesNothing() {
+        assertThrows(BadCredentialsException.class, () -> userService.changePassword(7L, "guess", "new-secret"));
+
+        assertEquals("old-secret", user.getPassword());
+        assertEquals(3, user.getSecurityVersion());
+        verify(userRepository, never()).save(any());
+        verifyNoInteractions(revokedTokenRepository);
+    }
+}
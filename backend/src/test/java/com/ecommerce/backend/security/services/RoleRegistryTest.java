@@ -0,0 +1,57 @@
+package com.ecommerce.backend.security.services;
+
+import com.ecommerce.backend.model.ERole;
+import com.ecommerce.backend.model.Role;
+import com.ecommerce.backend.repository.RoleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RoleRegistryTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @InjectMocks
+    private RoleRegistry roleRegistry;
+
+    @Test
+    void get_ResolvesEveryRoleFromASingleLoad() {
+        // ARRANGE
+        Role user = new Role(1L, ERole.ROLE_USER);
+        Role admin = new Role(2L, ERole.ROLE_ADMIN);
+        when(roleRepository.findAll()).thenReturn(List.of(user, admin));
+
+        // ACT
+        roleRegistry.load();
+
+        // ASSERT
+        assertSame(user, roleRegistry.get(ERole.ROLE_USER));
+        assertSame(admin, roleRegistry.get(ERole.ROLE_ADMIN));
+        assertSame(user, roleRegistry.get(ERole.ROLE_USER));
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void get_BeforeStartupCompletes_LoadsOnDemand() {
+        when(roleRepository.findAll()).thenReturn(List.of(new Role(1L, ERole.ROLE_USER)));
+
+        assertEquals(ERole.ROLE_USER, roleRegistry.get(ERole.ROLE_USER).getName());
+        assertThrows(IllegalStateException.class, () -> roleRegistry.get(ERole.ROLE_MODERATOR));
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void authorityOf_IsSharedPerRole() {
+        assertEquals("ROLE_ADMIN", RoleRegistry.authorityOf(ERole.ROLE_ADMIN).getAuthority());
+        assertSame(RoleRegistry.authorityOf(ERole.ROLE_ADMIN), RoleRegistry.authorityOf(ERole.ROLE_ADMIN));
+    }
+}
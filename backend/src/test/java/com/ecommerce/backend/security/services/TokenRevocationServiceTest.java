@@ -0,0 +1,97 @@
+package com.ecommerce.backend.security.services;
+
+import com.ecommerce.backend.model.RevokedToken;
+import com.ecommerce.backend.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+
+    private static final long EXPIRATION_MS = 3_600_000;
+    private static final long START = 1_700_000_000_000L;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private final AtomicLong now = new AtomicLong(START);
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TokenRevocationService(revokedTokenRepository, EXPIRATION_MS, 1_000, 0.01, now::get);
+    }
+
+    private static LocalDateTime at(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    @Test
+    void revokeToken_RejectsOnlyThatToken() {
+        // ACT
+        service.revokeToken("jti-1", 7L, new Date(START + EXPIRATION_MS));
+
+        // ASSERT
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        assertTrue(service.isRevoked("jti-1", new Date(START), 7L));
+        assertFalse(service.isRevoked("jti-2", new Date(START), 7L));
+    }
+
+    @Test
+    void revokeAllForUser_RejectsTokensIssuedUpToTheCutoff() {
+        service.revokeAllForUser(7L);
+
+        assertTrue(service.isRevoked("a", new Date(START - 60_000), 7L));
+        assertFalse(service.isRevoked("b", new Date(START + 1_000), 7L));
+        assertFalse(service.isRevoked("c", new Date(START - 60_000), 8L));
+    }
+
+    @Test
+    void refresh_PicksUpOtherInstancesRevocationsIncrementally() {
+        // ARRANGE: startup load, then one revocation recorded elsewhere
+        when(revokedTokenRepository.findActiveRevokedSince(any(), any()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(
+                        new RevokedToken("remote-jti", 9L, at(START + 1_000), at(START + EXPIRATION_MS)),
+                        new RevokedToken(null, 10L, at(START + 2_000), at(START + 2_000 + EXPIRATION_MS))));
+
+        // ACT
+        service.refresh();
+        now.set(START + 5_000);
+        service.refresh();
+
+        // ASSERT: the second query only looks back from the previous refresh (minus the overlap)
+        verify(revokedTokenRepository).findActiveRevokedSince(at(START - 60_000), at(START + 5_000));
+        assertTrue(service.isRevoked("remote-jti", new Date(START), 9L));
+        assertTrue(service.isRevoked("x", new Date(START), 10L));
+    }
+
+    @Test
+    void purgeExpired_ForgetsRevocationsOfExpiredTokens() {
+        service.revokeToken("short", 7L, new Date(START + 1_000));
+        service.revokeToken("long", 7L, new Date(START + EXPIRATION_MS));
+        service.revokeAllForUser(8L);
+
+        now.set(START + 2_000);
+        service.purgeExpired();
+
+        verify(revokedTokenRepository).deleteExpired(at(START + 2_000));
+        assertFalse(service.isRevoked("short", new Date(START), 7L));
+        assertTrue(service.isRevoked("long", new Date(START), 7L));
+        assertTrue(service.isRevoked("x", new Date(START), 8L));
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.backend.security.services;
+
+import com.ecommerce.backend.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserDetailsCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private UserDetailsCache cache;
+
+    private final Function<String, CustomUserDetails> loader = username -> {
+        loads.incrementAndGet();
+        if (username.equals("ghost")) {
+            throw new ResourceNotFoundException("User Not Found with username: " + username);
+        }
+        return new CustomUserDetails(1L, username, username + "@example.com", "hash", List.of());
+    };
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserDetailsCache(60_000, 2, meterRegistry, now::get);
+    }
+
+    @Test
+    void get_WithinTtl_LoadsOnceAndReportsHitRatio() {
+        // ACT
+        cache.get("alice", loader);
+        cache.get("alice", loader);
+        cache.get("alice", loader);
+        now.set(60_000);
+        cache.get("alice", loader);
+
+        // ASSERT
+        assertEquals(2, loads.get());
+        assertEquals(0.5, cache.hitRatio());
+        assertEquals(0.5, meterRegistry.get("security.userdetails.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void invalidate_ForcesReload() {
+        cache.get("alice", loader);
+        cache.invalidate("alice");
+        cache.get("alice", loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_UnknownUser_IsNotCached() {
+        assertThrows(ResourceNotFoundException.class, () -> cache.get("ghost", loader));
+        assertThrows(ResourceNotFoundException.class, () -> cache.get("ghost", loader));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_WhenFull_EvictsAnEntryToCacheTheNewUser() {
+        // ACT: a third user in a cache of two
+        cache.get("a", loader);
+        now.set(1_000);
+        cache.get("b", loader);
+        cache.get("c", loader);
+        cache.get("c", loader);
+
+        // ASSERT: c is cached (the soonest-expiring entry, a, made room), and the size stays bounded
+        assertEquals(3, loads.get());
+        assertEquals(2.0, meterRegistry.get("security.userdetails.cache.size").gauge().value());
+        cache.get("b", loader);
+        assertEquals(3, loads.get());
+    }
+}
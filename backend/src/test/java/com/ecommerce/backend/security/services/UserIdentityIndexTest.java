@@ -0,0 +1,104 @@
+package com.ecommerce.backend.security.services;
+
+import com.ecommerce.backend.repository.UserRepository;
+import com.ecommerce.backend.repository.UserRepository.UserIdentity;
+import com.ecommerce.backend.security.payload.response.AvailabilityResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserIdentityIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserIdentityIndex index;
+
+    private static UserIdentity identity(long id, String username, String email) {
+        return new UserIdentity() {
+            public Long getId() { return id; }
+            public String getUsername() { return username; }
+            public String getEmail() { return email; }
+        };
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new UserIdentityIndex(userRepository, 1_000, 0.01);
+    }
+
+    @Test
+    void beforeLoad_EverythingMightBeTaken() {
+        assertTrue(index.mightBeTaken("nobody", "nobody@example.com"));
+    }
+
+    @Test
+    void afterLoad_FreeNamesNeedNoQuery() {
+        // ARRANGE
+        when(userRepository.findIdentitiesAfter(eq(0L), any())).thenReturn(List.of(identity(1, "alice", "alice@example.com")));
+        index.load();
+
+        // ACT
+        AvailabilityResponse availability = index.checkAvailability("bob", "bob@example.com");
+
+        // ASSERT
+        assertFalse(index.mightBeTaken("bob", "bob@example.com"));
+        assertTrue(availability.getUsernameAvailable());
+        assertTrue(availability.getEmailAvailable());
+        verify(userRepository, never()).findIdentitiesByUsernameOrEmail(any(), any());
+    }
+
+    @Test
+    void takenName_IsConfirmedWithASingleQuery() {
+        // ARRANGE
+        when(userRepository.findIdentitiesAfter(eq(0L), any())).thenReturn(List.of(identity(1, "alice", "alice@example.com")));
+        index.load();
+        when(userRepository.findIdentitiesByUsernameOrEmail("alice", null))
+                .thenReturn(List.of(identity(1, "alice", "alice@example.com")));
+
+        // ACT
+        AvailabilityResponse availability = index.checkAvailability("alice", "new@example.com");
+
+        // ASSERT
+        assertTrue(index.mightBeTaken("alice", "new@example.com"));
+        assertFalse(availability.getUsernameAvailable());
+        assertTrue(availability.getEmailAvailable());
+        verify(userRepository, times(1)).findIdentitiesByUsernameOrEmail(any(), any());
+    }
+
+    @Test
+    void record_MakesNewSignupsVisible() {
+        when(userRepository.findIdentitiesAfter(eq(0L), any())).thenReturn(List.of());
+        index.load();
+
+        index.record("carol", "Carol@Example.com");
+
+        assertTrue(index.mightBeTaken("carol", "x@example.com"));
+        assertTrue(index.mightBeTaken("x", "carol@example.com"));
+    }
+
+    @Test
+    void takenName_InAnotherCase_IsNotAvailable() {
+        // ARRANGE: a case-insensitive collation returns the stored spelling
+        when(userRepository.findIdentitiesAfter(eq(0L), any())).thenReturn(List.of(identity(1, "Alice", "Alice@Example.com")));
+        index.load();
+        when(userRepository.findIdentitiesByUsernameOrEmail("alice", "alice@example.com"))
+                .thenReturn(List.of(identity(1, "Alice", "Alice@Example.com")));
+
+        // ACT
+        AvailabilityResponse availability = index.checkAvailability("alice", "alice@example.com");
+
+        // ASSERT
+        assertFalse(availability.getUsernameAvailable());
+        assertFalse(availability.getEmailAvailable());
+    }
+}
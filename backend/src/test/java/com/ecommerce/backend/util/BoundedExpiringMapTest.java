@@ -0,0 +1,145 @@
+package com.ecommerce.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedExpiringMapTest {
+
+    private static final long SWEEP_INTERVAL = 1_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    // Values are their own expiry time
+    private BoundedExpiringMap<String, Long> map(int maxEntries) {
+        return new BoundedExpiringMap<>(maxEntries, Long::longValue, now::get, SWEEP_INTERVAL);
+    }
+
+    @Test
+    void get_ExpiredEntry_IsNeverReturned() {
+        BoundedExpiringMap<String, Long> map = map(10);
+        map.put("a", now.get() + 100);
+
+        assertEquals(now.get() + 100, map.get("a"));
+        now.addAndGet(100);
+        assertNull(map.get("a"));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void put_WhenFull_SweepsExpiredEntriesFirst() {
+        BoundedExpiringMap<String, Long> map = map(2);
+        map.put("expired", now.get() + 10);
+        map.put("live", now.get() + 60_000);
+        now.addAndGet(10);
+
+        map.put("new", now.get() + 1_000);
+
+        assertEquals(2, map.size());
+        assertNotNull(map.get("live"));
+        assertNotNull(map.get("new"));
+    }
+
+    @Test
+    void put_WhenFullOfLiveEntries_EvictsTheSoonestExpiring() {
+        BoundedExpiringMap<String, Long> map = map(3);
+        map.put("late", now.get() + 60_000);
+        map.put("soon", now.get() + 1_000);
+        map.put("later", now.get() + 120_000);
+
+        map.put("new", now.get() + 5_000);
+
+        assertEquals(3, map.size());
+        assertNull(map.get("soon"));
+        assertNotNull(map.get("late"));
+        assertNotNull(map.get("later"));
+        assertNotNull(map.get("new"));
+    }
+
+    @Test
+    void put_WhenFull_ReportsTheEvictedEntry() {
+        List<String> evicted = new ArrayList<>();
+        BoundedExpiringMap<String, Long> map = new BoundedExpiringMap<>(1, Long::longValue, now::get, SWEEP_INTERVAL,
+                (key, value) -> evicted.add(key));
+        map.put("a", now.get() + 1_000);
+
+        map.put("b", now.get() + 1_000);
+        map.remove("b");
+
+        assertEquals(List.of("a"), evicted);
+    }
+
+    @Test
+    void put_WhenFull_SweepsAtMostOncePerInterval() {
+        BoundedExpiringMap<String, Long> map = map(2);
+        map.put("a", now.get() + 10);
+        map.put("b", now.get() + 10);
+        now.addAndGet(10);
+
+        // The first sweep removes both expired entries
+        map.put("c", now.get() + 10);
+        map.put("d", now.get() + 60_000);
+        assertEquals(2, map.size());
+
+        // c has expired, but the next sweep is not due: one entry is evicted instead of swept
+        now.addAndGet(10);
+        map.put("e", now.get() + 60_000);
+        map.put("f", now.get() + 60_000);
+        assertEquals(2, map.size());
+        assertNull(map.get("d"));
+        assertNotNull(map.get("f"));
+    }
+
+    @Test
+    void put_ExistingKey_ReplacesWithoutEvicting() {
+        BoundedExpiringMap<String, Long> map = map(2);
+        map.put("a", now.get() + 1_000);
+        map.put("b", now.get() + 2_000);
+
+        map.put("a", now.get() + 3_000);
+
+        assertEquals(now.get() + 3_000, map.get("a"));
+        assertNotNull(map.get("b"));
+    }
+
+    @Test
+    void getOrCreate_KeepsALiveValueAndReplacesAnExpiredOne() {
+        BoundedExpiringMap<String, Long> map = map(10);
+        long first = map.getOrCreate("a", key -> now.get() + 100);
+
+        assertEquals(first, map.getOrCreate("a", key -> now.get() + 500));
+        now.addAndGet(100);
+        assertEquals(now.get() + 500, map.getOrCreate("a", key -> now.get() + 500));
+    }
+
+    @Test
+    void removeExpired_DropsOnlyExpiredEntries() {
+        BoundedExpiringMap<String, Long> map = map(10);
+        map.put("a", now.get() + 10);
+        map.put("b", now.get() + 1_000);
+        now.addAndGet(10);
+
+        assertEquals(1, map.removeExpired());
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void expiry_IsComparedAcrossClockWrapAround() {
+        now.set(Long.MAX_VALUE - 10);
+        BoundedExpiringMap<String, Long> map = map(10);
+        map.put("a", now.get() + 100); // wraps to a negative expiry
+
+        assertNotNull(map.get("a"));
+        now.addAndGet(100);
+        assertNull(map.get("a"));
+    }
+
+    @Test
+    void constructor_NoCapacity_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> map(0));
+    }
+}
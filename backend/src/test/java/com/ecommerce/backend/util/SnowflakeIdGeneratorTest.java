@@ -0,0 +1,91 @@
+package com.ecommerce.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnowflakeIdGeneratorTest {
+
+    @Test
+    void nextId_IsIncreasingAndEncodesNodeAndTime() {
+        long now = SnowflakeIdGenerator.EPOCH.toEpochMilli() + 5_000;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, () -> now);
+
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        assertTrue(second > first);
+        assertEquals(7, (first >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID);
+        assertEquals(SnowflakeIdGenerator.EPOCH.plusMillis(5_000), SnowflakeIdGenerator.timestampOf(first));
+    }
+
+    @Test
+    void nextId_ClockMovesBackwards_StaysUnique() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH.toEpochMilli() + 10_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get);
+
+        long beforeRewind = generator.nextId();
+        clock.addAndGet(-1_000);
+        long afterRewind = generator.nextId();
+
+        assertTrue(afterRewind > beforeRewind);
+    }
+
+    @Test
+    void nextId_SequenceOverflow_CarriesIntoTimestamp() {
+        long now = SnowflakeIdGenerator.EPOCH.toEpochMilli() + 1;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, () -> now);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long next = generator.nextId();
+            assertTrue(next > previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void nextId_ConcurrentCallers_NoDuplicates() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, System::currentTimeMillis);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 50_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.nextId());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void constructor_NodeIdOutOfRange_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024, System::currentTimeMillis));
+    }
+
+    @Test
+    void nodeIdSetting_MissingOrInvalid_FailsInsteadOfDefaulting() {
+        assertEquals(5, SnowflakeIdentifierGenerator.parseNodeId("5"));
+        assertEquals(5, SnowflakeIdentifierGenerator.parseNodeId(5));
+
+        // Unset environment variable: Spring leaves the placeholder in place
+        assertThrows(IllegalStateException.class, () -> SnowflakeIdentifierGenerator.parseNodeId("${ECOMMERCE_NODE_ID}"));
+        assertThrows(IllegalStateException.class, () -> SnowflakeIdentifierGenerator.parseNodeId(null));
+        assertThrows(IllegalStateException.class,
+                () -> SnowflakeIdentifierGenerator.parseNodeId(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+    }
+}